@@ -0,0 +1,167 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * Benchmark fixture that runs an embedded Equinox instance on a synthetic
+ * installation area. All areas are located in a temporary folder which is
+ * deleted when the framework is stopped.
+ *
+ * @version 2.0.0 17.10.2026 15:10:23
+ */
+public class EmbeddedFramework {
+
+	private static final String DEF_PROPS = "framework.default.properties"; //$NON-NLS-1$
+	private static final int LEVELS = 5;
+
+	private final Path installArea;
+	private final Path root;
+
+	/**
+	 * Creates a new <code>EmbeddedFramework</code> instance with an empty
+	 * installation area.
+	 */
+	public EmbeddedFramework() {
+		super();
+
+		try {
+			root = Files.createTempDirectory("car.osgi.bench"); //$NON-NLS-1$
+			installArea = Files.createDirectories(root.resolve("bundles")); //$NON-NLS-1$
+		} catch (IOException anEx) {
+			throw new UncheckedIOException(anEx);
+		}
+	}
+
+	/**
+	 * Loads the default framework properties and redirects all framework areas to
+	 * the temporary folder.
+	 *
+	 * @param anOverride additional framework properties
+	 * @return the framework properties
+	 */
+	public Config config(Map<String, String> anOverride) {
+		Map<String, String> l_map = new HashMap<String, String>(anOverride);
+
+		l_map.put(VAL.framework_data_area, root.resolve("workspace").toString()); //$NON-NLS-1$
+		l_map.put("framework.install.area", installArea.toString()); //$NON-NLS-1$
+		l_map.put("framework.storage.area", root.resolve("bundle-cache").toString()); //$NON-NLS-1$ //$NON-NLS-2$
+		l_map.put("bundle.cache.clean", "onFirstInit"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		return ConfigFactory.parseMap(l_map).withFallback(ConfigFactory.parseResources(DEF_PROPS));
+	}
+
+	/**
+	 * Creates jars with a minimal bundle manifest, distributed over the start
+	 * level folders <code>01</code> to <code>05</code> of the installation area.
+	 *
+	 * @param aCount the number of jars to create
+	 */
+	public void createJars(int aCount) {
+		for (int i = 0; i < aCount; i++) {
+			Path l_folder = installArea.resolve(String.format("%02d", i % LEVELS + 1)); //$NON-NLS-1$
+			Manifest l_mf = new Manifest();
+			Attributes l_attrs = l_mf.getMainAttributes();
+
+			l_attrs.put(Attributes.Name.MANIFEST_VERSION, "1.0"); //$NON-NLS-1$
+			l_attrs.putValue("Bundle-ManifestVersion", "2"); //$NON-NLS-1$ //$NON-NLS-2$
+			l_attrs.putValue("Bundle-SymbolicName", "bench.bundle" + i); //$NON-NLS-1$ //$NON-NLS-2$
+			l_attrs.putValue("Bundle-Version", "1.0.0"); //$NON-NLS-1$ //$NON-NLS-2$
+
+			try {
+				Files.createDirectories(l_folder);
+
+				try (OutputStream l_out = Files.newOutputStream(l_folder.resolve("bench" + i + ".jar")); //$NON-NLS-1$ //$NON-NLS-2$
+				    JarOutputStream l_jar = new JarOutputStream(l_out, l_mf)) {
+					l_jar.flush();
+				}
+			} catch (IOException anEx) {
+				throw new UncheckedIOException(anEx);
+			}
+		}
+	}
+
+	/**
+	 * @return the root folder of the installation area
+	 */
+	public Path installArea() {
+		return installArea;
+	}
+
+	/**
+	 * Initializes the embedded framework the same way the <code>Launcher</code>
+	 * does.
+	 *
+	 * @param anOverride additional framework properties
+	 */
+	public void init(Map<String, String> anOverride) {
+		Map<String, String> l_conf = new Launcher().buildOsgiConfig(config(anOverride));
+
+		l_conf.values().removeIf(v -> v == null);
+		XFramework.init(l_conf);
+	}
+
+	/**
+	 * Starts the embedded framework without waiting for its termination.
+	 */
+	public void start() {
+		try {
+			XFramework.context().getBundle(0).start();
+		} catch (BundleException anEx) {
+			throw new IllegalStateException(anEx);
+		}
+	}
+
+	/**
+	 * Stops the embedded framework and deletes the temporary folder.
+	 */
+	public void stop() {
+		XFramework.stop();
+
+		try (Stream<Path> l_paths = Files.walk(root)) {
+			l_paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		} catch (IOException anEx) {
+			throw new UncheckedIOException(anEx);
+		}
+	}
+
+	/**
+	 * Uninstalls all bundles except the system bundle.
+	 */
+	public void uninstallAll() {
+		for (Bundle l_bundle : XFramework.context().getBundles()) {
+			if (l_bundle.getBundleId() != 0) {
+				try {
+					l_bundle.uninstall();
+				} catch (BundleException anEx) {
+					throw new IllegalStateException(anEx);
+				}
+			}
+		}
+	}
+}
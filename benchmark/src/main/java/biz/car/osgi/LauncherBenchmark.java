@@ -0,0 +1,80 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.typesafe.config.Config;
+
+/**
+ * Measures the conversion of the framework properties into the configuration
+ * of the OSGi framework.
+ *
+ * @version 2.0.0 17.10.2026 15:14:48
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LauncherBenchmark {
+
+	private Config config;
+	private EmbeddedFramework framework;
+	private Launcher launcher;
+
+	/**
+	 * Creates a default <code>LauncherBenchmark</code> instance.
+	 */
+	public LauncherBenchmark() {
+		super();
+	}
+
+	/**
+	 * Builds the framework configuration from the default framework properties.
+	 *
+	 * @return the configuration of the OSGi framework
+	 */
+	@Benchmark
+	public Map<String, String> buildOsgiConfig() {
+		return launcher.buildOsgiConfig(config);
+	}
+
+	/**
+	 * Loads the default framework properties.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		framework = new EmbeddedFramework();
+		config = framework.config(Collections.emptyMap());
+		launcher = new Launcher();
+	}
+
+	/**
+	 * Deletes the temporary folder.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		framework.stop();
+	}
+}
@@ -0,0 +1,76 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.bundle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the decoding of OSGi event types and bundle states into names.
+ *
+ * @version 2.0.0 17.10.2026 15:17:06
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BNDBenchmark {
+
+	@Param({ "1", "32", "512", "3" })
+	private int type;
+
+	/**
+	 * Creates a default <code>BNDBenchmark</code> instance.
+	 */
+	public BNDBenchmark() {
+		super();
+	}
+
+	/**
+	 * @return the name of a bundle event type
+	 */
+	@Benchmark
+	public String bundleEvent() {
+		return BND.bundleEvent(type);
+	}
+
+	/**
+	 * @return the name of a framework event type
+	 */
+	@Benchmark
+	public String frameworkEvent() {
+		return BND.frameworkEvent(type);
+	}
+
+	/**
+	 * @return the name of a service event type
+	 */
+	@Benchmark
+	public String serviceEvent() {
+		return BND.serviceEvent(type);
+	}
+
+	/**
+	 * @return the name of a bundle state
+	 */
+	@Benchmark
+	public String state() {
+		return BND.state(type);
+	}
+}
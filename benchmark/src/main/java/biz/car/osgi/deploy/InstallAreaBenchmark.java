@@ -0,0 +1,157 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Bundle;
+
+import biz.car.osgi.EmbeddedFramework;
+
+/**
+ * Measures the scan of the installation area and its reconciliation with the
+ * bundle storage of an embedded Equinox. The synthetic installation area
+ * contains the given number of jars spread over the start level folders.
+ *
+ * @version 2.0.0 17.10.2026 15:21:37
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstallAreaBenchmark {
+
+	@Param({ "100", "1000", "10000" })
+	private int jars;
+
+	private EmbeddedFramework framework;
+
+	/**
+	 * Creates a default <code>InstallAreaBenchmark</code> instance.
+	 */
+	public InstallAreaBenchmark() {
+		super();
+	}
+
+	/**
+	 * Reconciles an installation area whose jars are all installed already. This
+	 * is the cost of a restart without changes.
+	 *
+	 * @return the changed bundles, i.e. an empty list
+	 */
+	@Benchmark
+	public List<Bundle> reconcileUnchanged() {
+		return new InstallArea().reconcile();
+	}
+
+	/**
+	 * Walks the installation area and indexes all jars.
+	 *
+	 * @return the inventory of the jars
+	 */
+	@Benchmark
+	public BundleInventory scan() {
+		return BundleInventory.scan(InstallArea.root());
+	}
+
+	/**
+	 * Creates the installation area, starts the framework and installs all jars.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		framework = new EmbeddedFramework();
+		framework.createJars(jars);
+		framework.init(Collections.emptyMap());
+		new InstallArea().reconcile();
+	}
+
+	/**
+	 * Stops the framework and deletes the installation area.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		framework.stop();
+	}
+
+	/**
+	 * Measures the installation of all jars into an empty bundle storage, as on a
+	 * cold start with a clean storage area.
+	 */
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	@Fork(1)
+	@State(Scope.Benchmark)
+	public static class Cold {
+
+		@Param({ "100", "1000", "10000" })
+		private int jars;
+
+		private EmbeddedFramework framework;
+
+		/**
+		 * Creates a default <code>Cold</code> instance.
+		 */
+		public Cold() {
+			super();
+		}
+
+		/**
+		 * Installs all jars of the installation area.
+		 *
+		 * @return the installed bundles
+		 */
+		@Benchmark
+		public List<Bundle> reconcileInstall() {
+			return new InstallArea().reconcile();
+		}
+
+		/**
+		 * Uninstalls the bundles of the previous iteration.
+		 */
+		@Setup(Level.Iteration)
+		public void clean() {
+			framework.uninstallAll();
+		}
+
+		/**
+		 * Creates the installation area and initializes the framework.
+		 */
+		@Setup(Level.Trial)
+		public void setup() {
+			framework = new EmbeddedFramework();
+			framework.createJars(jars);
+			framework.init(Collections.emptyMap());
+		}
+
+		/**
+		 * Stops the framework and deletes the installation area.
+		 */
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			framework.stop();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+
+import biz.car.osgi.EmbeddedFramework;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.deploy.InstallArea;
+
+/**
+ * Measures the start of all bundles of a synthetic installation area in a
+ * running embedded Equinox, serially and in parallel waves per start level.
+ *
+ * @version 2.0.0 17.10.2026 15:26:58
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartBundlesBenchmark {
+
+	@Param({ "100", "1000" })
+	private int jars;
+
+	@Param({ "serial", "parallel" })
+	private String mode;
+
+	private List<Bundle> bundles;
+	private EmbeddedFramework framework;
+
+	/**
+	 * Creates a default <code>StartBundlesBenchmark</code> instance.
+	 */
+	public StartBundlesBenchmark() {
+		super();
+	}
+
+	/**
+	 * Starts all installed bundles.
+	 */
+	@Benchmark
+	public void startBundles() {
+		XFramework.startBundles(bundles);
+	}
+
+	/**
+	 * Creates the installation area, installs all jars and starts the framework.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		framework = new EmbeddedFramework();
+		framework.createJars(jars);
+		framework.init(Map.of(VAL.framework_activation_mode, mode));
+		bundles = new ArrayList<Bundle>(new InstallArea().reconcile());
+		framework.start();
+	}
+
+	/**
+	 * Stops the bundles started by the previous iteration.
+	 */
+	@Setup(Level.Iteration)
+	public void stopBundles() {
+		for (Bundle l_bundle : bundles) {
+			try {
+				l_bundle.stop();
+			} catch (BundleException anEx) {
+				throw new IllegalStateException(anEx);
+			}
+		}
+	}
+
+	/**
+	 * Stops the framework and deletes the installation area.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		framework.stop();
+	}
+}
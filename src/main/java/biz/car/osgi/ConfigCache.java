@@ -0,0 +1,295 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi;
+
+import static biz.car.bundle.VAL._default;
+import static biz.car.bundle.VAL._properties;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import biz.car.SYS;
+import biz.car.config.ACS;
+import biz.car.config.XConfig;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.KEY;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.util.ClassUtil;
+
+/**
+ * A compiled cache of the launcher configuration in the framework data area.
+ * <br>
+ * The cache holds the system properties, the framework properties and the
+ * final configuration of the OSGi framework as flat string maps in a compact
+ * binary file. It is keyed by a SHA-256 hash over the contents of all
+ * contributing property files and resources, the system properties of the VM
+ * (including the <code>-D</code> overrides) and the name of the diagnose
+ * logger. As long as the key matches, the launcher uses the cached maps instead
+ * of parsing the property files and building the framework configuration.<br>
+ * The cache is located in the default data area or in the data area given as
+ * system property. It is not written if the framework properties configure
+ * another data area or disable the cache.
+ *
+ * @version 2.0.0 17.10.2026 20:17:09
+ */
+public class ConfigCache {
+
+	private static final int MAGIC = 0x43434643;
+	private static final int VERSION = 1;
+
+	private Map<String, String> framework;
+	private final byte[] key;
+	private Map<String, String> osgi;
+	private final File store;
+	private Map<String, String> system;
+
+	/**
+	 * Creates a new <code>ConfigCache</code> instance and computes the key of the
+	 * current configuration sources.
+	 *
+	 * @param aNames the base names of the property files, e.g. 'system' and
+	 *               'framework'
+	 */
+	public ConfigCache(String... aNames) {
+		super();
+
+		String l_area = System.getProperty(VAL.framework_data_area, BND.DATA_AREA);
+
+		store = new File(l_area, BND.CONFIG_CACHE).getAbsoluteFile();
+		key = key(aNames);
+	}
+
+	/**
+	 * @return the cached framework properties
+	 */
+	public Config framework() {
+		return ConfigFactory.parseMap(framework);
+	}
+
+	/**
+	 * Loads the cache if its key matches the current configuration sources.
+	 *
+	 * @return <code>true</code> if the cache is valid and has been loaded
+	 */
+	public boolean load() {
+		if (key.length == 0 || !store.isFile()) {
+			return false;
+		}
+		try (InputStream l_in = new BufferedInputStream(new FileInputStream(store));
+		    DataInputStream l_data = new DataInputStream(l_in)) {
+			if (l_data.readInt() != MAGIC || l_data.readInt() != VERSION) {
+				return false;
+			}
+			byte[] l_key = new byte[key.length];
+
+			l_data.readFully(l_key);
+
+			if (!Arrays.equals(key, l_key)) {
+				return false;
+			}
+			system = read(l_data);
+			framework = read(l_data);
+			osgi = read(l_data);
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.CONFIG_CACHE_IGNORED, store, anEx.toString());
+			return false;
+		}
+		SYS.LOG.info(MSG.CONFIG_CACHE_LOADED, store, osgi.size());
+		return true;
+	}
+
+	/**
+	 * @return the cached configuration of the OSGi framework
+	 */
+	public Map<String, String> osgi() {
+		return osgi;
+	}
+
+	/**
+	 * Writes the configuration to the cache. The cache is removed instead, if the
+	 * framework properties disable it or configure a data area other than the
+	 * location of the cache. The latter is logged, since the cache can't be
+	 * located before the framework properties are parsed.
+	 *
+	 * @param aSystem    the system properties
+	 * @param aFramework the framework properties
+	 * @param anOsgi     the configuration of the OSGi framework
+	 */
+	public void save(Config aSystem, Config aFramework, Map<String, String> anOsgi) {
+		File l_area = new File(aFramework.getString(VAL.framework_data_area)).getAbsoluteFile();
+		boolean l_enabled = !aFramework.hasPath(VAL.framework_config_cache)
+		    || aFramework.getBoolean(VAL.framework_config_cache);
+
+		if (key.length == 0 || !l_enabled) {
+			store.delete();
+			return;
+		}
+		if (!l_area.equals(store.getParentFile())) {
+			SYS.LOG.info(MSG.CONFIG_CACHE_SKIPPED, l_area, VAL.framework_data_area);
+			store.delete();
+			return;
+		}
+		File l_tmp = new File(store.getPath() + ".tmp"); //$NON-NLS-1$
+
+		l_area.mkdirs();
+
+		try (DataOutputStream l_data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(l_tmp)))) {
+			l_data.writeInt(MAGIC);
+			l_data.writeInt(VERSION);
+			l_data.write(key);
+
+			write(l_data, XConfig.toStringMap(aSystem));
+			write(l_data, XConfig.toStringMap(aFramework));
+			write(l_data, anOsgi);
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.CONFIG_CACHE_IGNORED, store, anEx.toString());
+			return;
+		}
+		try {
+			Files.move(l_tmp.toPath(), store.toPath(), StandardCopyOption.REPLACE_EXISTING,
+			    StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.CONFIG_CACHE_IGNORED, store, anEx.toString());
+		}
+	}
+
+	/**
+	 * @return the cached system properties
+	 */
+	public Config system() {
+		return ConfigFactory.parseMap(system);
+	}
+
+	/**
+	 * Adds the content of a configuration source to the key. A missing source is
+	 * added as a marker, so that its later creation changes the key.
+	 *
+	 * @param aDigest the digest of the key
+	 * @param aName   the name of the source
+	 * @param aURL    the location of the source or <code>null</code>
+	 * @throws IOException if the source can't be read
+	 */
+	private static void digest(MessageDigest aDigest, String aName, URL aURL) throws IOException {
+		aDigest.update(aName.getBytes(StandardCharsets.UTF_8));
+
+		if (aURL == null) {
+			aDigest.update((byte) 0);
+			return;
+		}
+		try (InputStream l_in = aURL.openStream()) {
+			aDigest.update((byte) 1);
+			aDigest.update(l_in.readAllBytes());
+		}
+	}
+
+	/**
+	 * Computes the key of the configuration sources in the order in which the
+	 * launcher looks them up.
+	 *
+	 * @param aNames the base names of the property files
+	 * @return the SHA-256 hash of the sources
+	 */
+	private static byte[] key(String... aNames) {
+		try {
+			MessageDigest l_digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			ClassLoader l_cl = Thread.currentThread().getContextClassLoader();
+			String l_keys = BND.FRAMEWORK + _properties;
+
+			for (String l_name : aNames) {
+				String l_default = l_name + _default + _properties;
+				String l_resource = l_name + _properties;
+				Optional<URL> l_url = ClassUtil.getResource(l_resource);
+				File l_file = new File(l_resource);
+
+				digest(l_digest, l_default, l_cl == null ? null : l_cl.getResource(l_default));
+
+				if (l_url.isEmpty() && l_file.isFile()) {
+					l_url = Optional.of(l_file.toURI().toURL());
+				}
+				digest(l_digest, l_resource, l_url.orElse(null));
+			}
+			digest(l_digest, l_keys, KEY.class.getClassLoader().getResource(l_keys));
+
+			Properties l_props = System.getProperties();
+			Map<String, String> l_sorted = new TreeMap<String, String>();
+
+			l_props.stringPropertyNames().forEach(k -> l_sorted.put(k, l_props.getProperty(k)));
+			l_digest.update(l_sorted.toString().getBytes(StandardCharsets.UTF_8));
+			l_digest.update(ACS.APP.getString(VAL.diagnoseLogger).getBytes(StandardCharsets.UTF_8));
+
+			return l_digest.digest();
+		} catch (IOException | NoSuchAlgorithmException anEx) {
+			// the cache is neither loaded nor written without a key
+			return new byte[0];
+		}
+	}
+
+	private static Map<String, String> read(DataInputStream anIn) throws IOException {
+		int l_count = anIn.readInt();
+		Map<String, String> l_ret = new HashMap<String, String>();
+
+		for (int i = 0; i < l_count; i++) {
+			l_ret.put(readString(anIn), readString(anIn));
+		}
+		return l_ret;
+	}
+
+	private static String readString(DataInputStream anIn) throws IOException {
+		int l_length = anIn.readInt();
+
+		if (l_length < 0) {
+			return null;
+		}
+		byte[] l_bytes = new byte[l_length];
+
+		anIn.readFully(l_bytes);
+		return new String(l_bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void write(DataOutputStream anOut, Map<String, String> aMap) throws IOException {
+		anOut.writeInt(aMap.size());
+
+		for (Map.Entry<String, String> l_entry : aMap.entrySet()) {
+			writeString(anOut, l_entry.getKey());
+			writeString(anOut, l_entry.getValue());
+		}
+	}
+
+	private static void writeString(DataOutputStream anOut, String aValue) throws IOException {
+		if (aValue == null) {
+			anOut.writeInt(-1);
+			return;
+		}
+		byte[] l_bytes = aValue.getBytes(StandardCharsets.UTF_8);
+
+		anOut.writeInt(l_bytes.length);
+		anOut.write(l_bytes);
+	}
+}
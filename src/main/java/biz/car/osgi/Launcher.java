@@ -28,6 +28,7 @@ import biz.car.osgi.bundle.MSG;
 import biz.car.osgi.bundle.VAL;
 import biz.car.osgi.deploy.Deployer;
 import biz.car.osgi.deploy.InstallArea;
+import biz.car.osgi.framework.StartupProfile;
 import biz.car.osgi.framework.XFramework;
 
 /**
@@ -64,17 +65,29 @@ public class Launcher implements Runnable {
 	@Override
 	public void run() {
 		try {
+			long l_phase = StartupProfile.begin();
+			ConfigCache l_cache = new ConfigCache(SYM, FWK);
+			boolean l_cached = l_cache.load();
+
 			// load system properties
-			Config l_sysProps = loadProperties(SYM);
+			Config l_sysProps = l_cached ? l_cache.system() : loadProperties(SYM);
 
 			SYS.addProperties(l_sysProps);
 			SYS.LOG.info(MSG.PROPERTIES_LOADED, SYM_PROPS);
 
 			// load framework properties
-			Config l_fwkProps = loadProperties(FWK);
+			Config l_fwkProps = l_cached ? l_cache.framework() : loadProperties(FWK);
 
 			SYS.LOG.info(MSG.PROPERTIES_LOADED, FWK_PROPS);
 
+			// Build the framework configuration
+			Map<String, String> l_osgiConf = l_cached ? l_cache.osgi() : buildOsgiConfig(l_fwkProps);
+
+			if (!l_cached) {
+				l_cache.save(l_sysProps, l_fwkProps, l_osgiConf);
+			}
+			StartupProfile.phase("properties", l_phase); //$NON-NLS-1$
+
 			// process the framework data area
 			String l_da = l_fwkProps.getString(VAL.framework_data_area);
 			File l_ws = new File(l_da);
@@ -88,24 +101,27 @@ public class Launcher implements Runnable {
 
 			Runtime.getRuntime().addShutdownHook(l_thread);
 
-			// Build the framework configuration
-			Map<String, String> l_osgiConf = buildOsgiConfig(l_fwkProps);
-
 			// create an instance of the OSGi framework and initialize it
+			l_phase = StartupProfile.begin();
 			XFramework.init(l_osgiConf);
+			StartupProfile.phase("init", l_phase); //$NON-NLS-1$
 
 			// process the OSGi install area by provisioning
 			// jar file changes to OSGi bundle storage
 			Deployer l_deployer = InstallArea.watcher();
 
+			l_phase = StartupProfile.begin();
 			l_deployer.processInstallArea();
+			StartupProfile.phase("install area", l_phase); //$NON-NLS-1$
 
 			// Start hot deployment if enabled
 			String l_deployKey = VAL.framework_hotdeploy_enabled;
 			boolean l_enabled = l_fwkProps.getBoolean(l_deployKey);
 
 			if (l_enabled) {
+				l_phase = StartupProfile.begin();
 				l_deployer.watchInstallArea();
+				StartupProfile.phase("hot deployment", l_phase); //$NON-NLS-1$
 			}
 			// start the framework and wait for stop to exit the VM
 			XFramework.start();
@@ -130,7 +146,14 @@ public class Launcher implements Runnable {
 		SYS.LOG.info(MSG.FWK_STOPPED);
 	}
 
-	private Map<String, String> buildOsgiConfig(Config aConfig) {
+	/**
+	 * Builds the configuration of the OSGi framework from the framework
+	 * properties.
+	 * 
+	 * @param aConfig the framework properties
+	 * @return the properties as required by the OSGi framework implementation
+	 */
+	Map<String, String> buildOsgiConfig(Config aConfig) {
 		Map<String, String> l_map = XConfig.toStringMap(aConfig);
 		XConfig l_fwkKeys = new CConfig(KEY.conf);
 
@@ -146,6 +169,15 @@ public class Launcher implements Runnable {
 
 		l_map.put(l_key, l_val);
 
+		// Let the framework activate the bundles of a start level concurrently
+		// when it raises the start level, unless configured explicitly
+		l_val = l_map.get(VAL.framework_activation_parallelism);
+
+		if (VAL.parallel.equals(l_map.get(VAL.framework_activation_mode)) && l_val != null) {
+			l_map.putIfAbsent(VAL.equinox_start_level_thread_count, l_val.trim());
+			l_map.putIfAbsent(VAL.equinox_start_level_restrict_parallel, Boolean.FALSE.toString());
+		}
+
 		// publish the persistence storage for the Felix Configuration Admin
 		l_key = VAL.framework_configuration_cm;
 		l_val = l_map.get(l_key);
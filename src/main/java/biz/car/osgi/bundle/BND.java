@@ -17,19 +17,50 @@ import biz.car.config.ACS;
  */
 public class BND {
 
+	public static String AREA_SCAN;
+	public static String BUNDLE_ACTIVATION;
+	public static String BUNDLE_QUARANTINE;
+	public static String BUNDLE_SHUTDOWN;
 	public static String BUNDLE_WATCHER;
+	public static String COMMAND_SCOPE;
+	public static String CONFIG_CACHE;
+	public static String DATA_AREA;
+	public static String DEPLOY_QUEUE;
+	public static String DIAGNOSTICS_FOLDER;
+	public static String DIGEST_STORE;
+	public static String DRY_RUN_REJECTED;
+	public static String DRY_RUN_UNRESOLVED;
+	public static String EVENT_LOG;
+	public static String FINGERPRINT_STORE;
 	public static String FRAMEWORK;
 	public static String FRAMEWORK_REFREH_TIMEOUT;
+	public static String LAZY_ACTIVATION;
+	public static String MANIFEST_DUPLICATE;
+	public static String MANIFEST_INDEX;
+	public static String MANIFEST_INDEX_FORMAT;
+	public static String MANIFEST_INVALID;
+	public static String MANIFEST_UNREADABLE;
 	public static String OSGI_MAIN;
+	public static String QUARANTINE_STORE;
 	public static String SHUTDOWN_HOOK;
+	public static String START_FAILED;
 
+	private static final int FLAGS = 31;
+	private static final String[] bundleEvents;
 	private static final Config conf;
+	private static final String[] frameworkEvents;
+	private static final String[] serviceEvents;
+	private static final String[] states;
 
 	// -------------------------------------------------------------------------
 	// Initialize the static fields
 	// -------------------------------------------------------------------------
 	static {
 		conf = ACS.initialize(BND.class, "BND.conf"); //$NON-NLS-1$
+		bundleEvents = names("BUNDLE_EVENT"); //$NON-NLS-1$
+		frameworkEvents = names("FRAMEWORK_EVENT"); //$NON-NLS-1$
+		serviceEvents = names("SERVICE_EVENT"); //$NON-NLS-1$
+		states = names("STATE"); //$NON-NLS-1$
 	}
 
 	/**
@@ -39,13 +70,7 @@ public class BND {
 	 * @return the type as a string
 	 */
 	public static String bundleEvent(int aType) {
-		String l_ret = Integer.toString(aType);
-		String l_state = "BUNDLE_EVENT" + l_ret; //$NON-NLS-1$
-
-		if (conf.hasPath(l_state)) {
-			l_ret = conf.getString(l_state);
-		}
-		return l_ret;
+		return name(bundleEvents, aType);
 	}
 
 	/**
@@ -55,13 +80,7 @@ public class BND {
 	 * @return the type as a string
 	 */
 	public static String frameworkEvent(int aType) {
-		String l_ret = Integer.toString(aType);
-		String l_state = "FRAMEWORK_EVENT" + l_ret; //$NON-NLS-1$
-
-		if (conf.hasPath(l_state)) {
-			l_ret = conf.getString(l_state);
-		}
-		return l_ret;
+		return name(frameworkEvents, aType);
 	}
 
 	/**
@@ -71,13 +90,7 @@ public class BND {
 	 * @return the type as a string
 	 */
 	public static String serviceEvent(int aType) {
-		String l_ret = Integer.toString(aType);
-		String l_state = "SERVICE_EVENT" + l_ret; //$NON-NLS-1$
-
-		if (conf.hasPath(l_state)) {
-			l_ret = conf.getString(l_state);
-		}
-		return l_ret;
+		return name(serviceEvents, aType);
 	}
 
 	/**
@@ -87,11 +100,41 @@ public class BND {
 	 * @return the state as a string
 	 */
 	public static String state(int aState) {
-		String l_ret = Integer.toString(aState);
-		String l_state = "STATE" + l_ret; //$NON-NLS-1$
+		return name(states, aState);
+	}
+
+	/**
+	 * Looks up the name of a single bit type or state in a precomputed table.
+	 * 
+	 * @param aTable the names indexed by bit position
+	 * @param aType  the integer value for the type or state
+	 * @return the name or the integer value as a string
+	 */
+	private static String name(String[] aTable, int aType) {
+		if (Integer.bitCount(aType) == 1) {
+			int l_bit = Integer.numberOfTrailingZeros(aType);
+
+			if (l_bit < FLAGS) {
+				return aTable[l_bit];
+			}
+		}
+		return Integer.toString(aType);
+	}
+
+	/**
+	 * Builds the table of names for the single bit values of a type or state.
+	 * 
+	 * @param aPrefix the key prefix in the configuration
+	 * @return the names indexed by bit position
+	 */
+	private static String[] names(String aPrefix) {
+		String[] l_ret = new String[FLAGS];
+
+		for (int i = 0; i < FLAGS; i++) {
+			String l_type = Integer.toString(1 << i);
+			String l_key = aPrefix + l_type;
 
-		if (conf.hasPath(l_state)) {
-			l_ret = conf.getString(l_state);
+			l_ret[i] = conf.hasPath(l_key) ? conf.getString(l_key) : l_type;
 		}
 		return l_ret;
 	}
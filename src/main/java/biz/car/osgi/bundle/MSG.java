@@ -15,10 +15,40 @@ import biz.car.config.ACS;
  */
 public class MSG {
 
+	public static String ACTIVATION_PROFILE;
+	public static String AREA_OVERRIDE;
+	public static String AREA_SCANNED;
+	public static String AREA_UNWATCHED;
 	public static String BUNDLE_EVENT;
+	public static String BUNDLE_START_FAILED;
+	public static String BUNDLE_START_TIMEOUT;
+	public static String BUNDLE_WATCHER_FAILED;
+	public static String BUNDLE_WATCHER_FALLBACK;
 	public static String BUNDLE_WATCHER_STARTED;
 	public static String BUNDLE_WATCHER_STOPPED;
+	public static String CONFIG_CACHE_IGNORED;
+	public static String CONFIG_CACHE_LOADED;
+	public static String CONFIG_CACHE_SKIPPED;
+	public static String DELTA_PLAN_FALLBACK;
+	public static String DELTA_PLAN_INCONSISTENT;
+	public static String DELTA_PLAN_RECONCILED;
+	public static String DEPLOY_CYCLE_FAILED;
+	public static String DEPLOY_QUEUE_SATURATED;
+	public static String DEPLOY_QUEUE_STOPPED;
+	public static String DEPLOY_QUEUE_TIMEOUT;
+	public static String DIAGNOSTICS_EXPORTED;
+	public static String DIAGNOSTICS_SUMMARY;
+	public static String DIGEST_CONFIRMED;
+	public static String DIGEST_SEEDED;
+	public static String DIGEST_STORE_IGNORED;
 	public static String DIRECTORY_REGISTERED;
+	public static String DRY_RUN_REPORT;
+	public static String DRY_RUN_SKIPPED;
+	public static String DRY_RUN_UNINSTALLS;
+	public static String EVENT_LOG_CLOSED;
+	public static String EVENT_LOG_OVERFLOW;
+	public static String FINGERPRINT_IGNORED;
+	public static String FINGERPRINT_UNCHANGED;
 	public static String FRAMEWORK_EVENT;
 	public static String FWK_ABENDED;
 	public static String FWK_INIT_ERROR;
@@ -27,9 +57,29 @@ public class MSG {
 	public static String FWK_STOP_ERROR;
 	public static String FWK_STOPPED;
 	public static String FWK_TERMINATED;
+	public static String LAZY_ACTIVATED;
+	public static String LAZY_DEFERRED;
+	public static String MANIFEST_INDEX_IGNORED;
+	public static String MANIFEST_REJECTED;
+	public static String MANIFEST_VALIDATED;
+	public static String MBEAN_NOT_REGISTERED;
 	public static String PROPERTIES_LOADED;
+	public static String QUARANTINE_ADDED;
+	public static String QUARANTINE_BACKOFF;
+	public static String QUARANTINE_DEFERRED;
+	public static String QUARANTINE_HELD;
+	public static String QUARANTINE_RELEASED;
+	public static String QUARANTINE_STORE_IGNORED;
+	public static String QUARANTINE_SUMMARY;
+	public static String REFRESH_CLOSURE;
 	public static String REFRESH_TIMEOUT;
 	public static String SERVICE_EVENT;
+	public static String SERVICE_FLAPPING;
+	public static String SHUTDOWN_BUNDLE_STUCK;
+	public static String SHUTDOWN_FORCED;
+	public static String SHUTDOWN_LEVEL_TIMEOUT;
+	public static String SHUTDOWN_REPORT;
+	public static String STARTUP_PROFILE;
 
 	// -------------------------------------------------------------------------
 	// Initialize the static fields
@@ -15,19 +15,75 @@ import biz.car.util.SFI;
  */
 public class VAL {
 
+	public static String async;
 	public static String bundle_startLevel;
+	public static String copy;
+	public static String delta;
 	public static String diagnoseLogger;
+	public static String drop;
+	public static String equinox_start_level_restrict_parallel;
+	public static String equinox_start_level_thread_count;
+	public static String export;
 	public static String framework;
+	public static String framework_activation_mode;
+	public static String framework_activation_parallelism;
+	public static String framework_activation_timeout;
+	public static String framework_area;
+	public static String framework_config_cache;
 	public static String framework_configuration_area;
 	public static String framework_configuration_cm;
 	public static String framework_console;
 	public static String framework_data_area;
+	public static String framework_diagnose_startup;
+	public static String framework_eventlog_capacity;
+	public static String framework_eventlog_mode;
+	public static String framework_eventlog_overflow;
+	public static String framework_eventlog_sampleRate;
+	public static String framework_hotdeploy_backoff;
+	public static String framework_hotdeploy_digest;
+	public static String framework_hotdeploy_dryRun;
 	public static String framework_hotdeploy_enabled;
+	public static String framework_hotdeploy_maxBackoff;
+	public static String framework_hotdeploy_maxFailures;
+	public static String framework_hotdeploy_maxLatency;
+	public static String framework_hotdeploy_mode;
+	public static String framework_hotdeploy_pollInterval;
+	public static String framework_hotdeploy_queueCapacity;
+	public static String framework_hotdeploy_quietPeriod;
+	public static String framework_hotdeploy_watcher;
+	public static String framework_install_areas;
+	public static String framework_install_fingerprint;
+	public static String framework_install_mode;
+	public static String framework_install_validate;
+	public static String framework_lazy_folders;
+	public static String framework_lazy_patterns;
 	public static String framework_logger_diagnose;
+	public static String framework_servicechurn_flapThreshold;
+	public static String framework_servicechurn_top;
+	public static String framework_servicechurn_window;
+	public static String framework_shutdown_deadline;
+	public static String framework_shutdown_levelTimeout;
+	public static String framework_shutdown_parallelism;
+	public static String full;
+	public static String off;
 	public static String osgi_install_area;
 	public static String osgi_instance_area;
+	public static String parallel;
+	public static String path;
+	public static String poll;
+	public static String priority;
+	public static String reference;
+	public static String reject;
+	public static String sample;
+	public static String serial;
+	public static String skip;
+	public static String startLevel;
+	public static String summary;
+	public static String sync;
 	public static String system;
 	public static String user_dir;
+	public static String watch;
+	public static String watcher;
 
 	// -------------------------------------------------------------------------
 	// Initialize the static fields
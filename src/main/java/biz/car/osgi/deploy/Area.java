@@ -0,0 +1,127 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+
+/**
+ * A configured install area. Each area has a root folder, the start level of
+ * its bundles unless a start level folder overrides it, its watch mode for the
+ * hot deployment and a priority. If two areas contain a bundle with the same
+ * symbolic name and version, the bundle of the area with the higher priority
+ * is deployed; on equal priority the area listed first wins.
+ *
+ * @version 2.0.0 17.10.2026 19:52:07
+ */
+public class Area {
+
+	private final int index;
+	private final String location;
+	private final String name;
+	private final int priority;
+	private final File root;
+	private final int startLevel;
+	private final String watcher;
+
+	/**
+	 * Creates a new <code>Area</code> instance.
+	 *
+	 * @param aName       the name of the area
+	 * @param anIndex     the position of the area in the configured list
+	 * @param aRoot       the root folder of the area
+	 * @param aPriority   the priority of the area
+	 * @param aStartLevel the start level of the bundles or 0 for the default
+	 *                    start level
+	 * @param aWatcher    the watch mode: <code>watch</code>, <code>poll</code>
+	 *                    or <code>off</code>
+	 */
+	Area(String aName, int anIndex, File aRoot, int aPriority, int aStartLevel, String aWatcher) {
+		super();
+
+		String l_location = BundleInventory.normalize(aRoot.toURI().toString());
+
+		index = anIndex;
+		location = l_location.endsWith("/") ? l_location : l_location + "/"; //$NON-NLS-1$ //$NON-NLS-2$
+		name = aName;
+		priority = aPriority;
+		root = aRoot;
+		startLevel = aStartLevel;
+		watcher = aWatcher;
+	}
+
+	/**
+	 * Checks if a jar or folder is located in this area.
+	 *
+	 * @param aLocation the location of the jar or folder
+	 * @return <code>true</code> if the location is the root folder of the area
+	 *         or located below it
+	 */
+	public boolean contains(String aLocation) {
+		return (BundleInventory.normalize(aLocation) + "/").startsWith(location); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the position of the area in the configured list
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the name of the area
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the priority of the area, the higher the value the higher the
+	 *         priority
+	 */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return the root folder of the area
+	 */
+	public File getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return the start level of the bundles of the area or 0 for the default
+	 *         start level
+	 */
+	public int getStartLevel() {
+		return startLevel;
+	}
+
+	/**
+	 * @return the watch mode of the area
+	 */
+	public String getWatcher() {
+		return watcher;
+	}
+
+	/**
+	 * Resolves the path of a location relative to the root folder of the area.
+	 *
+	 * @param aLocation the location of a jar in the area
+	 * @return the relative path, without leading slash
+	 */
+	public String relativize(String aLocation) {
+		String l_location = BundleInventory.normalize(aLocation);
+
+		return l_location.startsWith(location) ? l_location.substring(location.length()) : l_location;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
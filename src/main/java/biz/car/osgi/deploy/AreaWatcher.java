@@ -0,0 +1,162 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import biz.car.io.DirectoryListener;
+import biz.car.osgi.bundle.VAL;
+
+/**
+ * The backend watching an install area for changes of jars and folders.<br>
+ * The <code>watch</code> backend uses the watch service of the file system.
+ * The <code>poll</code> backend compares the modification times of the
+ * directories in an interval, for file systems and containers where the watch
+ * service is unreliable or its limits are exhausted. Both backends report the
+ * changes of a directory as a list of watch events to a
+ * <code>DirectoryListener</code> and count the events and the watched
+ * directories for the MXBean. Each install area has a backend of its own,
+ * running on its own thread.
+ *
+ * @version 2.0.0 17.10.2026 19:55:12
+ */
+public abstract class AreaWatcher implements AreaWatcherMXBean {
+
+	/**
+	 * The name of the MXBean, completed by the name of the area.
+	 */
+	public static final String OBJECT_NAME = "biz.car.osgi:type=AreaWatcher"; //$NON-NLS-1$
+
+	private static final int SLOTS = 12;
+	private static final long SLOT = TimeUnit.SECONDS.toNanos(5);
+
+	private final String area;
+	private final AtomicLongArray counts;
+	private final LongAdder events;
+	private DirectoryListener listener;
+	private final LongAdder rescans;
+	private final AtomicLongArray ticks;
+
+	/**
+	 * Creates a new <code>AreaWatcher</code> instance.
+	 *
+	 * @param anArea the name of the watched area
+	 */
+	protected AreaWatcher(String anArea) {
+		super();
+
+		area = anArea;
+		counts = new AtomicLongArray(SLOTS);
+		events = new LongAdder();
+		rescans = new LongAdder();
+		ticks = new AtomicLongArray(SLOTS);
+	}
+
+	/**
+	 * Creates the backend configured for an install area.
+	 *
+	 * @param anArea the install area
+	 * @return the watcher of the install area
+	 */
+	public static AreaWatcher create(Area anArea) {
+		String l_name = anArea.getName();
+
+		return VAL.poll.equals(anArea.getWatcher()) ? new PollingAreaWatcher(l_name) : new NativeAreaWatcher(l_name);
+	}
+
+	@Override
+	public String getArea() {
+		return area;
+	}
+
+	@Override
+	public long getEvents() {
+		return events.sum();
+	}
+
+	@Override
+	public long getEventsPerMinute() {
+		long l_tick = System.nanoTime() / SLOT;
+		long l_ret = 0L;
+
+		for (int i = 0; i < SLOTS; i++) {
+			if (l_tick - ticks.get(i) < SLOTS) {
+				l_ret += counts.get(i);
+			}
+		}
+		return l_ret;
+	}
+
+	@Override
+	public long getRescans() {
+		return rescans.sum();
+	}
+
+	/**
+	 * Registers the root directory and all its subdirectories.
+	 *
+	 * @param aRoot     the root directory of the area
+	 * @param aListener the listener receiving the changes
+	 * @throws biz.car.XRuntimeException if the directories can't be watched
+	 */
+	public void register(Path aRoot, DirectoryListener aListener) {
+		listener = aListener;
+		watch(aRoot);
+	}
+
+	/**
+	 * Starts watching the registered directories.
+	 */
+	public abstract void start();
+
+	/**
+	 * Stops watching. The watched directories are released.
+	 */
+	public abstract void stop();
+
+	/**
+	 * Counts the events of a directory and passes them to the listener.
+	 *
+	 * @param aPath   the directory
+	 * @param aEvents the events of the directory
+	 */
+	protected void dispatch(Path aPath, List<WatchEvent<?>> aEvents) {
+		if (aEvents.isEmpty()) {
+			return;
+		}
+		long l_tick = System.nanoTime() / SLOT;
+		int l_slot = (int) Math.floorMod(l_tick, (long) SLOTS);
+		long l_last = ticks.get(l_slot);
+
+		if (l_last != l_tick && ticks.compareAndSet(l_slot, l_last, l_tick)) {
+			counts.set(l_slot, 0L);
+		}
+		counts.addAndGet(l_slot, aEvents.size());
+		events.add(aEvents.size());
+		listener.onEvent(aPath, aEvents);
+	}
+
+	/**
+	 * Counts a directory rescanned after lost events.
+	 */
+	protected void rescanned() {
+		rescans.increment();
+	}
+
+	/**
+	 * Watches a directory and all its subdirectories.
+	 *
+	 * @param aPath the directory
+	 * @throws biz.car.XRuntimeException if the directories can't be watched
+	 */
+	protected abstract void watch(Path aPath);
+}
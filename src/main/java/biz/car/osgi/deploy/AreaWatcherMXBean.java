@@ -0,0 +1,45 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+/**
+ * The management interface of the <code>AreaWatcher</code>.
+ *
+ * @version 2.0.0 17.10.2026 19:55:30
+ */
+public interface AreaWatcherMXBean {
+
+	/**
+	 * @return the name of the watched install area
+	 */
+	String getArea();
+
+	/**
+	 * @return the number of file system events received since the start
+	 */
+	long getEvents();
+
+	/**
+	 * @return the number of file system events received within the last minute
+	 */
+	long getEventsPerMinute();
+
+	/**
+	 * @return the watch mode, <code>watch</code> or <code>poll</code>
+	 */
+	String getMode();
+
+	/**
+	 * @return the number of directories rescanned after lost events
+	 */
+	long getRescans();
+
+	/**
+	 * @return the number of directories currently watched
+	 */
+	int getWatchedDirectories();
+}
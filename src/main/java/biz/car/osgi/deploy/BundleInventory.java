@@ -0,0 +1,186 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import static biz.car.CAR._jar;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * An index of bundle locations. Each normalized location maps to an
+ * <code>InventoryEntry</code>, so that lookups and the comparison of two
+ * inventories don't depend on the number of entries.
+ *
+ * @version 2.0.0 17.10.2026 11:38:26
+ */
+public class BundleInventory {
+
+	private final Map<String, InventoryEntry> entries;
+
+	/**
+	 * Creates an empty <code>BundleInventory</code> instance.
+	 */
+	public BundleInventory() {
+		super();
+
+		entries = new HashMap<String, InventoryEntry>();
+	}
+
+	/**
+	 * Creates an inventory of all jar files located in the given folder and its
+	 * sub folders.
+	 *
+	 * @param aDir the folder to scan
+	 * @return the inventory of the jar files
+	 */
+	public static BundleInventory scan(File aDir) {
+		BundleInventory l_ret = new BundleInventory();
+
+		l_ret.scanFolder(aDir);
+		return l_ret;
+	}
+
+	/**
+	 * Normalizes a bundle location, so that equal files result in equal keys. A
+	 * <code>reference:</code> location is normalized to the location of its jar.
+	 *
+	 * @param aLocation the location of a bundle or jar file
+	 * @return the normalized location
+	 */
+	public static String normalize(String aLocation) {
+		String l_location = BundleLocation.toFileLocation(aLocation);
+
+		try {
+			return URI.create(l_location).normalize().toString();
+		} catch (IllegalArgumentException anEx) {
+			return l_location;
+		}
+	}
+
+	/**
+	 * Adds an entry to the inventory. An existing entry for the same location is
+	 * replaced.
+	 *
+	 * @param anEntry the entry to add
+	 */
+	public void add(InventoryEntry anEntry) {
+		entries.put(anEntry.getLocation(), anEntry);
+	}
+
+	/**
+	 * Adds all entries of another inventory.
+	 *
+	 * @param anInventory the inventory to add
+	 */
+	public void addAll(BundleInventory anInventory) {
+		entries.putAll(anInventory.entries);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Checks if the inventory contains the given location.
+	 *
+	 * @param aLocation the location to check
+	 * @return <code>true</code> if an entry exists for the normalized location
+	 */
+	public boolean contains(String aLocation) {
+		return entries.containsKey(normalize(aLocation));
+	}
+
+	/**
+	 * Compares this inventory of jar files with the inventory of the installed
+	 * bundles. A jar is considered changed if it is newer than its bundle.
+	 *
+	 * @param aBundles the inventory of the bundle storage
+	 * @return the jars to install, the jars to update and the bundles to
+	 *         uninstall
+	 */
+	public InventoryDiff diff(BundleInventory aBundles) {
+		return diff(aBundles, (j, b) -> j.getLastModified() > b.getLastModified());
+	}
+
+	/**
+	 * Compares this inventory of jar files with the inventory of the installed
+	 * bundles. Each entry of both inventories is visited once.
+	 *
+	 * @param aBundles the inventory of the bundle storage
+	 * @param aChanged checks if a jar has changed compared to its bundle
+	 * @return the jars to install, the jars to update and the bundles to
+	 *         uninstall
+	 */
+	public InventoryDiff diff(BundleInventory aBundles, BiPredicate<InventoryEntry, InventoryEntry> aChanged) {
+		InventoryDiff l_ret = new InventoryDiff();
+
+		for (InventoryEntry l_jar : entries.values()) {
+			InventoryEntry l_bundle = aBundles.entries.get(l_jar.getLocation());
+
+			if (l_bundle == null) {
+				l_ret.getInstalls().add(l_jar);
+			} else if (aChanged.test(l_jar, l_bundle)) {
+				l_ret.getUpdates().add(l_jar);
+			}
+		}
+		for (InventoryEntry l_bundle : aBundles.entries.values()) {
+			if (!entries.containsKey(l_bundle.getLocation())) {
+				l_ret.getUninstalls().add(l_bundle);
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * @return all entries of the inventory
+	 */
+	public Collection<InventoryEntry> entries() {
+		return Collections.unmodifiableCollection(entries.values());
+	}
+
+	/**
+	 * Looks up the entry for a location.
+	 *
+	 * @param aLocation the location to look up
+	 * @return the entry or <code>null</code>
+	 */
+	public InventoryEntry get(String aLocation) {
+		return entries.get(normalize(aLocation));
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private void scanFolder(File aDir) {
+		File[] l_files = aDir.listFiles();
+
+		if (l_files != null) {
+			for (File l_file : l_files) {
+				if (l_file.isDirectory()) {
+					scanFolder(l_file);
+				} else if (l_file.getName().endsWith(_jar)) {
+					String l_location = normalize(l_file.toURI().toString());
+
+					add(InventoryEntry.of(l_location, l_file));
+				}
+			}
+		}
+	}
+}
@@ -8,13 +8,77 @@ package biz.car.osgi.deploy;
 
 import java.io.File;
 
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
 /**
- * Represents a folder in the installation area.
+ * Represents a folder in the installation area.<br>
+ * A bundle is either installed from the <code>file:</code> location of its jar,
+ * so that the framework copies the jar into the bundle storage, or from the
+ * <code>reference:file:</code> location, so that the jar is used in place.
  *
  * @version 2.0.0 21.01.2026 10:17:49
  */
 public interface BundleLocation {
 
+	/**
+	 * The prefix of a location that references a jar in place.
+	 */
+	String REFERENCE = "reference:"; //$NON-NLS-1$
+
+	/**
+	 * Looks up the bundle installed from a jar, regardless of the install mode of
+	 * the bundle.
+	 * 
+	 * @param aLocation the <code>file:</code> location of the jar
+	 * @return the bundle or <code>null</code>
+	 */
+	static Bundle getBundle(String aLocation) {
+		BundleContext l_ctx = XFramework.context();
+		Bundle l_ret = l_ctx.getBundle(aLocation);
+
+		return l_ret == null ? l_ctx.getBundle(REFERENCE + aLocation) : l_ret;
+	}
+
+	/**
+	 * Checks if a location references a jar in place.
+	 * 
+	 * @param aLocation the location of a bundle
+	 * @return <code>true</code> if the location starts with
+	 *         <code>reference:</code>
+	 */
+	static boolean isReference(String aLocation) {
+		return aLocation.startsWith(REFERENCE);
+	}
+
+	/**
+	 * Converts the location of a bundle to the location of its jar.
+	 * 
+	 * @param aLocation the location of a bundle in either form
+	 * @return the location without the <code>reference:</code> prefix
+	 */
+	static String toFileLocation(String aLocation) {
+		return isReference(aLocation) ? aLocation.substring(REFERENCE.length()) : aLocation;
+	}
+
+	/**
+	 * Converts the location of a jar to the location used to install its bundle.
+	 * In install mode <code>reference</code> the jar is referenced in place,
+	 * otherwise it is copied into the bundle storage.
+	 * 
+	 * @param aLocation the <code>file:</code> location of the jar
+	 * @return the location to install the bundle from
+	 */
+	static String toInstallLocation(String aLocation) {
+		String l_mode = FrameworkProperty.getString(VAL.framework_install_mode, VAL.copy);
+
+		return VAL.reference.equals(l_mode) ? REFERENCE + aLocation : aLocation;
+	}
+
 	/**
 	 * Converts a file paht name to the URI string.
 	 * 
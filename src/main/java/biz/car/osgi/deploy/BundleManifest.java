@@ -0,0 +1,197 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.osgi.framework.Constants;
+
+/**
+ * The OSGi headers of a jar in the installation area, as far as they are
+ * needed by the deployment. The headers are kept as raw values, without
+ * localization.
+ *
+ * @version 2.0.0 17.10.2026 20:02:14
+ */
+public class BundleManifest {
+
+	/**
+	 * The names of the headers kept by a <code>BundleManifest</code>, in the
+	 * order of the persisted manifest index.
+	 */
+	static final String[] HEADERS = { Constants.BUNDLE_MANIFESTVERSION, Constants.BUNDLE_SYMBOLICNAME,
+	    Constants.BUNDLE_VERSION, Constants.FRAGMENT_HOST, Constants.BUNDLE_ACTIVATIONPOLICY,
+	    Constants.IMPORT_PACKAGE, Constants.EXPORT_PACKAGE };
+
+	private static final String MANIFEST = "META-INF/MANIFEST.MF"; //$NON-NLS-1$
+
+	private final long lastModified;
+	private final long size;
+	private final String[] values;
+
+	/**
+	 * Creates a new <code>BundleManifest</code> instance.
+	 *
+	 * @param aSize         the size of the jar
+	 * @param aLastModified the last modification time of the jar
+	 * @param aValues       the values of the headers in the order of
+	 *                      <code>HEADERS</code>
+	 */
+	BundleManifest(long aSize, long aLastModified, String[] aValues) {
+		super();
+
+		size = aSize;
+		lastModified = aLastModified;
+		values = aValues;
+	}
+
+	/**
+	 * Reads all main headers of a jar, for the consumers that need more than the
+	 * headers kept by a <code>BundleManifest</code>.
+	 *
+	 * @param aJar the jar to read
+	 * @return the headers by name or <code>null</code> if the jar has no manifest
+	 * @throws IOException if the jar is not a readable zip file
+	 */
+	public static Map<String, String> headers(File aJar) throws IOException {
+		Attributes l_attrs = attributes(aJar);
+
+		if (l_attrs == null) {
+			return null;
+		}
+		Map<String, String> l_ret = new HashMap<String, String>();
+
+		l_attrs.forEach((k, v) -> l_ret.put(k.toString(), v.toString()));
+		return l_ret;
+	}
+
+	/**
+	 * Reads the headers of a jar. Only the central directory and the manifest
+	 * entry of the jar are read.
+	 *
+	 * @param aJar the jar to read
+	 * @return the headers or <code>null</code> if the jar has no manifest
+	 * @throws IOException if the jar is not a readable zip file
+	 */
+	public static BundleManifest read(File aJar) throws IOException {
+		long l_size = aJar.length();
+		long l_lastModified = aJar.lastModified();
+		Attributes l_attrs = attributes(aJar);
+
+		if (l_attrs == null) {
+			return null;
+		}
+		String[] l_values = new String[HEADERS.length];
+
+		for (int i = 0; i < HEADERS.length; i++) {
+			l_values[i] = l_attrs.getValue(HEADERS[i]);
+		}
+		return new BundleManifest(l_size, l_lastModified, l_values);
+	}
+
+	/**
+	 * Looks up the raw value of a header.
+	 *
+	 * @param aName the name of the header, one of <code>HEADERS</code>
+	 * @return the value or <code>null</code> if the header is not set or not kept
+	 */
+	public String getHeader(String aName) {
+		for (int i = 0; i < HEADERS.length; i++) {
+			if (HEADERS[i].equals(aName)) {
+				return values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the last modification time of the jar
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return the size of the jar
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the symbolic name without directives and attributes or
+	 *         <code>null</code>
+	 */
+	public String getSymbolicName() {
+		String l_name = getHeader(Constants.BUNDLE_SYMBOLICNAME);
+
+		return l_name == null ? null : l_name.split(";")[0].trim(); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return <code>true</code> if the jar is a fragment
+	 */
+	public boolean isFragment() {
+		return getHeader(Constants.FRAGMENT_HOST) != null;
+	}
+
+	/**
+	 * @return <code>true</code> if the bundle declares the lazy activation policy
+	 */
+	public boolean isLazy() {
+		String l_policy = getHeader(Constants.BUNDLE_ACTIVATIONPOLICY);
+
+		return l_policy != null && l_policy.trim().startsWith(Constants.ACTIVATION_LAZY);
+	}
+
+	/**
+	 * Checks if the headers still describe the given jar.
+	 *
+	 * @param aSize         the current size of the jar
+	 * @param aLastModified the current modification time of the jar
+	 * @return <code>true</code> if size and modification time are unchanged
+	 */
+	public boolean matches(long aSize, long aLastModified) {
+		return size == aSize && lastModified == aLastModified;
+	}
+
+	/**
+	 * Reads the main attributes of the manifest of a jar. Only the central
+	 * directory and the manifest entry of the jar are read.
+	 *
+	 * @param aJar the jar to read
+	 * @return the main attributes or <code>null</code> if the jar has no manifest
+	 * @throws IOException if the jar is not a readable zip file
+	 */
+	private static Attributes attributes(File aJar) throws IOException {
+		try (ZipFile l_zip = new ZipFile(aJar)) {
+			ZipEntry l_entry = l_zip.getEntry(MANIFEST);
+
+			if (l_entry == null) {
+				return null;
+			}
+			try (InputStream l_in = l_zip.getInputStream(l_entry)) {
+				return new Manifest(l_in).getMainAttributes();
+			}
+		}
+	}
+
+	/**
+	 * @return the values of the headers in the order of <code>HEADERS</code>
+	 */
+	String[] values() {
+		return values;
+	}
+}
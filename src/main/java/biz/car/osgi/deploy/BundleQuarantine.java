@@ -0,0 +1,337 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.Bundle;
+
+import biz.car.SYS;
+import biz.car.XRuntimeException;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * Keeps the bundles of the install areas that fail to start again and again
+ * from being deployed in a crash loop.<br>
+ * The failed starts are counted per location. Until the backoff after the last
+ * failure has elapsed, a changed jar at that location is held back and queued
+ * again for the end of the backoff. The backoff starts at
+ * <code>framework.hotdeploy.backoff</code> and doubles with each further
+ * failure up to <code>framework.hotdeploy.maxBackoff</code>. A successful start
+ * clears the failures of the location. The starts are reported by the
+ * <code>StartFailureListener</code>, so that the starts of the framework at
+ * startup and the lazy activations on first use are recorded as well.<br>
+ * After <code>framework.hotdeploy.maxFailures</code> failed starts the location
+ * is quarantined together with the content hash of its jar. The hash is
+ * computed on the thread of the deploy queue, or by the next reconcile if the
+ * hot deployment isn't running, so that the framework isn't blocked while it
+ * reports the failed start. The bundle is no longer started by the framework,
+ * and the jar isn't deployed as long as its content hash is unchanged. The quarantine is persisted in the framework data
+ * area, so that it survives a restart. A jar with a new content hash releases
+ * its location from the quarantine.
+ *
+ * @version 2.0.0 17.10.2026 20:18:02
+ */
+public class BundleQuarantine {
+
+	private static BundleQuarantine quarantine;
+
+	private final long backoff;
+	private final Map<String, QuarantineEntry> entries;
+	private final Map<String, Failures> failures;
+	private final long maxBackoff;
+	private final int maxFailures;
+	private final File store;
+
+	/**
+	 * Creates a default <code>BundleQuarantine</code> instance and loads the
+	 * persisted quarantine.
+	 */
+	private BundleQuarantine() {
+		super();
+
+		backoff = FrameworkProperty.getPeriod(VAL.framework_hotdeploy_backoff, "5s"); //$NON-NLS-1$
+		entries = new ConcurrentHashMap<String, QuarantineEntry>();
+		failures = new ConcurrentHashMap<String, Failures>();
+		maxBackoff = FrameworkProperty.getPeriod(VAL.framework_hotdeploy_maxBackoff, "5m"); //$NON-NLS-1$
+		maxFailures = FrameworkProperty.getInt(VAL.framework_hotdeploy_maxFailures, 3);
+		store = new File(XFramework.dataArea(), BND.QUARANTINE_STORE);
+
+		load();
+	}
+
+	/**
+	 * @return the quarantine of the running framework, loaded on first use
+	 */
+	public static synchronized BundleQuarantine instance() {
+		if (quarantine == null) {
+			quarantine = new BundleQuarantine();
+		}
+		return quarantine;
+	}
+
+	/**
+	 * Drops the quarantine of a stopped framework. The next call of
+	 * <code>instance()</code> loads the quarantine from the data area of the
+	 * current framework.
+	 */
+	public static synchronized void reset() {
+		quarantine = null;
+	}
+
+	/**
+	 * Supplies the error of a failed start, which isn't known when the failure
+	 * is recorded. The reason of a quarantined location is updated.
+	 *
+	 * @param aBundle the bundle that failed to start
+	 * @param anEx    the failure
+	 */
+	public void explain(Bundle aBundle, Throwable anEx) {
+		if (aBundle == null || entries.isEmpty()) {
+			return;
+		}
+		String l_reason = String.valueOf(anEx.getMessage());
+		QuarantineEntry l_entry = entries.computeIfPresent(BundleInventory.normalize(aBundle.getLocation()),
+		    (k, v) -> new QuarantineEntry(k, v.getHash(), v.getFailures(), v.getSince(), l_reason));
+
+		if (l_entry != null) {
+			save();
+		}
+	}
+
+	/**
+	 * Records a failed start of a bundle. The location of the bundle is backed
+	 * off or, after too many failures, quarantined. The content hash of a
+	 * quarantined jar is computed later. Bundles outside the install areas
+	 * aren't tracked.
+	 *
+	 * @param aBundle the bundle that failed to start
+	 * @return <code>true</code> if the location has been quarantined and the
+	 *         persistent autostart setting of the bundle is to be cleared
+	 */
+	public boolean failed(Bundle aBundle) {
+		String l_location = BundleInventory.normalize(aBundle.getLocation());
+
+		if (maxFailures <= 0 || InstallArea.area(InstallArea.areas(), l_location) == null) {
+			return false;
+		}
+		long l_now = System.currentTimeMillis();
+		Failures l_failures = failures.merge(l_location, new Failures(1, l_now + delay(1)),
+		    (o, n) -> new Failures(o.count + 1, l_now + delay(o.count + 1)));
+
+		if (l_failures.count < maxFailures) {
+			SYS.LOG.warn(MSG.QUARANTINE_BACKOFF, aBundle.getSymbolicName(), l_failures.count, maxFailures,
+			    l_failures.retryAt - l_now);
+			return false;
+		}
+		failures.remove(l_location);
+		entries.put(l_location, new QuarantineEntry(l_location, "", l_failures.count, l_now, BND.START_FAILED)); //$NON-NLS-1$
+		save();
+		InstallArea.watcher().execute(() -> digest(l_location, hash(l_location)));
+		SYS.LOG.warn(MSG.QUARANTINE_ADDED, aBundle.getSymbolicName(), l_failures.count, l_location);
+
+		return true;
+	}
+
+	/**
+	 * Holds back the jars to install and update whose location is quarantined
+	 * with an unchanged content hash or still backed off. A backed off jar is
+	 * queued again for the end of its backoff. A quarantined jar with a new
+	 * content hash is released from the quarantine.
+	 *
+	 * @param aDiff the result of the comparison between install area and bundle
+	 *              storage
+	 */
+	public void filter(InventoryDiff aDiff) {
+		aDiff.getUninstalls().forEach(e -> failures.remove(e.getLocation()));
+
+		if (entries.isEmpty() && failures.isEmpty()) {
+			return;
+		}
+		aDiff.getInstalls().removeIf(this::hold);
+		aDiff.getUpdates().removeIf(this::hold);
+	}
+
+	/**
+	 * @return the locations backed off after failed starts and the remaining
+	 *         backoff in milliseconds
+	 */
+	public Map<String, Long> getBackoffs() {
+		Map<String, Long> l_ret = new TreeMap<String, Long>();
+		long l_now = System.currentTimeMillis();
+
+		failures.forEach((k, v) -> l_ret.put(k, Math.max(0L, v.retryAt - l_now)));
+		return l_ret;
+	}
+
+	/**
+	 * @return the quarantined locations, sorted by location
+	 */
+	public List<QuarantineEntry> getEntries() {
+		List<QuarantineEntry> l_ret = new ArrayList<QuarantineEntry>(entries.values());
+
+		l_ret.sort(Comparator.comparing(QuarantineEntry::getLocation));
+		return l_ret;
+	}
+
+	/**
+	 * Records a successful start of a bundle. The failures of its location are
+	 * cleared.
+	 *
+	 * @param aBundle the started bundle
+	 */
+	public void started(Bundle aBundle) {
+		if (!failures.isEmpty()) {
+			failures.remove(BundleInventory.normalize(aBundle.getLocation()));
+		}
+	}
+
+	/**
+	 * Computes the backoff after a failed start.
+	 *
+	 * @param aCount the number of failed starts
+	 * @return the backoff in milliseconds
+	 */
+	private long delay(int aCount) {
+		return Math.min(maxBackoff, backoff << Math.min(aCount - 1, 30));
+	}
+
+	/**
+	 * Records the content hash of a quarantined jar, unless it is already
+	 * known.
+	 *
+	 * @param aLocation the normalized location
+	 * @param aHash     the content hash of its jar
+	 */
+	private void digest(String aLocation, String aHash) {
+		QuarantineEntry l_entry = entries.computeIfPresent(aLocation, (k, v) -> v.isPending()
+		    ? new QuarantineEntry(k, aHash, v.getFailures(), v.getSince(), v.getReason()) : v);
+
+		if (l_entry != null) {
+			save();
+		}
+	}
+
+	/**
+	 * Computes the content hash of the jar of a location.
+	 *
+	 * @param aLocation the normalized location
+	 * @return the content hash or an empty string if the jar can't be read
+	 */
+	private static String hash(String aLocation) {
+		try {
+			return ContentDigest.of(new File(URI.create(aLocation)));
+		} catch (XRuntimeException | IllegalArgumentException anEx) {
+			return ""; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Decides whether a jar is held back. A quarantined jar whose content hash
+	 * is still pending is held back with its current content hash.
+	 *
+	 * @param aJar the jar to install or update
+	 * @return <code>true</code> if the jar is held back
+	 */
+	private boolean hold(InventoryEntry aJar) {
+		String l_location = aJar.getLocation();
+		QuarantineEntry l_entry = entries.get(l_location);
+
+		if (l_entry != null) {
+			String l_hash = hash(l_location);
+
+			if (l_entry.isPending()) {
+				digest(l_location, l_hash);
+			} else if (!l_entry.getHash().equals(l_hash)) {
+				entries.remove(l_location);
+				save();
+				SYS.LOG.info(MSG.QUARANTINE_RELEASED, l_location);
+				return false;
+			}
+			SYS.LOG.info(MSG.QUARANTINE_HELD, l_location);
+			return true;
+		}
+		Failures l_failures = failures.get(l_location);
+		long l_delay = l_failures == null ? 0L : l_failures.retryAt - System.currentTimeMillis();
+
+		if (l_delay <= 0L) {
+			return false;
+		}
+		InstallArea.watcher().retry(l_location, l_delay);
+		SYS.LOG.info(MSG.QUARANTINE_DEFERRED, l_location, l_delay, l_failures.count);
+		return true;
+	}
+
+	private void load() {
+		if (!store.isFile()) {
+			return;
+		}
+		Properties l_props = new Properties();
+
+		try (InputStream l_in = new FileInputStream(store)) {
+			l_props.load(l_in);
+			l_props.forEach((k, v) -> {
+				QuarantineEntry l_entry = QuarantineEntry.parse(k.toString(), v.toString());
+
+				if (l_entry != null) {
+					entries.put(k.toString(), l_entry);
+				}
+			});
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.QUARANTINE_STORE_IGNORED, store, anEx.getMessage());
+		}
+	}
+
+	/**
+	 * Persists the quarantine in the framework data area.
+	 */
+	private synchronized void save() {
+		Properties l_props = new Properties();
+
+		entries.forEach((k, v) -> l_props.setProperty(k, v.value()));
+		store.getParentFile().mkdirs();
+
+		try (OutputStream l_out = new FileOutputStream(store)) {
+			l_props.store(l_out, BND.QUARANTINE_STORE);
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	/**
+	 * The failed starts of a location since its last successful start.
+	 */
+	private static class Failures {
+
+		private final int count;
+		private final long retryAt;
+
+		private Failures(int aCount, long aRetryAt) {
+			super();
+
+			count = aCount;
+			retryAt = aRetryAt;
+		}
+	}
+}
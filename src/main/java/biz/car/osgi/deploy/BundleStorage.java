@@ -6,12 +6,7 @@
 
 package biz.car.osgi.deploy;
 
-import static biz.car.osgi.bundle.VAL.osgi_install_area;
-
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -23,12 +18,11 @@ import biz.car.osgi.framework.XFramework;
 /**
  * Represents the OSGi storage for caching the bundles of the framework.
  *
- * @version 2.0.0 21.01.2026 10:17:23
+ * @version 2.0.0 17.10.2026 20:14:40
  */
 public class BundleStorage {
 
-	private Map<String, Bundle> myMap;
-	private List<Bundle> myList;
+	private BundleInventory myInventory;
 	
 	/**
 	 * Creates a default <code>BundleStorage</code> instance.
@@ -36,8 +30,7 @@ public class BundleStorage {
 	public BundleStorage() {
 		super();
 		
-		myMap = new HashMap<String, Bundle>();
-		myList = new ArrayList<Bundle>();
+		myInventory = new BundleInventory();
 		
 		loadBundles();
 	}
@@ -46,11 +39,9 @@ public class BundleStorage {
 	 * Cleanup internal storage.
 	 */
 	public void dispose() {
-		myMap.clear();
-		myList.clear();
+		myInventory.clear();
 		
-		myMap = null;
-		myList = null;
+		myInventory = null;
 	}
 	
 	/**
@@ -60,36 +51,60 @@ public class BundleStorage {
 	 * @return the bundle found or <code>null</code>
 	 */
 	public Bundle getBundle(String aLocation) {
-		return myMap.get(aLocation);
+		InventoryEntry l_entry = myInventory.get(aLocation);
+
+		return l_entry == null ? null : getBundle(l_entry);
 	}
 
 	/**
-	 * Uninstalls all bundles where the corresponding jar file is not existing in
-	 * the installation area.
+	 * Look up the bundle of an inventory entry.
 	 * 
-	 * @param anArea the reference to the installation area
+	 * @param anEntry the inventory entry of the bundle
+	 * @return the bundle found or <code>null</code>
 	 */
-	public void uninstallBundles(InstallArea anArea) {
-		myList.stream()
-		    .filter(b -> !anArea.contains(b))
-		    .forEach(b -> uninstall(b));
+	public Bundle getBundle(InventoryEntry anEntry) {
+		return XFramework.context().getBundle(anEntry.getBundleId());
 	}
 
 	/**
-	 * Loads all installed bundles where the location points to the OSGi
-	 * installation area.
+	 * @return the index of the bundles located in the install area
+	 */
+	public BundleInventory inventory() {
+		return myInventory;
+	}
+
+	/**
+	 * Uninstalls the bundle of an inventory entry.
+	 * 
+	 * @param anEntry the inventory entry of the bundle
+	 * @return the uninstalled bundle or <code>null</code> if the bundle doesn't
+	 *         exist
+	 */
+	public Bundle uninstall(InventoryEntry anEntry) {
+		Bundle l_bundle = getBundle(anEntry);
+
+		if (l_bundle != null) {
+			uninstall(l_bundle);
+		}
+		return l_bundle;
+	}
+
+	/**
+	 * Loads all installed bundles where the location points to one of the
+	 * install areas. Bundles copied into the bundle storage and bundles
+	 * referencing their jar in place are both indexed by the location of the
+	 * jar.
 	 */
 	private void loadBundles() {
 		BundleContext l_ctx = XFramework.context();
 		Bundle[] l_bundles = l_ctx.getBundles();
-		String l_areaName = l_ctx.getProperty(osgi_install_area);
-		
+		List<Area> l_areas = InstallArea.areas();
+
 		for (Bundle l_bundle : l_bundles) {
-			String l_location = l_bundle.getLocation();
-			
-			if (l_location.startsWith(l_areaName)) {
-				myMap.put(l_location, l_bundle);
-				myList.add(l_bundle);
+			String l_location = BundleInventory.normalize(l_bundle.getLocation());
+
+			if (InstallArea.area(l_areas, l_location) != null) {
+				myInventory.add(InventoryEntry.of(l_location, l_bundle));
 			}
 		}
 	}
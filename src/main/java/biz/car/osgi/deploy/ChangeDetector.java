@@ -0,0 +1,241 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * Decides whether a jar in the installation area has changed compared to its
+ * installed bundle.<br>
+ * Size and modification time of the jar serve as a cheap pre-filter. Only if
+ * they differ from the values recorded at the last deployment, the content hash
+ * of the jar is computed and compared with the recorded hash. The records are
+ * persisted in the framework data area. A jar without a record, whose bundle
+ * isn't older than the jar, was deployed before the records existed. Its
+ * record is created with the next save, so that its first touch isn't taken
+ * for an update.<br>
+ * If content hashing is disabled, a jar is considered changed if it is newer
+ * than its bundle.
+ *
+ * @version 2.0.0 17.10.2026 20:09:02
+ */
+public class ChangeDetector {
+
+	private final boolean enabled;
+	private final Map<String, Record> records;
+	private final Map<String, InventoryEntry> seeds;
+	private final File store;
+
+	/**
+	 * Creates a default <code>ChangeDetector</code> instance and loads the
+	 * records of the last deployment.
+	 */
+	public ChangeDetector() {
+		super();
+
+		enabled = FrameworkProperty.getBool(VAL.framework_hotdeploy_digest, true);
+		records = new ConcurrentHashMap<String, Record>();
+		seeds = new ConcurrentHashMap<String, InventoryEntry>();
+		store = new File(XFramework.dataArea(), BND.DIGEST_STORE);
+
+		if (enabled) {
+			load();
+		}
+	}
+
+	/**
+	 * Computes the content hash of the given jars and returns those whose content
+	 * differs from the recorded content. A jar without a record is considered
+	 * changed. The hashes are computed in parallel.
+	 *
+	 * @param aJars the jars that passed the pre-filter
+	 * @return the jars with changed content
+	 */
+	public List<InventoryEntry> confirm(Collection<InventoryEntry> aJars) {
+		if (!enabled || aJars.isEmpty()) {
+			return List.copyOf(aJars);
+		}
+		List<InventoryEntry> l_ret = aJars.parallelStream()
+		    .filter(e -> hasChanged(e))
+		    .collect(Collectors.toList());
+
+		SYS.LOG.info(MSG.DIGEST_CONFIRMED, l_ret.size(), aJars.size());
+
+		return l_ret;
+	}
+
+	/**
+	 * @return <code>true</code> if content hashing is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Checks if a jar may have changed since the deployment of its bundle. This
+	 * check doesn't read the content of the jar.
+	 *
+	 * @param aJar    the inventory entry of the jar
+	 * @param aBundle the inventory entry of the installed bundle
+	 * @return <code>true</code> if the jar has to be examined further
+	 */
+	public boolean isCandidate(InventoryEntry aJar, InventoryEntry aBundle) {
+		Record l_rec = enabled ? records.get(aJar.getLocation()) : null;
+
+		if (l_rec == null) {
+			boolean l_ret = aJar.getLastModified() > aBundle.getLastModified();
+
+			if (enabled && !l_ret) {
+				seeds.put(aJar.getLocation(), aJar);
+			}
+			return l_ret;
+		}
+		return l_rec.size != aJar.getSize() || l_rec.lastModified != aJar.getLastModified();
+	}
+
+	/**
+	 * Records the content hash of newly installed jars. The hashes are computed in
+	 * parallel.
+	 *
+	 * @param aJars the installed jars
+	 */
+	public void record(Collection<InventoryEntry> aJars) {
+		if (enabled) {
+			aJars.parallelStream().forEach(e -> records.put(e.getLocation(), new Record(e)));
+		}
+	}
+
+	/**
+	 * Removes the record of an uninstalled bundle.
+	 *
+	 * @param aLocation the location of the bundle
+	 */
+	public void remove(String aLocation) {
+		records.remove(aLocation);
+		seeds.remove(aLocation);
+	}
+
+	/**
+	 * Persists the records in the framework data area. The records of the jars
+	 * deployed before the records existed are created beforehand, in parallel.
+	 */
+	public void save() {
+		if (!enabled) {
+			return;
+		}
+		if (!seeds.isEmpty()) {
+			seeds.values().parallelStream().forEach(e -> records.putIfAbsent(e.getLocation(), new Record(e)));
+			SYS.LOG.info(MSG.DIGEST_SEEDED, seeds.size());
+			seeds.clear();
+		}
+		Properties l_props = new Properties();
+
+		records.forEach((k, v) -> l_props.setProperty(k, v.toString()));
+		store.getParentFile().mkdirs();
+
+		try (OutputStream l_out = new FileOutputStream(store)) {
+			l_props.store(l_out, BND.DIGEST_STORE);
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	/**
+	 * Computes the content hash of a jar that passed the pre-filter and updates
+	 * its record.
+	 *
+	 * @param aJar the inventory entry of the jar
+	 * @return <code>true</code> if the content has changed
+	 */
+	private boolean hasChanged(InventoryEntry aJar) {
+		Record l_old = records.get(aJar.getLocation());
+		Record l_new = new Record(aJar);
+
+		records.put(aJar.getLocation(), l_new);
+
+		return l_old == null || !l_old.hash.equals(l_new.hash);
+	}
+
+	private void load() {
+		if (!store.isFile()) {
+			return;
+		}
+		Properties l_props = new Properties();
+
+		try (InputStream l_in = new FileInputStream(store)) {
+			l_props.load(l_in);
+			l_props.forEach((k, v) -> {
+				Record l_rec = Record.parse(v.toString());
+
+				if (l_rec != null) {
+					records.put(k.toString(), l_rec);
+				}
+			});
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.DIGEST_STORE_IGNORED, store, anEx.getMessage());
+		}
+	}
+
+	/**
+	 * The size, modification time and content hash of a jar at the time of its
+	 * deployment.
+	 */
+	private static class Record {
+
+		private final String hash;
+		private final long lastModified;
+		private final long size;
+
+		private Record(long aSize, long aLastModified, String aHash) {
+			super();
+
+			size = aSize;
+			lastModified = aLastModified;
+			hash = aHash;
+		}
+
+		private Record(InventoryEntry aJar) {
+			this(aJar.getSize(), aJar.getLastModified(), ContentDigest.of(aJar.toFile()));
+		}
+
+		private static Record parse(String aValue) {
+			String[] l_parts = aValue.split(","); //$NON-NLS-1$
+
+			if (l_parts.length != 3) {
+				return null;
+			}
+			try {
+				return new Record(Long.parseLong(l_parts[0]), Long.parseLong(l_parts[1]), l_parts[2]);
+			} catch (NumberFormatException anEx) {
+				return null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return size + "," + lastModified + "," + hash; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import biz.car.SYS;
+
+/**
+ * Computes a fast content hash of a jar file. The file is read through a
+ * direct buffer that is reused per thread and fed into a hardware accelerated
+ * CRC32C checksum. The file isn't memory mapped, so that it isn't locked after
+ * the hash has been computed and can be overwritten or deleted at once.
+ *
+ * @version 2.0.0 17.10.2026 20:15:21
+ */
+public interface ContentDigest {
+
+	/**
+	 * The number of bytes read at once.
+	 */
+	int CHUNK = 256 * 1024;
+
+	/**
+	 * The read buffer of the current thread.
+	 */
+	ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(CHUNK));
+
+	/**
+	 * Computes the content hash of a file.
+	 *
+	 * @param aFile the file to hash
+	 * @return the hash as a hexadecimal string
+	 */
+	static String of(File aFile) {
+		CRC32C l_crc = new CRC32C();
+		ByteBuffer l_buf = BUFFER.get();
+
+		try (FileChannel l_channel = FileChannel.open(aFile.toPath(), StandardOpenOption.READ)) {
+			long l_size = 0L;
+
+			l_buf.clear();
+
+			while (l_channel.read(l_buf) >= 0) {
+				l_buf.flip();
+				l_size += l_buf.remaining();
+				l_crc.update(l_buf);
+				l_buf.clear();
+			}
+			return Long.toHexString(l_size) + ":" + Long.toHexString(l_crc.getValue()); //$NON-NLS-1$
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+}
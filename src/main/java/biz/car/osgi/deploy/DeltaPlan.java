@@ -0,0 +1,265 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import static biz.car.CAR._jar;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.framework.Bundle;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.MSG;
+
+/**
+ * Collects the paths touched by file system events in the installation area
+ * and reconciles only the corresponding jars with the bundle storage.<br>
+ * The plan is derived from the current state of each touched path, not from
+ * the event kind. A jar that exists is installed or updated, a jar or folder
+ * that no longer exists causes the uninstallation of its bundles.
+ *
+ * @version 2.0.0 17.10.2026 19:58:40
+ */
+public class DeltaPlan {
+
+	private final List<Bundle> changed;
+	private boolean overflow;
+	private final List<Bundle> removed;
+	private long started;
+	private final Set<Path> touched;
+
+	/**
+	 * Creates a default <code>DeltaPlan</code> instance.
+	 */
+	public DeltaPlan() {
+		super();
+
+		changed = new ArrayList<Bundle>();
+		removed = new ArrayList<Bundle>();
+		touched = new LinkedHashSet<Path>();
+	}
+
+	/**
+	 * Adds a path that was created, modified or deleted. The path is ignored if
+	 * the plan already requires a rescan.
+	 *
+	 * @param aPath the absolute path of the file or folder
+	 */
+	public void add(Path aPath) {
+		if (!overflow) {
+			open();
+			touched.add(aPath.toAbsolutePath().normalize());
+		}
+	}
+
+	/**
+	 * Merges the changes of another plan into this plan. The merged plan is as
+	 * old as the older of both plans.
+	 *
+	 * @param aPlan the plan to merge
+	 */
+	public void addAll(DeltaPlan aPlan) {
+		if (aPlan.isEmpty()) {
+			return;
+		}
+		if (isEmpty() || aPlan.started - started < 0) {
+			started = aPlan.started;
+		}
+		if (aPlan.overflow) {
+			overflow = true;
+			touched.clear();
+		} else if (!overflow) {
+			touched.addAll(aPlan.touched);
+		}
+	}
+
+	/**
+	 * @return the time in nanoseconds since the first change of the plan or 0 if
+	 *         the plan is empty
+	 */
+	public long age() {
+		return isEmpty() ? 0L : System.nanoTime() - started;
+	}
+
+	/**
+	 * @return the bundles installed or updated so far, even if the reconcile
+	 *         failed
+	 */
+	public List<Bundle> changed() {
+		return changed;
+	}
+
+	/**
+	 * @return <code>true</code> if the plan contains no changes
+	 */
+	public boolean isEmpty() {
+		return touched.isEmpty() && !overflow;
+	}
+
+	/**
+	 * @return <code>true</code> if events were lost and the plan is incomplete
+	 */
+	public boolean isOverflow() {
+		return overflow;
+	}
+
+	/**
+	 * Lists the existing jar files of the plan, including the jars located in
+	 * touched folders.
+	 *
+	 * @return the jar files to be reconciled
+	 */
+	public List<File> jars() {
+		List<File> l_ret = new ArrayList<File>();
+
+		for (Path l_path : touched) {
+			File l_file = l_path.toFile();
+
+			if (l_file.isDirectory()) {
+				BundleInventory.scan(l_file).entries().forEach(e -> l_ret.add(e.toFile()));
+			} else if (l_file.isFile() && l_file.getName().endsWith(_jar)) {
+				l_ret.add(l_file);
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Marks the plan as incomplete because the watch service dropped events. The
+	 * touched paths are dropped, since the complete install area is rescanned.
+	 */
+	public void overflow() {
+		open();
+		overflow = true;
+		touched.clear();
+	}
+
+	/**
+	 * Synchronizes the touched jars with the bundles in the bundle storage.
+	 *
+	 * @return the list of newly installed or updated bundles
+	 * @throws biz.car.XRuntimeException if a touched path isn't located in any
+	 *                                   install area
+	 */
+	public List<Bundle> reconcile() {
+		List<Area> l_areas = InstallArea.areas();
+		BundleStorage l_bs = new BundleStorage();
+		BundleInventory l_jars = new BundleInventory();
+		BundleInventory l_removed = new BundleInventory();
+
+		try {
+			for (Path l_path : touched) {
+				File l_file = l_path.toFile();
+
+				if (InstallArea.area(l_areas, l_file.toURI().toString()) == null) {
+					throw SYS.LOG.exception(MSG.DELTA_PLAN_INCONSISTENT, l_path);
+				}
+
+				if (l_file.isDirectory()) {
+					l_jars.addAll(BundleInventory.scan(l_file));
+				} else if (l_file.isFile()) {
+					if (l_file.getName().endsWith(_jar)) {
+						String l_location = BundleInventory.normalize(l_file.toURI().toString());
+
+						l_jars.add(InventoryEntry.of(l_location, l_file));
+					}
+				} else {
+					removed(l_bs, l_file.toURI().toString(), l_removed);
+				}
+			}
+			ChangeDetector l_cd = new ChangeDetector();
+			InventoryDiff l_diff = diff(l_bs, l_jars, l_removed, l_cd);
+
+			InstallArea.apply(l_bs, l_diff, l_cd, changed, removed);
+			SYS.LOG.info(MSG.DELTA_PLAN_RECONCILED, touched.size(), changed.size());
+
+			return changed;
+		} finally {
+			l_bs.dispose();
+		}
+	}
+
+	/**
+	 * @return the bundles uninstalled so far, even if the reconcile failed
+	 */
+	public List<Bundle> removed() {
+		return removed;
+	}
+
+	/**
+	 * @return the number of touched paths
+	 */
+	public int size() {
+		return touched.size();
+	}
+
+	/**
+	 * Compares the touched jars with the bundle storage.
+	 *
+	 * @param aStorage  the current bundle storage
+	 * @param aJars     the touched jars that exist
+	 * @param aRemoved  the bundles whose jar or folder no longer exists
+	 * @param aDetector the change detector of the reconcile
+	 * @return the jars to install, the jars to update and the bundles to
+	 *         uninstall
+	 */
+	private InventoryDiff diff(BundleStorage aStorage, BundleInventory aJars, BundleInventory aRemoved,
+	    ChangeDetector aDetector) {
+		InventoryDiff l_ret = new InventoryDiff();
+
+		for (InventoryEntry l_jar : aJars.entries()) {
+			InventoryEntry l_bundle = aStorage.inventory().get(l_jar.getLocation());
+
+			if (l_bundle == null) {
+				l_ret.getInstalls().add(l_jar);
+			} else if (aDetector.isCandidate(l_jar, l_bundle)) {
+				l_ret.getUpdates().add(l_jar);
+			}
+		}
+		for (InventoryEntry l_bundle : aRemoved.entries()) {
+			if (!aJars.contains(l_bundle.getLocation())) {
+				l_ret.getUninstalls().add(l_bundle);
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Remembers the time of the first change of the plan.
+	 */
+	private void open() {
+		if (isEmpty()) {
+			started = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Collects the bundle with the given location or all bundles located below a
+	 * deleted folder.
+	 *
+	 * @param aStorage  the current bundle storage
+	 * @param aLocation the location of the deleted jar or folder
+	 * @param aRemoved  receives the bundles to uninstall
+	 */
+	private void removed(BundleStorage aStorage, String aLocation, BundleInventory aRemoved) {
+		String l_location = BundleInventory.normalize(aLocation);
+		String l_folder = l_location.endsWith("/") ? l_location : l_location + "/"; //$NON-NLS-1$ //$NON-NLS-2$
+
+		for (InventoryEntry l_bundle : aStorage.inventory().entries()) {
+			String l_bundleLocation = l_bundle.getLocation();
+
+			if (l_bundleLocation.equals(l_location) || l_bundleLocation.startsWith(l_folder)) {
+				aRemoved.add(l_bundle);
+			}
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics of the hot deployment. The deploy latency is the time from the first
+ * file system event of a batch until its bundles have been started, the cycle
+ * duration the time spent in the deployment cycle itself. The most recent
+ * cycles are kept in a bounded history.
+ *
+ * @version 2.0.0 17.10.2026 16:34:18
+ */
+public class DeployMetrics implements DeployMetricsMXBean {
+
+	/**
+	 * The name of the MXBean.
+	 */
+	public static final String OBJECT_NAME = "biz.car.osgi:type=Deployer"; //$NON-NLS-1$
+
+	private static final long[] BOUNDS = { 250, 500, 1000, 2000, 5000, 10000, 30000, 60000 };
+	private static final int HISTORY = 50;
+
+	private final AtomicLongArray buckets;
+	private final AtomicInteger closure;
+	private final AtomicLong coalesced;
+	private final AtomicLong cycles;
+	private final AtomicLong failed;
+	private final Deque<String> history;
+	private final AtomicLong lastDuration;
+	private final AtomicLong lastLatency;
+	private final AtomicLong maxLatency;
+	private final AtomicLong pendingChanges;
+	private final AtomicLong queueDepth;
+
+	/**
+	 * Creates a default <code>DeployMetrics</code> instance.
+	 */
+	public DeployMetrics() {
+		super();
+
+		buckets = new AtomicLongArray(BOUNDS.length + 1);
+		closure = new AtomicInteger(-1);
+		coalesced = new AtomicLong();
+		cycles = new AtomicLong();
+		failed = new AtomicLong();
+		history = new ArrayDeque<String>(HISTORY);
+		lastDuration = new AtomicLong();
+		lastLatency = new AtomicLong();
+		maxLatency = new AtomicLong();
+		pendingChanges = new AtomicLong();
+		queueDepth = new AtomicLong();
+	}
+
+	/**
+	 * Records the size of the refresh closure of the running cycle.
+	 *
+	 * @param aSize the number of refreshed bundles
+	 */
+	public void closure(int aSize) {
+		closure.set(aSize);
+	}
+
+	/**
+	 * Counts a change merged into a pending job.
+	 */
+	public void coalesced() {
+		coalesced.incrementAndGet();
+	}
+
+	@Override
+	public long getCoalescedChanges() {
+		return coalesced.get();
+	}
+
+	@Override
+	public long getCycles() {
+		return cycles.get();
+	}
+
+	@Override
+	public long getFailedCycles() {
+		return failed.get();
+	}
+
+	@Override
+	public long getLastDuration() {
+		return lastDuration.get();
+	}
+
+	@Override
+	public int getLastClosure() {
+		return closure.get();
+	}
+
+	@Override
+	public long getLastLatency() {
+		return lastLatency.get();
+	}
+
+	@Override
+	public Map<String, Long> getLatencyHistogram() {
+		Map<String, Long> l_ret = new LinkedHashMap<String, Long>();
+
+		for (int i = 0; i < BOUNDS.length; i++) {
+			l_ret.put("<= " + BOUNDS[i] + " ms", buckets.get(i)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		l_ret.put("> " + BOUNDS[BOUNDS.length - 1] + " ms", buckets.get(BOUNDS.length)); //$NON-NLS-1$ //$NON-NLS-2$
+
+		return l_ret;
+	}
+
+	@Override
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	@Override
+	public long getPendingChanges() {
+		return pendingChanges.get();
+	}
+
+	@Override
+	public long getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	@Override
+	public List<String> getRecentCycles() {
+		synchronized (history) {
+			return new ArrayList<String>(history);
+		}
+	}
+
+	/**
+	 * Publishes the current depth of the deploy queue.
+	 *
+	 * @param aJobs    the number of pending jobs
+	 * @param aChanges the number of touched paths of the pending jobs
+	 */
+	public void queued(int aJobs, int aChanges) {
+		queueDepth.set(aJobs);
+		pendingChanges.set(aChanges);
+	}
+
+	/**
+	 * Records a completed deployment cycle.
+	 *
+	 * @param aPaths    the number of touched paths of the cycle
+	 * @param aLatency  the deploy latency in nanoseconds
+	 * @param aDuration the duration of the cycle in nanoseconds
+	 * @param aFailed   <code>true</code> if the cycle failed
+	 */
+	public void record(int aPaths, long aLatency, long aDuration, boolean aFailed) {
+		long l_millis = TimeUnit.NANOSECONDS.toMillis(aLatency);
+		long l_duration = TimeUnit.NANOSECONDS.toMillis(aDuration);
+		int l_bucket = 0;
+
+		while (l_bucket < BOUNDS.length && l_millis > BOUNDS[l_bucket]) {
+			l_bucket++;
+		}
+		buckets.incrementAndGet(l_bucket);
+		cycles.incrementAndGet();
+		lastDuration.set(l_duration);
+		lastLatency.set(l_millis);
+		maxLatency.accumulateAndGet(l_millis, Math::max);
+
+		if (aFailed) {
+			failed.incrementAndGet();
+		}
+		String l_cycle = LocalTime.now().truncatedTo(ChronoUnit.MILLIS) + " " + aPaths + " path(s), closure " //$NON-NLS-1$ //$NON-NLS-2$
+		    + closure.get() + ", latency " + l_millis + " ms, duration " + l_duration + " ms" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		    + (aFailed ? ", failed" : ""); //$NON-NLS-1$ //$NON-NLS-2$
+
+		synchronized (history) {
+			if (history.size() == HISTORY) {
+				history.removeLast();
+			}
+			history.addFirst(l_cycle);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The management interface of the <code>DeployMetrics</code>.
+ *
+ * @version 2.0.0 17.10.2026 16:31:05
+ */
+public interface DeployMetricsMXBean {
+
+	/**
+	 * @return the number of changes merged into a pending job
+	 */
+	long getCoalescedChanges();
+
+	/**
+	 * @return the number of completed deployment cycles
+	 */
+	long getCycles();
+
+	/**
+	 * @return the number of deployment cycles that failed
+	 */
+	long getFailedCycles();
+
+	/**
+	 * @return the duration of the last deployment cycle in milliseconds
+	 */
+	long getLastDuration();
+
+	/**
+	 * @return the number of bundles refreshed by the last deployment cycle or -1
+	 *         if no cycle has been performed yet
+	 */
+	int getLastClosure();
+
+	/**
+	 * @return the latency of the last deployment cycle in milliseconds
+	 */
+	long getLastLatency();
+
+	/**
+	 * @return the number of deployment cycles per latency bucket, keyed by the
+	 *         upper bound of the bucket
+	 */
+	Map<String, Long> getLatencyHistogram();
+
+	/**
+	 * @return the maximum latency of a deployment cycle in milliseconds
+	 */
+	long getMaxLatency();
+
+	/**
+	 * @return the number of touched paths waiting for deployment
+	 */
+	long getPendingChanges();
+
+	/**
+	 * @return the number of pending jobs in the deploy queue
+	 */
+	long getQueueDepth();
+
+	/**
+	 * @return the most recent deployment cycles with their timings, newest first
+	 */
+	List<String> getRecentCycles();
+}
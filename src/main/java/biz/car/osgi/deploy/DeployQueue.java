@@ -0,0 +1,425 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.PlatformMBean;
+import biz.car.util.Delay;
+
+/**
+ * Serializes the deployment cycles of the hot deployment on a single named
+ * thread.<br>
+ * The touched paths are collected in one pending job per priority. A path that
+ * no longer exists belongs to an uninstall job, a jar of an installed bundle to
+ * an update job and any other path to an install job. A new change is merged
+ * into the pending job of its priority, so that a burst of changes results in
+ * a single cycle. A cycle takes all pending jobs that are ready in priority
+ * order. Uninstall and update jobs are not held back by an install job whose
+ * jars are still being written.<br>
+ * Backpressure is applied in two ways: the quiet period before the next cycle
+ * is at least as long as the previous cycle, and the pending jobs are
+ * collapsed into a rescan of the complete install area once the number of
+ * touched paths exceeds the capacity of the queue.
+ *
+ * @version 2.0.0 17.10.2026 20:18:02
+ */
+public class DeployQueue {
+
+	/**
+	 * Priority of the jobs installing new bundles.
+	 */
+	public static final int INSTALL = 2;
+
+	/**
+	 * Priority of the jobs uninstalling bundles.
+	 */
+	public static final int UNINSTALL = 0;
+
+	/**
+	 * Priority of the jobs updating installed bundles.
+	 */
+	public static final int UPDATE = 1;
+
+	private static final String[] NAMES = { "uninstall", "update", "install" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final long STOP_TIMEOUT = Delay.Period.apply(BND.FRAMEWORK_REFREH_TIMEOUT);
+
+	private int capacity;
+	private WriteCompletion completion;
+	private final Consumer<DeltaPlan> cycle;
+	private final ScheduledThreadPoolExecutor executor;
+	private final DeltaPlan[] jobs;
+	private long lastCycle;
+	private long maxLatency;
+	private final DeployMetrics metrics;
+	private ScheduledFuture<?> pending;
+	private long quietPeriod;
+	private final Map<Path, ScheduledFuture<?>> retries;
+	private boolean running;
+
+	/**
+	 * Creates a new <code>DeployQueue</code> instance.
+	 *
+	 * @param aCycle performs a deployment cycle for the changes of a plan
+	 */
+	public DeployQueue(Consumer<DeltaPlan> aCycle) {
+		super();
+
+		cycle = aCycle;
+		jobs = new DeltaPlan[] { new DeltaPlan(), new DeltaPlan(), new DeltaPlan() };
+		metrics = new DeployMetrics();
+		retries = new HashMap<Path, ScheduledFuture<?>>();
+		executor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread l_ret = new Thread(r, BND.DEPLOY_QUEUE);
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		});
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+	}
+
+	/**
+	 * Adds a path that was created, modified or deleted to the pending job of its
+	 * priority.
+	 *
+	 * @param aPath the absolute path of the file or folder
+	 */
+	public synchronized void add(Path aPath) {
+		if (!running || jobs[UNINSTALL].isOverflow()) {
+			return;
+		}
+		DeltaPlan l_job = jobs[priority(aPath)];
+
+		if (!l_job.isEmpty()) {
+			metrics.coalesced();
+		}
+		l_job.add(aPath);
+
+		int l_size = size();
+
+		if (l_size > capacity) {
+			SYS.LOG.warn(MSG.DEPLOY_QUEUE_SATURATED, l_size, capacity);
+			overflow();
+		}
+		queued();
+	}
+
+	/**
+	 * Runs a task on the queue thread between the deployment cycles. Nothing is
+	 * run while the queue doesn't accept changes.
+	 *
+	 * @param aTask the task
+	 */
+	public synchronized void execute(Runnable aTask) {
+		if (running) {
+			executor.execute(aTask);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the queue accepts changes
+	 */
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return the metrics of the hot deployment
+	 */
+	public DeployMetrics metrics() {
+		return metrics;
+	}
+
+	/**
+	 * Collapses the pending jobs into a rescan of the complete install area,
+	 * because the watch service dropped events or the queue is saturated.
+	 */
+	public synchronized void overflow() {
+		if (!running) {
+			return;
+		}
+		DeltaPlan l_rescan = new DeltaPlan();
+
+		l_rescan.overflow();
+
+		for (int i = 0; i < jobs.length; i++) {
+			l_rescan.addAll(jobs[i]);
+			jobs[i] = new DeltaPlan();
+		}
+		jobs[UNINSTALL] = l_rescan;
+		queued();
+	}
+
+	/**
+	 * Describes the pending jobs in priority order.
+	 *
+	 * @return one line per pending job with the number of touched paths and the
+	 *         time since its first change
+	 */
+	public synchronized List<String> pending() {
+		List<String> l_ret = new ArrayList<String>();
+
+		for (int i = 0; i < jobs.length; i++) {
+			DeltaPlan l_job = jobs[i];
+
+			if (!l_job.isEmpty()) {
+				l_ret.add(NAMES[i] + ": " + l_job.size() + " path(s), waiting " //$NON-NLS-1$ //$NON-NLS-2$
+				    + TimeUnit.NANOSECONDS.toMillis(l_job.age()) + " ms" //$NON-NLS-1$
+				    + (l_job.isOverflow() ? ", rescan" : "")); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Adds a path again after a delay, e.g. once the backoff of a jar whose
+	 * bundle failed to start has elapsed, and schedules the next cycle. A path
+	 * keeps a retry that is still pending, so that repeated changes of a held
+	 * back jar don't pile up retries.
+	 *
+	 * @param aPath  the absolute path of the jar
+	 * @param aDelay the delay in milliseconds
+	 */
+	public synchronized void retry(Path aPath, long aDelay) {
+		if (running && !retries.containsKey(aPath)) {
+			retries.put(aPath, executor.schedule(() -> {
+				synchronized (this) {
+					retries.remove(aPath);
+				}
+				add(aPath);
+				submit();
+			}, aDelay, TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Reads the configuration of the hot deployment and starts accepting
+	 * changes.
+	 */
+	public synchronized void start() {
+		quietPeriod = FrameworkProperty.getPeriod(VAL.framework_hotdeploy_quietPeriod, "1s"); //$NON-NLS-1$
+		maxLatency = FrameworkProperty.getPeriod(VAL.framework_hotdeploy_maxLatency, "30s"); //$NON-NLS-1$
+		capacity = FrameworkProperty.getInt(VAL.framework_hotdeploy_queueCapacity, 1000);
+		completion = new WriteCompletion(quietPeriod);
+		running = true;
+
+		PlatformMBean.register(metrics, DeployMetrics.OBJECT_NAME);
+	}
+
+	/**
+	 * Stops accepting changes and discards the pending jobs and retries. A
+	 * running cycle is given the refresh timeout of the framework to complete
+	 * before it is interrupted.
+	 */
+	public void stop() {
+		boolean l_running;
+		int l_jobs = 0;
+		int l_paths = 0;
+
+		synchronized (this) {
+			l_running = running;
+			running = false;
+
+			if (pending != null) {
+				pending.cancel(false);
+			}
+			retries.values().forEach(f -> f.cancel(false));
+			retries.clear();
+
+			for (int i = 0; i < jobs.length; i++) {
+				if (!jobs[i].isEmpty()) {
+					l_jobs++;
+					l_paths += jobs[i].size();
+				}
+				jobs[i] = new DeltaPlan();
+			}
+			queued();
+		}
+		executor.shutdown();
+
+		try {
+			if (!executor.awaitTermination(STOP_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				SYS.LOG.warn(MSG.DEPLOY_QUEUE_TIMEOUT, STOP_TIMEOUT);
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException anEx) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		if (l_running) {
+			SYS.LOG.info(MSG.DEPLOY_QUEUE_STOPPED, l_jobs, l_paths);
+		}
+	}
+
+	/**
+	 * Schedules the next cycle after the quiet period. The quiet period is
+	 * extended to the duration of the previous cycle, if deployments arrive
+	 * faster than cycles complete.
+	 */
+	public synchronized void submit() {
+		if (running) {
+			schedule(Math.max(quietPeriod, TimeUnit.NANOSECONDS.toMillis(lastCycle)));
+		}
+	}
+
+	/**
+	 * @return the age of the oldest pending job in nanoseconds
+	 */
+	private long age() {
+		long l_ret = 0L;
+
+		for (DeltaPlan l_job : jobs) {
+			l_ret = Math.max(l_ret, l_job.age());
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Determines the priority of a touched path from its current state.
+	 *
+	 * @param aPath the touched path
+	 * @return the priority of the job the path belongs to
+	 */
+	private static int priority(Path aPath) {
+		File l_file = aPath.toFile();
+
+		if (!l_file.exists()) {
+			return UNINSTALL;
+		}
+		if (l_file.isFile()) {
+			String l_location = BundleInventory.normalize(l_file.toURI().toString());
+
+			if (BundleLocation.getBundle(l_location) != null) {
+				return UPDATE;
+			}
+		}
+		return INSTALL;
+	}
+
+	/**
+	 * Publishes the depth of the queue.
+	 */
+	private void queued() {
+		int l_jobs = 0;
+
+		for (DeltaPlan l_job : jobs) {
+			l_jobs += l_job.isEmpty() ? 0 : 1;
+		}
+		metrics.queued(l_jobs, size());
+	}
+
+	/**
+	 * Performs a deployment cycle for the ready jobs on the queue thread.
+	 */
+	private void run() {
+		DeltaPlan l_plan = take();
+
+		if (l_plan == null) {
+			return;
+		}
+		long l_start = System.nanoTime();
+		long l_duration = 0L;
+		boolean l_failed = false;
+
+		metrics.closure(0);
+
+		try {
+			cycle.accept(l_plan);
+		} catch (RuntimeException anEx) {
+			l_failed = true;
+			SYS.LOG.error(MSG.DEPLOY_CYCLE_FAILED, l_plan.size(), anEx.getMessage());
+		} finally {
+			l_duration = System.nanoTime() - l_start;
+			metrics.record(l_plan.size(), l_plan.age(), l_duration, l_failed);
+		}
+		synchronized (this) {
+			lastCycle = l_duration;
+		}
+	}
+
+	/**
+	 * Schedules the next cycle after the given delay. A cycle already scheduled
+	 * is postponed, but never beyond the maximum latency of the oldest job.
+	 *
+	 * @param aDelay the delay in milliseconds
+	 */
+	private void schedule(long aDelay) {
+		if (pending != null) {
+			pending.cancel(false);
+		}
+		long l_left = maxLatency - TimeUnit.NANOSECONDS.toMillis(age());
+		long l_delay = Math.max(0L, Math.min(aDelay, l_left));
+
+		pending = executor.schedule(this::run, l_delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the number of touched paths of all pending jobs
+	 */
+	private int size() {
+		int l_ret = 0;
+
+		for (DeltaPlan l_job : jobs) {
+			l_ret += l_job.size();
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Takes the pending jobs that are ready and merges them into a single plan in
+	 * priority order. A job is ready if all of its jars have been written
+	 * completely or its maximum latency is reached. The remaining jobs are
+	 * checked again after a fraction of the quiet period.
+	 *
+	 * @return the plan of the next cycle or <code>null</code> if no job is ready
+	 */
+	private synchronized DeltaPlan take() {
+		if (!running) {
+			return null;
+		}
+		DeltaPlan l_ret = new DeltaPlan();
+		boolean l_waiting = false;
+
+		for (int i = 0; i < jobs.length; i++) {
+			DeltaPlan l_job = jobs[i];
+
+			if (l_job.isEmpty()) {
+				continue;
+			}
+			boolean l_due = TimeUnit.NANOSECONDS.toMillis(l_job.age()) >= maxLatency;
+
+			if (l_due || completion.isComplete(l_job.jars())) {
+				l_ret.addAll(l_job);
+				jobs[i] = new DeltaPlan();
+			} else {
+				l_waiting = true;
+			}
+		}
+		if (l_waiting) {
+			schedule(Math.max(100L, quietPeriod / 4));
+		} else {
+			completion.clear();
+		}
+		queued();
+
+		return l_ret.isEmpty() ? null : l_ret;
+	}
+}
@@ -6,29 +6,27 @@
 
 package biz.car.osgi.deploy;
 
-import static biz.car.osgi.bundle.VAL.osgi_install_area;
-
-import java.io.File;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import org.osgi.framework.Bundle;
-import org.osgi.framework.BundleContext;
 
 import biz.car.SYS;
 import biz.car.XRuntimeException;
 import biz.car.io.DirectoryListener;
-import biz.car.io.DirectoryWatcher;
-import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.PlatformMBean;
 import biz.car.osgi.framework.XFramework;
 
 /**
@@ -44,14 +42,15 @@ import biz.car.osgi.framework.XFramework;
  * <li>Wait for PACKAGES_REFRESHED event</li>
  * <li>Start newly installed/updated bundles</li>
  * </ol>
+ * The deployment cycles are serialized and prioritized by the
+ * <code>DeployQueue</code>.
  *
- * @version 2.0.0 28.01.2026 15:02:03
+ * @version 2.0.0 17.10.2026 20:18:02
  */
 public class Deployer implements DirectoryListener {
 
-	private ScheduledFuture<?> pendingRefresh = null;
-	private final ScheduledExecutorService scheduler;
-	private final DirectoryWatcher watcher;
+	private final DeployQueue queue;
+	private final Map<String, AreaWatcher> watchers;
 
 	/**
 	 * Creates a default <code>Deployer</code> instance.
@@ -59,63 +58,152 @@ public class Deployer implements DirectoryListener {
 	public Deployer() {
 		super();
 
-		watcher = new DirectoryWatcher(BND.BUNDLE_WATCHER);
-		scheduler = Executors.newSingleThreadScheduledExecutor();
+		queue = new DeployQueue(this::refreshFramework);
+		watchers = new LinkedHashMap<String, AreaWatcher>();
+	}
+
+	/**
+	 * Triggers the deployment of the given paths by hand, e.g. from the shell.
+	 * Relative paths are resolved against the first install area in priority
+	 * order that contains them. Without paths the complete install areas are
+	 * rescanned. While the hot deployment is running,
+	 * the changes are queued like file system events, otherwise the deployment
+	 * cycle is performed on the calling thread.
+	 *
+	 * @param aPaths the touched jars or folders
+	 */
+	public void deploy(List<String> aPaths) {
+		List<Area> l_areas = InstallArea.areas();
+
+		if (queue.isRunning()) {
+			if (aPaths.isEmpty()) {
+				queue.overflow();
+			} else {
+				aPaths.forEach(p -> queue.add(resolve(l_areas, p)));
+			}
+			queue.submit();
+			return;
+		}
+		DeltaPlan l_plan = new DeltaPlan();
+
+		if (aPaths.isEmpty()) {
+			l_plan.overflow();
+		} else {
+			aPaths.forEach(p -> l_plan.add(resolve(l_areas, p)));
+		}
+		refreshFramework(l_plan);
 	}
 
 	@Override
 	public void onEvent(Path aPath, List<WatchEvent<?>> aEvents) {
-		if (pendingRefresh != null && !pendingRefresh.isDone()) {
-			pendingRefresh.cancel(false);
-		}
 		aEvents.forEach(e -> onEvent(aPath, e));
+		queue.submit();
+	}
 
-		pendingRefresh = scheduler.schedule(() -> {
-			refreshFramework();
-		}, 1000, TimeUnit.MILLISECONDS);
+	/**
+	 * Runs a task on the thread of the deploy queue, e.g. work that would block
+	 * a framework listener. Nothing is run while the hot deployment isn't
+	 * running.
+	 *
+	 * @param aTask the task
+	 */
+	public void execute(Runnable aTask) {
+		queue.execute(aTask);
 	}
 
 	/**
-	 * Processes the installation area after the framework is initialized.
+	 * @return the metrics of the hot deployment
+	 */
+	public DeployMetrics metrics() {
+		return queue.metrics();
+	}
+
+	/**
+	 * @return the pending jobs of the deploy queue in priority order
+	 */
+	public List<String> pending() {
+		return queue.pending();
+	}
+
+	/**
+	 * Processes the installation area after the framework is initialized.<br>
+	 * The reconcile is skipped if the fingerprint of the installation area and the
+	 * bundle storage matches the fingerprint of the last successful reconcile. The
+	 * bundles are then started by the framework according to their persistent
+	 * autostart setting.
 	 */
 	public void processInstallArea() {
+		Fingerprint l_fp = new Fingerprint(InstallArea.areas());
+
+		if (l_fp.isUnchanged()) {
+			SYS.LOG.info(MSG.FINGERPRINT_UNCHANGED, l_fp.getFiles());
+			return;
+		}
 		InstallArea l_area = new InstallArea();
 		List<Bundle> l_bl = l_area.reconcile();
 
 		XFramework.startBundles(l_bl);
+		l_fp.save();
 	}
 
 	/**
-	 * Stop the file system watch service.
+	 * Queues a jar again once the backoff after failed starts of its bundle has
+	 * elapsed. A retry already pending for the jar is kept. Nothing is queued
+	 * while the hot deployment isn't running.
+	 *
+	 * @param aLocation the normalized location of the jar
+	 * @param aDelay    the remaining backoff in milliseconds
 	 */
-	public void stop() {
-		watcher.stop();
+	public void retry(String aLocation, long aDelay) {
+		queue.retry(Path.of(URI.create(aLocation)), aDelay);
 	}
 
 	/**
-	 * Starts the file system watch service and registers the install area with the
-	 * watch service.
+	 * Stop the file system watch services and the deploy queue. Pending changes
+	 * are discarded.
 	 */
-	public void watchInstallArea() {
-		try {
-			watcher.start();
-			registerInstallArea();
-		} catch (Exception anEx) {
+	public synchronized void stop() {
+		watchers.values().forEach(AreaWatcher::stop);
+		watchers.clear();
+		queue.stop();
+	}
+
+	/**
+	 * Starts watching the install areas, each with the backend configured by
+	 * <code>framework.area.&lt;name&gt;.watcher</code> or
+	 * <code>framework.hotdeploy.watcher</code>. Areas with the watch mode
+	 * <code>off</code> are only reconciled at startup and from the shell.
+	 */
+	public synchronized void watchInstallArea() {
+		queue.start();
+
+		for (Area l_area : InstallArea.areas()) {
+			if (VAL.off.equals(l_area.getWatcher())) {
+				SYS.LOG.info(MSG.AREA_UNWATCHED, l_area);
+			} else {
+				watch(l_area);
+			}
 		}
 	}
 
+	/**
+	 * @return the backends watching the install areas by area name, empty if the
+	 *         hot deployment isn't started
+	 */
+	public synchronized Map<String, AreaWatcher> watchers() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, AreaWatcher>(watchers));
+	}
+
 	private void onEvent(Path aPath, WatchEvent<?> aEvent) {
 		Kind<?> l_kind = aEvent.kind();
 
-		if (l_kind != StandardWatchEventKinds.OVERFLOW) {
-			if (l_kind == StandardWatchEventKinds.ENTRY_CREATE) {
-				Path l_path = (Path) aEvent.context();
-				l_path = aPath.resolve(l_path);
+		if (l_kind == StandardWatchEventKinds.OVERFLOW) {
+			rescan(aPath);
+		} else {
+			Path l_path = (Path) aEvent.context();
+			l_path = aPath.resolve(l_path);
 
-				if (Files.isDirectory(l_path)) {
-					watcher.registerAll(aPath, null);
-				}
-			}
+			queue.add(l_path);
 		}
 
 		StringBuffer l_event = new StringBuffer(aEvent.kind().name());
@@ -139,8 +227,9 @@ public class Deployer implements DirectoryListener {
 	 * configuration and triggers the respective <code>Bundle.uninstall()</code>,
 	 * <code>update()</code> or <code>installBundle()</code> operations. </div></li>
 	 * <li><b>Refresh framework</b> <div style="margin-left: 3px;"> Invokes
-	 * <code>FrameworkWiring.refreshBundles()</code> to re-resolve dependencies,
-	 * wire exported packages, and clean up obsolete class loaders. </div></li>
+	 * <code>FrameworkWiring.refreshBundles()</code> for the dependency closure of
+	 * the changed bundles to re-resolve dependencies, wire exported packages, and
+	 * clean up obsolete class loaders. </div></li>
 	 * <li><b>Wait for PACKAGES_REFRESHED</b> <div style="margin-left: 3px;"> Blocks
 	 * or synchronizes on the <code>FrameworkEvent.PACKAGES_REFRESHED</code> to
 	 * ensure the bundle graph is stable and consistent. </div></li>
@@ -149,29 +238,132 @@ public class Deployer implements DirectoryListener {
 	 * according to their activation policy and start level. </div></li>
 	 * </ol>
 	 */
-	private void refreshFramework() {
-		InstallArea l_area = new InstallArea();
-		List<Bundle> l_bl = l_area.reconcile();
+	private void refreshFramework(DeltaPlan aPlan) {
+		List<Bundle> l_removed = new ArrayList<Bundle>();
+		List<Bundle> l_bl = reconcile(aPlan, l_removed);
+		List<Bundle> l_changed = new ArrayList<Bundle>(l_bl);
+
+		l_changed.addAll(l_removed);
+		queue.metrics().closure(XFramework.refreshAndWait(l_changed));
 
 		if (l_bl.size() > 0) {
-			XFramework.refreshAndWait();
 			XFramework.startBundles(l_bl);
 		}
 	}
 
-	private void registerInstallArea() {
+	/**
+	 * Reconciles the install area with the bundle storage. Only the touched jars
+	 * are processed in delta mode. A full rescan of the install area is performed
+	 * if delta mode is disabled, events were lost or the delta plan turns out to
+	 * be inconsistent.
+	 * 
+	 * @param aPlan    the changes collected from the watch service
+	 * @param aRemoved receives the uninstalled bundles
+	 * @return the list of newly installed or updated bundles
+	 */
+	private List<Bundle> reconcile(DeltaPlan aPlan, List<Bundle> aRemoved) {
+		String l_mode = FrameworkProperty.getString(VAL.framework_hotdeploy_mode, VAL.delta);
+
+		if (VAL.delta.equals(l_mode) && !aPlan.isOverflow()) {
+			try {
+				return aPlan.reconcile();
+			} catch (XRuntimeException anEx) {
+				SYS.LOG.warn(MSG.DELTA_PLAN_FALLBACK, aPlan.size());
+			} finally {
+				aRemoved.addAll(aPlan.removed());
+			}
+		}
+		InstallArea l_area = new InstallArea();
+		List<Bundle> l_ret = new ArrayList<Bundle>(aPlan.changed());
+
+		l_area.reconcile().stream()
+		    .filter(b -> !l_ret.contains(b))
+		    .forEach(b -> l_ret.add(b));
+		aRemoved.addAll(l_area.removed());
+		return l_ret;
+	}
+
+	/**
+	 * Queues a rescan of a directory after the watch service lost events. The
+	 * rescan is bounded to the subtree of the directory: its folder is
+	 * reconciled, and the jars of installed bundles within the subtree that no
+	 * longer exist are queued for removal.
+	 * 
+	 * @param aPath the directory with lost events
+	 */
+	private void rescan(Path aPath) {
+		Path l_dir = aPath.toAbsolutePath().normalize();
+
+		queue.add(l_dir);
+
+		for (Bundle l_bundle : XFramework.context().getBundles()) {
+			try {
+				String l_location = BundleLocation.toFileLocation(l_bundle.getLocation());
+				Path l_jar = Path.of(new URI(l_location)).toAbsolutePath().normalize();
+
+				if (l_jar.startsWith(l_dir) && !Files.exists(l_jar)) {
+					queue.add(l_jar);
+				}
+			} catch (Exception anEx) {
+				// not a file location
+			}
+		}
+	}
+
+	/**
+	 * Resolves a path given from the shell. A relative path is resolved against
+	 * the first area that contains it, otherwise against the area with the
+	 * highest priority.
+	 *
+	 * @param anAreas the install areas in priority order
+	 * @param aPath   the absolute path or the path relative to an area
+	 * @return the absolute path
+	 */
+	private static Path resolve(List<Area> anAreas, String aPath) {
+		for (Area l_area : anAreas) {
+			Path l_path = l_area.getRoot().toPath().resolve(aPath).normalize();
+
+			if (Files.exists(l_path)) {
+				return l_path;
+			}
+		}
+		return anAreas.get(0).getRoot().toPath().resolve(aPath).normalize();
+	}
+
+	/**
+	 * Starts watching an install area. If the watch service can't register the
+	 * directories of the area, e.g. because the watch limit of the system is
+	 * exhausted, the area is polled instead. An area that can't be polled either
+	 * is logged and left unwatched.
+	 *
+	 * @param anArea the install area
+	 */
+	private void watch(Area anArea) {
+		Path l_root = anArea.getRoot().toPath();
+		AreaWatcher l_watcher = AreaWatcher.create(anArea);
+
 		try {
-			BundleContext l_ctx = XFramework.context();
-			String l_areaName = l_ctx.getProperty(osgi_install_area);
-			l_areaName = BundleLocation.toURI(l_areaName);
-			URI l_uri = new URI(l_areaName);
-			File l_dir = new File(l_uri);
-			Path l_path = l_dir.toPath();
-
-			watcher.registerAll(l_path, this);
+			l_watcher.register(l_root, this);
 		} catch (XRuntimeException anEx) {
-		} catch (Exception anEx) {
-			SYS.LOG.exception(anEx);
+			l_watcher.stop();
+
+			if (l_watcher instanceof PollingAreaWatcher) {
+				SYS.LOG.warn(MSG.BUNDLE_WATCHER_FAILED, anArea, anEx.getMessage());
+				return;
+			}
+			SYS.LOG.warn(MSG.BUNDLE_WATCHER_FALLBACK, anArea, anEx.getMessage());
+			l_watcher = new PollingAreaWatcher(anArea.getName());
+
+			try {
+				l_watcher.register(l_root, this);
+			} catch (XRuntimeException anInnerEx) {
+				l_watcher.stop();
+				SYS.LOG.warn(MSG.BUNDLE_WATCHER_FAILED, anArea, anInnerEx.getMessage());
+				return;
+			}
 		}
+		l_watcher.start();
+		watchers.put(anArea.getName(), l_watcher);
+		PlatformMBean.register(l_watcher, AreaWatcher.OBJECT_NAME + ",area=" + anArea.getName()); //$NON-NLS-1$
 	}
 }
@@ -0,0 +1,238 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import static biz.car.CAR._jar;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+
+import org.osgi.framework.Constants;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.KEY;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * A cheap fingerprint of the install areas and the bundle storage. It is built
+ * from the modification times of the folders, the number of jars, the name,
+ * size and modification time of each jar and the number of installed bundles,
+ * without reading any jar. Each area is hashed on a thread of its own and the
+ * hashes are combined in the order of the areas, together with the path,
+ * priority and start level of each area. The settings that change the result
+ * of the reconcile, i.e. validation and default start level, are part of the
+ * fingerprint as well. The install mode isn't, since installed bundles keep
+ * their location until they are installed again.<br>
+ * The fingerprint of the last successful reconcile is persisted in the
+ * framework data area. If the current fingerprint matches, the reconcile at
+ * startup can be skipped.
+ *
+ * @version 2.0.0 17.10.2026 20:15:48
+ */
+public class Fingerprint {
+
+	private static final String ALGORITHM = "SHA-256"; //$NON-NLS-1$
+	private static final String STORE_KEY = "fingerprint"; //$NON-NLS-1$
+
+	private final String area;
+	private int files;
+	private final File store;
+
+	/**
+	 * Computes the fingerprint of the install areas.
+	 *
+	 * @param anAreas the install areas in priority order
+	 */
+	public Fingerprint(List<Area> anAreas) {
+		super();
+
+		MessageDigest l_digest = newDigest();
+
+		store = new File(XFramework.dataArea(), BND.FINGERPRINT_STORE);
+		settings(l_digest);
+
+		for (Tree l_tree : InstallArea.parallel(anAreas, Tree::new)) {
+			l_digest.update(l_tree.area.getBytes(StandardCharsets.UTF_8));
+			l_digest.update(l_tree.hash);
+			files += l_tree.files;
+		}
+		area = Integer.toHexString(files) + ":" //$NON-NLS-1$
+		    + HexFormat.of().formatHex(l_digest.digest());
+	}
+
+	/**
+	 * @return the number of jars in the install areas
+	 */
+	public int getFiles() {
+		return files;
+	}
+
+	/**
+	 * Checks if the install areas and the bundle storage are unchanged since
+	 * the last successful reconcile. The check always fails if fast restart is
+	 * disabled or the bundle storage is cleaned on startup.
+	 *
+	 * @return <code>true</code> if the reconcile can be skipped
+	 */
+	public boolean isUnchanged() {
+		if (!FrameworkProperty.getBool(VAL.framework_install_fingerprint, true)) {
+			return false;
+		}
+		String l_clean = XFramework.context().getProperty(Constants.FRAMEWORK_STORAGE_CLEAN);
+
+		if (Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT.equals(l_clean)) {
+			return false;
+		}
+		return toString().equals(load());
+	}
+
+	/**
+	 * Persists the fingerprint in the framework data area. The bundle storage is
+	 * taken into account with its state after the reconcile.
+	 */
+	public void save() {
+		Properties l_props = new Properties();
+
+		l_props.setProperty(STORE_KEY, toString());
+		store.getParentFile().mkdirs();
+
+		try (OutputStream l_out = new FileOutputStream(store)) {
+			l_props.store(l_out, BND.FINGERPRINT_STORE);
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	@Override
+	public String toString() {
+		int l_bundles = XFramework.context().getBundles().length;
+
+		return area + ":" + Integer.toHexString(l_bundles); //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the persisted fingerprint or <code>null</code>
+	 */
+	private String load() {
+		if (!store.isFile()) {
+			return null;
+		}
+		Properties l_props = new Properties();
+
+		try (InputStream l_in = new FileInputStream(store)) {
+			l_props.load(l_in);
+
+			return l_props.getProperty(STORE_KEY);
+		} catch (IOException anEx) {
+			SYS.LOG.warn(MSG.FINGERPRINT_IGNORED, store, anEx.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the framework properties that change the result of the reconcile to
+	 * the digest.
+	 *
+	 * @param aDigest the digest of the fingerprint
+	 */
+	private static void settings(MessageDigest aDigest) {
+		String[] l_keys = { VAL.framework_install_validate, KEY.conf.getString(VAL.bundle_startLevel) };
+
+		for (String l_key : l_keys) {
+			String l_setting = l_key + "=" + XFramework.context().getProperty(l_key) + "\n"; //$NON-NLS-1$ //$NON-NLS-2$
+
+			aDigest.update(l_setting.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	/**
+	 * The hash of the folders and jars of a single install area.
+	 */
+	private static class Tree {
+
+		private final String area;
+		private final ByteBuffer buffer;
+		private final MessageDigest digest;
+		private int files;
+		private final byte[] hash;
+
+		private Tree(Area anArea) {
+			super();
+
+			File l_root = anArea.getRoot();
+
+			area = anArea.getName() + "=" + l_root.getAbsolutePath() + "," + anArea.getPriority() + "," //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			    + anArea.getStartLevel() + "\n"; //$NON-NLS-1$
+			buffer = ByteBuffer.allocate(Long.BYTES);
+			digest = newDigest();
+			update(l_root, l_root.getAbsolutePath().length());
+			hash = digest.digest();
+		}
+
+		/**
+		 * Adds a folder and its content to the hash. The entries are visited in
+		 * name order, so that the hash doesn't depend on the order of the file
+		 * system.
+		 *
+		 * @param aDir    the folder to add
+		 * @param aPrefix the length of the path of the install area
+		 */
+		private void update(File aDir, int aPrefix) {
+			File[] l_files = aDir.listFiles();
+
+			update(aDir.getAbsolutePath().substring(aPrefix), aDir.lastModified());
+
+			if (l_files == null) {
+				return;
+			}
+			Arrays.sort(l_files);
+
+			for (File l_file : l_files) {
+				if (l_file.isDirectory()) {
+					update(l_file, aPrefix);
+				} else if (l_file.getName().endsWith(_jar)) {
+					update(l_file.getName(), l_file.lastModified());
+					update(null, l_file.length());
+					files++;
+				}
+			}
+		}
+
+		private void update(String aName, long aValue) {
+			if (aName != null) {
+				digest.update(aName.getBytes(StandardCharsets.UTF_8));
+			}
+			buffer.clear();
+			buffer.putLong(aValue);
+			digest.update(buffer.array());
+		}
+	}
+}
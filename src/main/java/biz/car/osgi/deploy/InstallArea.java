@@ -12,7 +12,15 @@ import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,17 +31,29 @@ import org.osgi.framework.startlevel.BundleStartLevel;
 
 import biz.car.CAR;
 import biz.car.SYS;
+import biz.car.XRuntimeException;
+import biz.car.osgi.bundle.BND;
 import biz.car.osgi.bundle.KEY;
+import biz.car.osgi.bundle.MSG;
 import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.StartupProfile;
 import biz.car.osgi.framework.XFramework;
 
 /**
- * Functions related to the OSGi installation area.
+ * Functions related to the OSGi installation area.<br>
+ * The jars may be spread over several install areas, configured by
+ * <code>framework.install.areas</code>. Each area is scanned on a thread of its
+ * own, so that a slow network volume doesn't hold up the scan of local areas,
+ * and the results are merged into a single inventory. Without configured areas
+ * the OSGi installation area is the only area.
  *
- * @version 2.0.0 21.01.2026 10:17:11
+ * @version 2.0.0 17.10.2026 20:16:44
  */
 public class InstallArea implements CAR {
 
+	private static final String FILE_SCHEME = "file:"; //$NON-NLS-1$
+
 	private static Pattern areaPath = Pattern.compile("(\\/\\d{2})"); //$NON-NLS-1$
 	private static final Deployer watcher = new Deployer();
 
@@ -45,7 +65,8 @@ public class InstallArea implements CAR {
 		return watcher;
 	}
 
-	private List<String> jars;
+	private BundleInventory jars;
+	private final List<Bundle> removed;
 
 	/**
 	 * Creates a default <code>InstallArea</code> instance.
@@ -53,78 +74,193 @@ public class InstallArea implements CAR {
 	public InstallArea() {
 		super();
 
-		jars = jarFiles();
+		jars = new BundleInventory();
+		removed = new ArrayList<Bundle>();
+		parallel(areas(), InstallArea::scan).forEach(jars::addAll);
 	}
 
 	/**
-	 * Checks if a jar file exists that corresponds to the location identifier of
-	 * the given bundle.
-	 * 
-	 * @param aBundle the bundle to check
-	 * @return <code>true</code> if the install area contains a jar that matches the
-	 *         location identifier of the bundle
+	 * Looks up the area of a jar or folder. If areas overlap, the area with the
+	 * highest priority is returned.
+	 *
+	 * @param anAreas   the areas in priority order
+	 * @param aLocation the location of the jar or folder
+	 * @return the area or <code>null</code> if the location isn't located in any
+	 *         of the areas
+	 */
+	public static Area area(List<Area> anAreas, String aLocation) {
+		for (Area l_area : anAreas) {
+			if (l_area.contains(aLocation)) {
+				return l_area;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the configured install areas. Each area listed in
+	 * <code>framework.install.areas</code> is configured by the properties
+	 * <code>framework.area.&lt;name&gt;.path</code>, <code>.startLevel</code>,
+	 * <code>.watcher</code> and <code>.priority</code>. Without configured areas
+	 * the OSGi installation area is the only area.
+	 *
+	 * @return the install areas by descending priority and, on equal priority, in
+	 *         the configured order
+	 */
+	public static List<Area> areas() {
+		String l_names = FrameworkProperty.getString(VAL.framework_install_areas, ""); //$NON-NLS-1$
+		String l_watcher = FrameworkProperty.getString(VAL.framework_hotdeploy_watcher, VAL.watch);
+		List<Area> l_ret = new ArrayList<Area>();
+
+		for (String l_name : l_names.split(",")) { //$NON-NLS-1$
+			String l_trimmed = l_name.trim();
+
+			if (!l_trimmed.isEmpty() && l_ret.stream().noneMatch(a -> a.getName().equals(l_trimmed))) {
+				l_ret.add(newArea(l_trimmed, l_ret.size(), l_watcher));
+			}
+		}
+		if (l_ret.isEmpty()) {
+			File l_root = root();
+
+			l_ret.add(new Area(l_root.getName(), 0, l_root, 0, 0, l_watcher));
+		}
+		l_ret.sort(Comparator.comparingInt(Area::getPriority).reversed().thenComparingInt(Area::getIndex));
+		return l_ret;
+	}
+
+	/**
+	 * @return the index of the jar files located in the install area
 	 */
-	public boolean contains(Bundle aBundle) {
-		String l_location = aBundle.getLocation();
+	public BundleInventory inventory() {
+		return jars;
+	}
 
-		return jars.contains(l_location);
+	/**
+	 * @return the bundles uninstalled by the reconcile
+	 */
+	public List<Bundle> removed() {
+		return removed;
 	}
 
 	/**
 	 * Synchronizes the jars in the install area with the bundles in the bundle
 	 * storage.<br>
-	 * Three cases are covered:
+	 * Four cases are covered:
 	 * <ul>
-	 * <li>the jar already exists in the bundle storage and the jar is not newer. No
-	 * to do.
-	 * <li>the jar already exists in the bundle storage but has a newer timestamp.
-	 * The bundle is updated.
+	 * <li>the jar already exists in the bundle storage and its size and
+	 * modification time match the record of the change detector. Nothing to do.
+	 * <li>the jar already exists in the bundle storage but its size or
+	 * modification time differs from the record, or the jar without record is
+	 * newer than its bundle. The bundle is only updated if the content hash of
+	 * the jar differs from the recorded hash, otherwise only the record is
+	 * refreshed.
 	 * <li>the jar is not existing in the bundle storage. The jar is installed but
 	 * not started.
+	 * <li>the bundle has no jar in the install area anymore. The bundle is
+	 * uninstalled.
 	 * </ul>
 	 * 
 	 * @return the list of newly installed bundles
 	 */
 	public List<Bundle> reconcile() {
 		BundleStorage l_bs = new BundleStorage();
+		ChangeDetector l_cd = new ChangeDetector();
+		InventoryDiff l_diff = jars.diff(l_bs.inventory(), l_cd::isCandidate);
 		List<Bundle> l_ret = new ArrayList<Bundle>();
 
-		l_bs.uninstallBundles(this);
+		ManifestIndex.instance().retain(jars);
+
+		apply(l_bs, l_diff, l_cd, l_ret, removed);
+		l_bs.dispose();
+		jars.clear();
+
+		return l_ret;
+	}
+
+	/**
+	 * Applies the result of a comparison between install area and bundle storage.
+	 * Jars with an invalid manifest or a duplicate symbolic name and version are
+	 * excluded beforehand, as well as jars held back by the bundle quarantine
+	 * after failed starts of their bundle. While the framework is active the jars
+	 * that would break the resolution are skipped after a dry run of the
+	 * resolver. The jars are installed in the order of their locations. Update
+	 * candidates are only updated if the change detector confirms a change of
+	 * their content. The records of the change detector are only persisted if
+	 * all operations succeeded.
+	 * 
+	 * @param aStorage  the current bundle storage
+	 * @param aDiff     the bundles to uninstall and the jars to install or update
+	 * @param aDetector the change detector of the reconcile
+	 * @param aResult   receives the installed and updated bundles
+	 * @param aRemoved  receives the uninstalled bundles
+	 */
+	static void apply(BundleStorage aStorage, InventoryDiff aDiff, ChangeDetector aDetector, List<Bundle> aResult,
+	    List<Bundle> aRemoved) {
+		List<Area> l_areas = areas();
 
-		for (String l_location : jars) {
-			Bundle l_bundle = l_bs.getBundle(l_location);
+		new ManifestValidator().validate(aDiff);
+		BundleQuarantine.instance().filter(aDiff);
+		new ResolverDryRun().run(aDiff);
+		// install in directory order, so that the bundle ids are deterministic
+		aDiff.getInstalls().sort(Comparator.comparing(InventoryEntry::getLocation));
 
-			if (l_bundle == null) {
-				l_bundle = install(l_location);
+		for (InventoryEntry l_entry : aDiff.getUninstalls()) {
+			Bundle l_bundle = aStorage.uninstall(l_entry);
 
-				l_ret.add(l_bundle);
-			} else {
-				if (update(l_bundle)) {
-					l_ret.add(l_bundle);
-				}
+			if (l_bundle != null) {
+				aRemoved.add(l_bundle);
 			}
+			aDetector.remove(l_entry.getLocation());
+			ManifestIndex.instance().remove(l_entry.getLocation());
 		}
-		l_bs.dispose();
-		jars.clear();
+		for (InventoryEntry l_entry : aDiff.getInstalls()) {
+			long l_start = StartupProfile.begin();
+			Bundle l_bundle = install(l_areas, l_entry.getLocation());
 
-		return l_ret;
+			StartupProfile.bundle(StartupProfile.INSTALL, l_bundle, l_start);
+			aResult.add(l_bundle);
+		}
+		aDetector.record(aDiff.getInstalls());
+
+		for (InventoryEntry l_entry : aDetector.confirm(aDiff.getUpdates())) {
+			Bundle l_bundle = aStorage.getBundle(l_entry.getLocation());
+
+			if (l_bundle != null) {
+				long l_start = StartupProfile.begin();
+
+				update(l_bundle);
+				StartupProfile.bundle(StartupProfile.UPDATE, l_bundle, l_start);
+				aResult.add(l_bundle);
+			}
+		}
+		aDetector.save();
+		ManifestIndex.instance().save();
 	}
 
 	/**
 	 * Installs a bundle from the installation area into the OSGi framework.<br>
-	 * The bundle is not started.
+	 * The bundle is not started. Depending on the install mode, the jar is copied
+	 * into the bundle storage or referenced in place. The start level is taken
+	 * from a start level folder within the area, otherwise from the area or the
+	 * framework default.
 	 * 
+	 * @param anAreas   the install areas in priority order
 	 * @param aLocation the storage location within the installation area
 	 * @return the installed bundle object
 	 */
-	private Bundle install(String aLocation) {
+	static Bundle install(List<Area> anAreas, String aLocation) {
 		try {
 			BundleContext l_ctx = XFramework.context();
-			Bundle l_ret = l_ctx.installBundle(aLocation);
+			Bundle l_ret = l_ctx.installBundle(BundleLocation.toInstallLocation(aLocation));
 			BundleStartLevel l_bsl = l_ret.adapt(BundleStartLevel.class);
 			String l_key = KEY.conf.getString(VAL.bundle_startLevel);
 			String l_lvl = l_ctx.getProperty(l_key);
-			Matcher l_matcher = areaPath.matcher(aLocation);
+			Area l_area = area(anAreas, aLocation);
+
+			if (l_area != null && l_area.getStartLevel() > 0) {
+				l_lvl = String.valueOf(l_area.getStartLevel());
+			}
+			Matcher l_matcher = areaPath.matcher(l_area == null ? aLocation : "/" + l_area.relativize(aLocation)); //$NON-NLS-1$
 
 			if (l_matcher.find()) {
 				l_lvl = l_matcher.group().substring(1, 3);
@@ -138,66 +274,126 @@ public class InstallArea implements CAR {
 	}
 
 	/**
-	 * Gets a list of all jar files located in the OSGi installation area.
+	 * Reads the configuration of an area.
+	 *
+	 * @param aName    the name of the area
+	 * @param anIndex  the position of the area in the configured list
+	 * @param aWatcher the default watch mode
+	 * @return the area
+	 */
+	private static Area newArea(String aName, int anIndex, String aWatcher) {
+		String l_prefix = VAL.framework_area + "." + aName + "."; //$NON-NLS-1$ //$NON-NLS-2$
+		String l_path = FrameworkProperty.getString(l_prefix + VAL.path, aName);
+		int l_priority = FrameworkProperty.getInt(l_prefix + VAL.priority, 0);
+		int l_startLevel = FrameworkProperty.getInt(l_prefix + VAL.startLevel, 0);
+		String l_watcher = FrameworkProperty.getString(l_prefix + VAL.watcher, aWatcher).trim();
+
+		return new Area(aName, anIndex, toFile(l_path), l_priority, l_startLevel, l_watcher);
+	}
+
+	/**
+	 * Performs a task for each area, each on a thread of its own.
+	 *
+	 * @param anAreas the areas
+	 * @param aTask   the task to perform
+	 * @return the results of the task in the order of the areas
+	 */
+	static <T> List<T> parallel(List<Area> anAreas, Function<Area, T> aTask) {
+		if (anAreas.size() == 1) {
+			return Collections.singletonList(aTask.apply(anAreas.get(0)));
+		}
+		ExecutorService l_pool = Executors.newFixedThreadPool(anAreas.size(), r -> {
+			Thread l_ret = new Thread(r, BND.AREA_SCAN);
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		});
+		List<Future<T>> l_futures = new ArrayList<Future<T>>();
+		List<T> l_ret = new ArrayList<T>();
+
+		try {
+			for (Area l_area : anAreas) {
+				l_futures.add(l_pool.submit(() -> {
+					Thread.currentThread().setName(BND.AREA_SCAN + " " + l_area); //$NON-NLS-1$
+					return aTask.apply(l_area);
+				}));
+			}
+			for (Future<T> l_future : l_futures) {
+				l_ret.add(l_future.get());
+			}
+			return l_ret;
+		} catch (InterruptedException anEx) {
+			Thread.currentThread().interrupt();
+			throw SYS.LOG.exception(anEx);
+		} catch (ExecutionException anEx) {
+			if (anEx.getCause() instanceof XRuntimeException) {
+				throw (XRuntimeException) anEx.getCause();
+			}
+			throw SYS.LOG.exception(anEx.getCause());
+		} finally {
+			l_pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Resolves the OSGi installation area as a folder on the file system.
 	 * 
-	 * @return the list of all jar files located in the installation area
+	 * @return the root folder of the installation area
 	 */
-	private List<String> jarFiles() {
+	public static File root() {
 		try {
 			BundleContext l_ctx = XFramework.context();
 			String l_areaName = l_ctx.getProperty(osgi_install_area);
 			l_areaName = BundleLocation.toURI(l_areaName);
 			URI l_uri = new URI(l_areaName);
-			File l_dir = new File(l_uri);
-			List<String> l_ret = jarFiles(l_dir);
 
-			return l_ret;
+			return new File(l_uri);
 		} catch (URISyntaxException anEx) {
 			throw SYS.LOG.exception(anEx);
 		}
 	}
 
-	private List<String> jarFiles(File aDir) {
-		ArrayList<String> l_ret = new ArrayList<>();
-		File[] l_jars = aDir.listFiles();
+	/**
+	 * Scans an area for jars.
+	 *
+	 * @param anArea the area to scan
+	 * @return the inventory of the jars of the area
+	 */
+	private static BundleInventory scan(Area anArea) {
+		long l_start = System.nanoTime();
+		BundleInventory l_ret = BundleInventory.scan(anArea.getRoot());
 
-		if (l_jars != null) {
-			for (int i = 0; i < l_jars.length; i++) {
-				File l_jar = l_jars[i];
+		SYS.LOG.info(MSG.AREA_SCANNED, anArea, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - l_start),
+		    l_ret.size());
+		return l_ret;
+	}
 
-				if (l_jar.isDirectory()) {
-					l_ret.addAll(jarFiles(l_jar));
-				} else if (l_jar.getName().endsWith(_jar)) {
-					l_ret.add(l_jar.toURI().toString());
-				}
-			}
+	/**
+	 * Resolves the path of an area as a folder on the file system. A relative
+	 * path is resolved against the working directory.
+	 *
+	 * @param aPath the path or <code>file:</code> URI of the area
+	 * @return the root folder of the area
+	 */
+	private static File toFile(String aPath) {
+		String l_uri = BundleLocation.toURI(aPath);
+
+		try {
+			return l_uri.startsWith(FILE_SCHEME) ? new File(new URI(l_uri)) : new File(aPath).getAbsoluteFile();
+		} catch (URISyntaxException | IllegalArgumentException anEx) {
+			throw SYS.LOG.exception(anEx);
 		}
-		return l_ret;
 	}
 
 	/**
-	 * Updates a framework bundle with the jar from the installation area.<br>
-	 * The update operation is only performed if the jar file is newer than the
-	 * bundle.
+	 * Updates a framework bundle with the jar from the installation area.
 	 * 
 	 * @param aBundle the bundle to update
 	 */
-	private boolean update(Bundle aBundle) {
-		boolean l_ret = false;
-		long l_blm = aBundle.getLastModified();
-		String l_loc = aBundle.getLocation();
+	private static void update(Bundle aBundle) {
 		try {
-			URI l_uri = new URI(l_loc);
-			File l_jar = new File(l_uri);
-			long l_jlm = l_jar.lastModified();
-
-			if (l_jlm > l_blm) {
-				l_ret = true;
-
-				aBundle.update();
-			}
-			return l_ret;
-		} catch (Exception anEx) {
+			aBundle.update();
+		} catch (BundleException anEx) {
 			throw SYS.LOG.exception(anEx);
 		}
 	}
@@ -0,0 +1,71 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of comparing the jars of the installation area with the bundles
+ * of the bundle storage.
+ *
+ * @version 2.0.0 17.10.2026 11:35:02
+ */
+public class InventoryDiff {
+
+	private final List<InventoryEntry> installs;
+	private final List<InventoryEntry> uninstalls;
+	private final List<InventoryEntry> updates;
+
+	/**
+	 * Creates a default <code>InventoryDiff</code> instance.
+	 */
+	public InventoryDiff() {
+		super();
+
+		installs = new ArrayList<InventoryEntry>();
+		uninstalls = new ArrayList<InventoryEntry>();
+		updates = new ArrayList<InventoryEntry>();
+	}
+
+	/**
+	 * @return the jar entries without a corresponding bundle
+	 */
+	public List<InventoryEntry> getInstalls() {
+		return installs;
+	}
+
+	/**
+	 * @return the bundle entries without a corresponding jar
+	 */
+	public List<InventoryEntry> getUninstalls() {
+		return uninstalls;
+	}
+
+	/**
+	 * @return the jar entries where the jar has changed since the deployment of
+	 *         its bundle
+	 */
+	public List<InventoryEntry> getUpdates() {
+		return updates;
+	}
+
+	/**
+	 * @return <code>true</code> if the install area and the bundle storage are in
+	 *         sync
+	 */
+	public boolean isEmpty() {
+		return installs.isEmpty() && uninstalls.isEmpty() && updates.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "install=" + installs.size() //$NON-NLS-1$
+		    + ", update=" + updates.size() //$NON-NLS-1$
+		    + ", uninstall=" + uninstalls.size(); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,142 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.net.URI;
+
+import org.osgi.framework.Bundle;
+
+/**
+ * The record of a single location in a <code>BundleInventory</code>. An entry
+ * either describes a jar file in the installation area or a bundle installed
+ * from such a location.
+ *
+ * @version 2.0.0 17.10.2026 11:32:45
+ */
+public class InventoryEntry {
+
+	/**
+	 * The bundle id of an entry that describes a jar file only.
+	 */
+	public static final long NO_BUNDLE = -1L;
+
+	private final long bundleId;
+	private final long lastModified;
+	private final String location;
+	private final long size;
+	private final String symbolicName;
+	private final String version;
+
+	/**
+	 * Creates a new <code>InventoryEntry</code> instance.
+	 *
+	 * @param aLocation     the normalized location
+	 * @param aSize         the size of the jar or -1 if not known
+	 * @param aLastModified the last modification time in milliseconds
+	 * @param aBundleId     the bundle id or <code>NO_BUNDLE</code>
+	 * @param aName         the bundle symbolic name or <code>null</code>
+	 * @param aVersion      the bundle version or <code>null</code>
+	 */
+	public InventoryEntry(String aLocation, long aSize, long aLastModified, long aBundleId, String aName,
+	    String aVersion) {
+		super();
+
+		location = aLocation;
+		size = aSize;
+		lastModified = aLastModified;
+		bundleId = aBundleId;
+		symbolicName = aName;
+		version = aVersion;
+	}
+
+	/**
+	 * Creates an entry for an installed bundle.
+	 *
+	 * @param aLocation the normalized location of the bundle
+	 * @param aBundle   the installed bundle
+	 * @return the new entry
+	 */
+	public static InventoryEntry of(String aLocation, Bundle aBundle) {
+		String l_version = aBundle.getVersion().toString();
+
+		return new InventoryEntry(aLocation, -1L, aBundle.getLastModified(), aBundle.getBundleId(),
+		    aBundle.getSymbolicName(), l_version);
+	}
+
+	/**
+	 * Creates an entry for a jar file.
+	 *
+	 * @param aLocation the normalized location of the jar
+	 * @param aJar      the jar file
+	 * @return the new entry
+	 */
+	public static InventoryEntry of(String aLocation, File aJar) {
+		return new InventoryEntry(aLocation, aJar.length(), aJar.lastModified(), NO_BUNDLE, null, null);
+	}
+
+	/**
+	 * @return the bundle id or <code>NO_BUNDLE</code>
+	 */
+	public long getBundleId() {
+		return bundleId;
+	}
+
+	/**
+	 * @return the last modification time in milliseconds
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return the normalized location
+	 */
+	public String getLocation() {
+		return location;
+	}
+
+	/**
+	 * @return the size of the jar or -1 if not known
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the bundle symbolic name or <code>null</code>
+	 */
+	public String getSymbolicName() {
+		return symbolicName;
+	}
+
+	/**
+	 * @return the bundle version or <code>null</code>
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return <code>true</code> if the entry describes an installed bundle
+	 */
+	public boolean isBundle() {
+		return bundleId != NO_BUNDLE;
+	}
+
+	/**
+	 * @return the file of the location
+	 */
+	public File toFile() {
+		return new File(URI.create(location));
+	}
+
+	@Override
+	public String toString() {
+		return location;
+	}
+}
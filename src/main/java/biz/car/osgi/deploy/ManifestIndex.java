@@ -0,0 +1,252 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.Bundle;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * A persistent index of the manifests of the jars in the installation area,
+ * keyed by the location of the jar. An indexed manifest is valid as long as
+ * size and modification time of its jar are unchanged, so that a jar is only
+ * opened again after it has changed.<br>
+ * The index is stored in a compact binary file in the framework data area.
+ * The file starts with a magic number and a format version, followed by the
+ * entries with length prefixed UTF-8 strings. It is read into memory at once
+ * and not mapped, so that it can be replaced by the next save on any platform.
+ * A file with an unknown format is ignored and rebuilt.
+ *
+ * @version 2.0.0 17.10.2026 20:16:44
+ */
+public class ManifestIndex {
+
+	private static final int MAGIC = 0x434D4958;
+	private static final int VERSION = 1;
+	private static ManifestIndex index;
+
+	private volatile boolean dirty;
+	private final Map<String, BundleManifest> entries;
+	private final File store;
+
+	/**
+	 * Creates a default <code>ManifestIndex</code> instance and loads the
+	 * persisted index.
+	 */
+	private ManifestIndex() {
+		super();
+
+		entries = new ConcurrentHashMap<String, BundleManifest>();
+		store = new File(XFramework.dataArea(), BND.MANIFEST_INDEX);
+
+		load();
+	}
+
+	/**
+	 * @return the index of the running framework, loaded on first use
+	 */
+	public static synchronized ManifestIndex instance() {
+		if (index == null) {
+			index = new ManifestIndex();
+		}
+		return index;
+	}
+
+	/**
+	 * Drops the index of a stopped framework. The next call of
+	 * <code>instance()</code> loads the index from the data area of the current
+	 * framework.
+	 */
+	public static synchronized void reset() {
+		index = null;
+	}
+
+	/**
+	 * Looks up the indexed manifest of an installed bundle. The jar isn't
+	 * opened.
+	 *
+	 * @param aBundle the bundle
+	 * @return the manifest or <code>null</code> if the jar of the bundle isn't
+	 *         indexed or has changed since
+	 */
+	public BundleManifest get(Bundle aBundle) {
+		String l_location = BundleInventory.normalize(aBundle.getLocation());
+		BundleManifest l_ret = entries.get(l_location);
+
+		if (l_ret == null) {
+			return null;
+		}
+		try {
+			File l_jar = new File(URI.create(l_location));
+
+			return l_ret.matches(l_jar.length(), l_jar.lastModified()) ? l_ret : null;
+		} catch (IllegalArgumentException anEx) {
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the manifest of a jar. The jar is only read if it isn't indexed
+	 * or has changed since.
+	 *
+	 * @param aJar the inventory entry of the jar
+	 * @return the manifest or <code>null</code> if the jar has no manifest
+	 * @throws IOException if the jar is not a readable zip file
+	 */
+	public BundleManifest get(InventoryEntry aJar) throws IOException {
+		BundleManifest l_ret = entries.get(aJar.getLocation());
+
+		if (l_ret != null && l_ret.matches(aJar.getSize(), aJar.getLastModified())) {
+			return l_ret;
+		}
+		l_ret = BundleManifest.read(aJar.toFile());
+
+		if (l_ret != null) {
+			entries.put(aJar.getLocation(), l_ret);
+			dirty = true;
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Removes the entry of a jar, e.g. after its bundle has been uninstalled.
+	 *
+	 * @param aLocation the normalized location of the jar
+	 */
+	public void remove(String aLocation) {
+		if (entries.remove(aLocation) != null) {
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Removes the entries of all jars that are missing in a full scan of the
+	 * install areas. The jars aren't accessed.
+	 *
+	 * @param aJars the inventory of the install areas
+	 */
+	public void retain(BundleInventory aJars) {
+		if (entries.keySet().removeIf(k -> aJars.get(k) == null)) {
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Persists the index in the framework data area if it has changed.
+	 */
+	public synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+		File l_tmp = new File(store.getPath() + ".tmp"); //$NON-NLS-1$
+
+		store.getParentFile().mkdirs();
+
+		try (OutputStream l_out = new BufferedOutputStream(new FileOutputStream(l_tmp));
+		    DataOutputStream l_data = new DataOutputStream(l_out)) {
+			l_data.writeInt(MAGIC);
+			l_data.writeInt(VERSION);
+			l_data.writeInt(entries.size());
+
+			for (Map.Entry<String, BundleManifest> l_entry : entries.entrySet()) {
+				BundleManifest l_mf = l_entry.getValue();
+
+				write(l_data, l_entry.getKey());
+				l_data.writeLong(l_mf.getSize());
+				l_data.writeLong(l_mf.getLastModified());
+
+				for (String l_value : l_mf.values()) {
+					write(l_data, l_value);
+				}
+			}
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+		try {
+			Files.move(l_tmp.toPath(), store.toPath(), StandardCopyOption.REPLACE_EXISTING,
+			    StandardCopyOption.ATOMIC_MOVE);
+			dirty = false;
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	/**
+	 * Loads the persisted index. The index file is read at once and closed
+	 * before the entries are parsed.
+	 */
+	private void load() {
+		if (!store.isFile()) {
+			return;
+		}
+		try {
+			ByteBuffer l_buf = ByteBuffer.wrap(Files.readAllBytes(store.toPath()));
+
+			if (l_buf.getInt() != MAGIC || l_buf.getInt() != VERSION) {
+				SYS.LOG.warn(MSG.MANIFEST_INDEX_IGNORED, store, BND.MANIFEST_INDEX_FORMAT);
+				return;
+			}
+			int l_count = l_buf.getInt();
+
+			for (int i = 0; i < l_count; i++) {
+				String l_location = read(l_buf);
+				long l_size = l_buf.getLong();
+				long l_lastModified = l_buf.getLong();
+				String[] l_values = new String[BundleManifest.HEADERS.length];
+
+				for (int j = 0; j < l_values.length; j++) {
+					l_values[j] = read(l_buf);
+				}
+				entries.put(l_location, new BundleManifest(l_size, l_lastModified, l_values));
+			}
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException anEx) {
+			SYS.LOG.warn(MSG.MANIFEST_INDEX_IGNORED, store, anEx.toString());
+			entries.clear();
+		}
+	}
+
+	private static String read(ByteBuffer aBuffer) {
+		int l_length = aBuffer.getInt();
+
+		if (l_length < 0) {
+			return null;
+		}
+		byte[] l_bytes = new byte[l_length];
+
+		aBuffer.get(l_bytes);
+		return new String(l_bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void write(DataOutputStream anOut, String aValue) throws IOException {
+		if (aValue == null) {
+			anOut.writeInt(-1);
+			return;
+		}
+		byte[] l_bytes = aValue.getBytes(StandardCharsets.UTF_8);
+
+		anOut.writeInt(l_bytes.length);
+		anOut.write(l_bytes);
+	}
+}
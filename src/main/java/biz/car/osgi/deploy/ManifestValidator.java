@@ -0,0 +1,277 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Version;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * Validates the jars of a reconcile before they are handed to the
+ * framework.<br>
+ * The manifests are read in parallel through the <code>ManifestIndex</code>,
+ * so that only new or changed jars are opened. Of these, only the central
+ * directory and the manifest entry are read. A jar is excluded from the
+ * reconcile if it is not a readable zip file or has invalid OSGi headers. A
+ * jar without manifest or without OSGi headers is a plain jar and is installed
+ * like any other jar.
+ * Unless the framework allows multiple bundles with the same symbolic name and
+ * version, a jar is also excluded if another jar or an installed bundle has
+ * the same symbolic name and version. Of several colliding jars, the jar of
+ * the install area with the highest priority is kept, and within an area the
+ * jar with the lowest location (i.e. in the lowest start level folder). An
+ * installed bundle of an area with a lower priority is uninstalled in favour
+ * of the jar.<br>
+ * The excluded jars are reported and not recorded, so that they are validated
+ * again when they change.
+ *
+ * @version 2.0.0 17.10.2026 20:16:10
+ */
+public class ManifestValidator {
+
+	private final boolean enabled;
+	private final Map<String, String> rejected;
+
+	/**
+	 * Creates a default <code>ManifestValidator</code> instance.
+	 */
+	public ManifestValidator() {
+		super();
+
+		enabled = FrameworkProperty.getBool(VAL.framework_install_validate, true);
+		rejected = new TreeMap<String, String>();
+	}
+
+	/**
+	 * @return the locations of the excluded jars and the reason of their
+	 *         exclusion
+	 */
+	public Map<String, String> getRejected() {
+		return Collections.unmodifiableMap(rejected);
+	}
+
+	/**
+	 * Validates the jars to install and update and removes the invalid jars from
+	 * the comparison result.
+	 *
+	 * @param aDiff the result of the comparison between install area and bundle
+	 *              storage
+	 */
+	public void validate(InventoryDiff aDiff) {
+		List<InventoryEntry> l_jars = new ArrayList<InventoryEntry>(aDiff.getInstalls());
+
+		l_jars.addAll(aDiff.getUpdates());
+
+		if (!enabled || l_jars.isEmpty()) {
+			return;
+		}
+		long l_start = System.nanoTime();
+		ManifestIndex l_index = ManifestIndex.instance();
+		Map<InventoryEntry, Header> l_headers = l_jars.parallelStream()
+		    .collect(Collectors.toConcurrentMap(e -> e, e -> read(l_index, e)));
+
+		l_headers.forEach((k, v) -> {
+			if (v.error != null) {
+				rejected.put(k.getLocation(), v.error);
+			}
+		});
+		if (!isMultiple()) {
+			collisions(aDiff, l_headers);
+		}
+		aDiff.getInstalls().removeIf(e -> rejected.containsKey(e.getLocation()));
+		aDiff.getUpdates().removeIf(e -> rejected.containsKey(e.getLocation()));
+
+		rejected.forEach((k, v) -> SYS.LOG.warn(MSG.MANIFEST_REJECTED, k, v));
+		SYS.LOG.info(MSG.MANIFEST_VALIDATED, l_jars.size(),
+		    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - l_start), rejected.size());
+	}
+
+	/**
+	 * Checks the OSGi headers of a manifest. A manifest without OSGi headers
+	 * describes a plain jar, which is installed without symbolic name.
+	 *
+	 * @param aManifest the headers of the jar
+	 * @return the symbolic name and version or the reason why the jar is invalid
+	 */
+	private static Header check(BundleManifest aManifest) {
+		String l_manifestVersion = aManifest.getHeader(Constants.BUNDLE_MANIFESTVERSION);
+		String l_name = aManifest.getHeader(Constants.BUNDLE_SYMBOLICNAME);
+		String l_version = aManifest.getHeader(Constants.BUNDLE_VERSION);
+
+		if (l_manifestVersion != null) {
+			try {
+				if (Integer.parseInt(l_manifestVersion.trim()) < 2) {
+					return invalid(Constants.BUNDLE_MANIFESTVERSION, l_manifestVersion);
+				}
+			} catch (NumberFormatException anEx) {
+				return invalid(Constants.BUNDLE_MANIFESTVERSION, l_manifestVersion);
+			}
+			if (l_name == null) {
+				return invalid(Constants.BUNDLE_SYMBOLICNAME, l_name);
+			}
+		}
+		if (l_name == null) {
+			return new Header(null, null, null);
+		}
+		String l_symbolicName = aManifest.getSymbolicName();
+
+		if (l_symbolicName.isEmpty()) {
+			return invalid(Constants.BUNDLE_SYMBOLICNAME, l_name);
+		}
+		try {
+			Version l_ver = Version.parseVersion(l_version);
+
+			return new Header(l_symbolicName, l_ver.toString(), null);
+		} catch (IllegalArgumentException anEx) {
+			return invalid(Constants.BUNDLE_VERSION, l_version);
+		}
+	}
+
+	/**
+	 * Detects jars with the same symbolic name and version as another jar or an
+	 * installed bundle that is neither uninstalled nor updated by the reconcile.
+	 * The jars are claimed in the priority order of their install areas. An
+	 * installed bundle of an area with a lower priority is replaced by the jar,
+	 * otherwise the jar is rejected.
+	 *
+	 * @param aDiff    the result of the comparison
+	 * @param aHeaders the headers of the jars to install and update
+	 */
+	private void collisions(InventoryDiff aDiff, Map<InventoryEntry, Header> aHeaders) {
+		Set<String> l_replaced = new HashSet<String>();
+		Map<String, String> l_owners = new HashMap<String, String>();
+		Map<String, Bundle> l_installed = new HashMap<String, Bundle>();
+		List<Area> l_areas = InstallArea.areas();
+		BundleContext l_ctx = XFramework.context();
+
+		aDiff.getUninstalls().forEach(e -> l_replaced.add(e.getLocation()));
+		aDiff.getUpdates().forEach(e -> l_replaced.add(e.getLocation()));
+
+		for (Bundle l_bundle : l_ctx.getBundles()) {
+			String l_location = BundleInventory.normalize(l_bundle.getLocation());
+
+			if (l_bundle.getSymbolicName() != null && !l_replaced.contains(l_location)) {
+				l_owners.put(key(l_bundle.getSymbolicName(), l_bundle.getVersion().toString()), l_location);
+				l_installed.put(l_location, l_bundle);
+			}
+		}
+		List<InventoryEntry> l_jars = new ArrayList<InventoryEntry>(aHeaders.keySet());
+
+		l_jars.sort(Comparator.comparingInt((InventoryEntry e) -> rank(l_areas, e.getLocation()))
+		    .thenComparing(InventoryEntry::getLocation));
+
+		for (InventoryEntry l_jar : l_jars) {
+			Header l_header = aHeaders.get(l_jar);
+
+			if (l_header.error != null || l_header.name == null) {
+				continue;
+			}
+			String l_key = key(l_header.name, l_header.version);
+			String l_owner = l_owners.putIfAbsent(l_key, l_jar.getLocation());
+
+			if (l_owner == null || l_owner.equals(l_jar.getLocation())) {
+				continue;
+			}
+			Bundle l_bundle = l_installed.get(l_owner);
+			int l_rank = rank(l_areas, l_owner);
+
+			if (l_bundle != null && l_rank < l_areas.size() && rank(l_areas, l_jar.getLocation()) < l_rank) {
+				aDiff.getUninstalls().add(InventoryEntry.of(l_owner, l_bundle));
+				l_owners.put(l_key, l_jar.getLocation());
+				SYS.LOG.info(MSG.AREA_OVERRIDE, l_jar.getLocation(), InstallArea.area(l_areas, l_jar.getLocation()),
+				    l_owner, l_areas.get(l_rank));
+			} else {
+				rejected.put(l_jar.getLocation(), BND.MANIFEST_DUPLICATE + " " + l_owner); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static Header invalid(String aHeader, String aValue) {
+		return new Header(null, null, BND.MANIFEST_INVALID + " " + aHeader + ": " + aValue); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @return <code>true</code> if the framework allows multiple bundles with the
+	 *         same symbolic name and version
+	 */
+	private static boolean isMultiple() {
+		String l_policy = XFramework.context().getProperty(Constants.FRAMEWORK_BSNVERSION);
+
+		return Constants.FRAMEWORK_BSNVERSION_MULTIPLE.equals(l_policy);
+	}
+
+	private static String key(String aName, String aVersion) {
+		return aName + ";" + aVersion; //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the position of the area of a location in the priority order, or
+	 *         the number of areas if the location isn't located in any area
+	 */
+	private static int rank(List<Area> anAreas, String aLocation) {
+		Area l_area = InstallArea.area(anAreas, aLocation);
+
+		return l_area == null ? anAreas.size() : anAreas.indexOf(l_area);
+	}
+
+	/**
+	 * Reads the manifest of a jar through the manifest index. A jar without
+	 * manifest is accepted as a plain jar.
+	 *
+	 * @param anIndex the manifest index
+	 * @param aJar    the jar to read
+	 * @return the symbolic name and version or the reason why the jar is invalid
+	 */
+	private static Header read(ManifestIndex anIndex, InventoryEntry aJar) {
+		try {
+			BundleManifest l_mf = anIndex.get(aJar);
+
+			return l_mf == null ? new Header(null, null, null) : check(l_mf);
+		} catch (IOException anEx) {
+			return new Header(null, null, BND.MANIFEST_UNREADABLE + ": " + anEx.getMessage()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * The identity of a bundle read from its manifest.
+	 */
+	private static class Header {
+
+		private final String error;
+		private final String name;
+		private final String version;
+
+		private Header(String aName, String aVersion, String anError) {
+			super();
+
+			name = aName;
+			version = aVersion;
+			error = anError;
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import biz.car.SYS;
+import biz.car.XRuntimeException;
+import biz.car.io.DirectoryWatcher;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+
+/**
+ * Watches an install area with the watch service of the file system.<br>
+ * Each directory of the area is registered with the watch service. A
+ * directory created later is registered together with its subtree as soon as
+ * its creation is reported, a deleted directory is released. If the watch
+ * service reports lost events for a directory, the subtree of the directory
+ * is registered again, so that directories created in the meantime are
+ * watched, and the overflow is passed on to the listener for a rescan of that
+ * directory.
+ *
+ * @version 2.0.0 17.10.2026 19:55:48
+ */
+public class NativeAreaWatcher extends AreaWatcher {
+
+	private final Set<Path> directories;
+	private final DirectoryWatcher watcher;
+
+	/**
+	 * Creates a new <code>NativeAreaWatcher</code> instance.
+	 *
+	 * @param anArea the name of the watched area
+	 */
+	public NativeAreaWatcher(String anArea) {
+		super(anArea);
+
+		directories = ConcurrentHashMap.newKeySet();
+		watcher = new DirectoryWatcher(BND.BUNDLE_WATCHER + " " + anArea); //$NON-NLS-1$
+	}
+
+	@Override
+	public String getMode() {
+		return VAL.watch;
+	}
+
+	@Override
+	public int getWatchedDirectories() {
+		return directories.size();
+	}
+
+	@Override
+	public void start() {
+		watcher.start();
+		SYS.LOG.info(MSG.BUNDLE_WATCHER_STARTED, getArea(), getMode(), directories.size());
+	}
+
+	@Override
+	public void stop() {
+		watcher.stop();
+		directories.clear();
+		SYS.LOG.info(MSG.BUNDLE_WATCHER_STOPPED, getArea());
+	}
+
+	@Override
+	protected void watch(Path aPath) {
+		List<Path> l_dirs;
+
+		try (Stream<Path> l_walk = Files.walk(aPath)) {
+			l_dirs = l_walk.filter(Files::isDirectory).collect(Collectors.toList());
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+		for (Path l_dir : l_dirs) {
+			if (directories.add(l_dir)) {
+				watcher.register(l_dir, this::onEvent);
+			}
+		}
+	}
+
+	/**
+	 * Keeps the registrations in line with the directories of the install area
+	 * and passes the events on to the listener.
+	 *
+	 * @param aPath   the directory
+	 * @param aEvents the events of the directory
+	 */
+	private void onEvent(Path aPath, List<WatchEvent<?>> aEvents) {
+		for (WatchEvent<?> l_event : aEvents) {
+			Kind<?> l_kind = l_event.kind();
+
+			try {
+				if (l_kind == StandardWatchEventKinds.OVERFLOW) {
+					rescanned();
+					watch(aPath);
+				} else if (l_kind == StandardWatchEventKinds.ENTRY_CREATE) {
+					Path l_path = aPath.resolve((Path) l_event.context());
+
+					if (Files.isDirectory(l_path)) {
+						watch(l_path);
+					}
+				} else if (l_kind == StandardWatchEventKinds.ENTRY_DELETE) {
+					Path l_path = aPath.resolve((Path) l_event.context());
+
+					directories.removeIf(p -> p.startsWith(l_path));
+				}
+			} catch (XRuntimeException anEx) {
+				// already logged, the directory is picked up by the next rescan
+			}
+		}
+		dispatch(aPath, aEvents);
+	}
+}
@@ -0,0 +1,307 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import static biz.car.CAR._jar;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+
+/**
+ * Watches an install area by polling the modification times of its
+ * directories.<br>
+ * Creating, deleting or renaming an entry changes the modification time of its
+ * directory, so that a poll only reads the modification time of each known
+ * directory. The entries of a directory are only listed if its modification
+ * time has changed, and compared with the previous listing by size and
+ * modification time. The differences are reported as synthetic watch events.
+ * A directory modified shortly before a poll is listed again at the next poll,
+ * since the resolution of the modification time may hide a second change
+ * within the same tick.<br>
+ * A jar overwritten in place doesn't change its directory. Therefore the size
+ * and modification time of the known jars of an unchanged directory are read
+ * on each poll as well, without listing the directory.
+ *
+ * @version 2.0.0 17.10.2026 20:12:14
+ */
+public class PollingAreaWatcher extends AreaWatcher {
+
+	private static final long DIRECTORY = -1L;
+	private static final long RACY = 2000L;
+
+	private final Map<Path, Listing> directories;
+	private ScheduledExecutorService executor;
+	private final long interval;
+
+	/**
+	 * Creates a new <code>PollingAreaWatcher</code> instance. The poll interval
+	 * is read from the framework properties.
+	 *
+	 * @param anArea the name of the watched area
+	 */
+	public PollingAreaWatcher(String anArea) {
+		super(anArea);
+
+		directories = new ConcurrentHashMap<Path, Listing>();
+		interval = FrameworkProperty.getPeriod(VAL.framework_hotdeploy_pollInterval, "2s"); //$NON-NLS-1$
+	}
+
+	@Override
+	public String getMode() {
+		return VAL.poll;
+	}
+
+	@Override
+	public int getWatchedDirectories() {
+		return directories.size();
+	}
+
+	@Override
+	public void start() {
+		executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread l_ret = new Thread(r, BND.BUNDLE_WATCHER + " " + getArea()); //$NON-NLS-1$
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		});
+		executor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+		SYS.LOG.info(MSG.BUNDLE_WATCHER_STARTED, getArea(), getMode(), directories.size());
+	}
+
+	@Override
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		directories.clear();
+		SYS.LOG.info(MSG.BUNDLE_WATCHER_STOPPED, getArea());
+	}
+
+	@Override
+	protected void watch(Path aPath) {
+		Listing l_listing = list(aPath);
+
+		directories.put(aPath, l_listing);
+
+		l_listing.entries.forEach((k, v) -> {
+			if (v == DIRECTORY) {
+				watch(aPath.resolve(k));
+			}
+		});
+	}
+
+	/**
+	 * Compares two listings of a directory. Created subdirectories are watched,
+	 * deleted subdirectories are released.
+	 *
+	 * @param aPath the directory
+	 * @param anOld the previous listing
+	 * @param aNew  the current listing
+	 * @return the differences as watch events
+	 */
+	private List<WatchEvent<?>> diff(Path aPath, Listing anOld, Listing aNew) {
+		List<WatchEvent<?>> l_ret = new ArrayList<WatchEvent<?>>();
+
+		aNew.entries.forEach((k, v) -> {
+			Long l_old = anOld.entries.get(k);
+
+			if (l_old == null) {
+				l_ret.add(new PollEvent(StandardWatchEventKinds.ENTRY_CREATE, k));
+
+				if (v == DIRECTORY) {
+					watch(aPath.resolve(k));
+				}
+			} else if (!l_old.equals(v)) {
+				l_ret.add(new PollEvent(StandardWatchEventKinds.ENTRY_MODIFY, k));
+			}
+		});
+		anOld.entries.keySet().stream().filter(k -> !aNew.entries.containsKey(k)).forEach(k -> {
+			Path l_path = aPath.resolve(k);
+
+			l_ret.add(new PollEvent(StandardWatchEventKinds.ENTRY_DELETE, k));
+			directories.keySet().removeIf(p -> p.startsWith(l_path));
+		});
+		return l_ret;
+	}
+
+	/**
+	 * Lists the entries of a directory with their size and modification time.
+	 *
+	 * @param aPath the directory
+	 * @return the listing, empty if the directory can't be read
+	 */
+	private static Listing list(Path aPath) {
+		Map<String, Long> l_entries = new HashMap<String, Long>();
+		long l_modified = 0L;
+
+		try (DirectoryStream<Path> l_stream = Files.newDirectoryStream(aPath)) {
+			l_modified = Files.getLastModifiedTime(aPath).toMillis();
+
+			for (Path l_path : l_stream) {
+				try {
+					l_entries.put(l_path.getFileName().toString(), stamp(l_path));
+				} catch (IOException anEx) {
+					// deleted while listing
+				}
+			}
+		} catch (IOException anEx) {
+			// deleted or not readable, reported by the parent directory
+		}
+		return new Listing(l_modified, l_entries);
+	}
+
+	/**
+	 * Checks the modification time of each known directory and reports the
+	 * changes of the modified directories and the overwritten jars of the
+	 * unchanged directories.
+	 */
+	private void poll() {
+		try {
+			for (Path l_dir : new ArrayList<Path>(directories.keySet())) {
+				Listing l_old = directories.get(l_dir);
+
+				if (l_old == null || !Files.isDirectory(l_dir)) {
+					continue;
+				}
+				long l_modified = Files.getLastModifiedTime(l_dir).toMillis();
+
+				if (l_modified == l_old.modified && !l_old.isRacy()) {
+					dispatch(l_dir, stat(l_dir, l_old));
+					continue;
+				}
+				Listing l_new = list(l_dir);
+
+				directories.put(l_dir, l_new);
+				dispatch(l_dir, diff(l_dir, l_old, l_new));
+			}
+		} catch (Exception anEx) {
+			SYS.LOG.error(anEx);
+		}
+	}
+
+	/**
+	 * Reads the size and modification time of an entry.
+	 *
+	 * @param aPath the entry
+	 * @return the stamp of a file, {@link #DIRECTORY} for a directory
+	 * @throws IOException if the entry can't be read
+	 */
+	private static long stamp(Path aPath) throws IOException {
+		BasicFileAttributes l_attrs = Files.readAttributes(aPath, BasicFileAttributes.class);
+
+		return l_attrs.isDirectory() ? DIRECTORY : 31 * l_attrs.lastModifiedTime().toMillis() + l_attrs.size();
+	}
+
+	/**
+	 * Compares the jars of an unchanged directory with their listing. The
+	 * listing is updated with the jars overwritten in place. Deleted jars are
+	 * left to the next listing of the directory.
+	 *
+	 * @param aPath    the directory
+	 * @param aListing the listing of the directory
+	 * @return the overwritten jars as watch events
+	 */
+	private static List<WatchEvent<?>> stat(Path aPath, Listing aListing) {
+		List<WatchEvent<?>> l_ret = new ArrayList<WatchEvent<?>>();
+
+		for (Map.Entry<String, Long> l_entry : aListing.entries.entrySet()) {
+			String l_name = l_entry.getKey();
+
+			if (l_entry.getValue() == DIRECTORY || !l_name.endsWith(_jar)) {
+				continue;
+			}
+			try {
+				long l_stamp = stamp(aPath.resolve(l_name));
+
+				if (l_stamp != l_entry.getValue()) {
+					l_entry.setValue(l_stamp);
+					l_ret.add(new PollEvent(StandardWatchEventKinds.ENTRY_MODIFY, l_name));
+				}
+			} catch (IOException anEx) {
+				// deleted, reported by the listing of the directory
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * The entries of a directory at the time of a poll.
+	 */
+	private static class Listing {
+
+		private final Map<String, Long> entries;
+		private final long listed;
+		private final long modified;
+
+		private Listing(long aModified, Map<String, Long> anEntries) {
+			super();
+
+			entries = anEntries;
+			listed = System.currentTimeMillis();
+			modified = aModified;
+		}
+
+		/**
+		 * @return <code>true</code> if the directory was modified shortly before
+		 *         it was listed
+		 */
+		private boolean isRacy() {
+			return listed - modified < RACY;
+		}
+	}
+
+	/**
+	 * A synthetic watch event for a change found by a poll.
+	 */
+	private static class PollEvent implements WatchEvent<Path> {
+
+		private final Path context;
+		private final Kind<Path> kind;
+
+		private PollEvent(Kind<Path> aKind, String aName) {
+			super();
+
+			context = Path.of(aName);
+			kind = aKind;
+		}
+
+		@Override
+		public Path context() {
+			return context;
+		}
+
+		@Override
+		public int count() {
+			return 1;
+		}
+
+		@Override
+		public Kind<Path> kind() {
+			return kind;
+		}
+	}
+}
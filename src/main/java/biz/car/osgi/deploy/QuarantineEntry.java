@@ -0,0 +1,118 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+/**
+ * The record of a quarantined location in the <code>BundleQuarantine</code>.
+ * The location stays quarantined as long as its jar has the recorded content
+ * hash. The hash is recorded after the quarantine, until then it is empty.
+ *
+ * @version 2.0.0 17.10.2026 20:18:02
+ */
+public class QuarantineEntry {
+
+	private final int failures;
+	private final String hash;
+	private final String location;
+	private final String reason;
+	private final long since;
+
+	/**
+	 * Creates a new <code>QuarantineEntry</code> instance.
+	 *
+	 * @param aLocation the normalized location
+	 * @param aHash     the content hash of the jar at the time of the quarantine
+	 *                  or an empty string if it is not yet computed
+	 * @param aFailures the number of failed starts
+	 * @param aSince    the time of the quarantine in milliseconds
+	 * @param aReason   the message of the last failed start
+	 */
+	public QuarantineEntry(String aLocation, String aHash, int aFailures, long aSince, String aReason) {
+		super();
+
+		location = aLocation;
+		hash = aHash;
+		failures = aFailures;
+		since = aSince;
+		reason = aReason;
+	}
+
+	/**
+	 * Restores an entry from its persisted value.
+	 *
+	 * @param aLocation the normalized location
+	 * @param aValue    the value written by <code>value()</code>
+	 * @return the entry or <code>null</code> if the value is malformed
+	 */
+	static QuarantineEntry parse(String aLocation, String aValue) {
+		String[] l_parts = aValue.split(",", 4); //$NON-NLS-1$
+
+		if (l_parts.length != 4) {
+			return null;
+		}
+		try {
+			return new QuarantineEntry(aLocation, l_parts[0], Integer.parseInt(l_parts[1]),
+			    Long.parseLong(l_parts[2]), l_parts[3]);
+		} catch (NumberFormatException anEx) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the number of failed starts before the quarantine
+	 */
+	public int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the content hash of the quarantined jar
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	/**
+	 * @return the normalized location
+	 */
+	public String getLocation() {
+		return location;
+	}
+
+	/**
+	 * @return the message of the last failed start
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return the time of the quarantine in milliseconds
+	 */
+	public long getSince() {
+		return since;
+	}
+
+	/**
+	 * @return <code>true</code> if the content hash is not yet computed
+	 */
+	public boolean isPending() {
+		return hash.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return location;
+	}
+
+	/**
+	 * @return the persisted value of the entry
+	 */
+	String value() {
+		return hash + "," + failures + "," + since + "," + reason; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
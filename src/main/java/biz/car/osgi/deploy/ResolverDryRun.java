@@ -0,0 +1,648 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Namespace;
+import org.osgi.resource.Requirement;
+import org.osgi.resource.Resource;
+import org.osgi.resource.Wire;
+import org.osgi.resource.Wiring;
+import org.osgi.service.resolver.HostedCapability;
+import org.osgi.service.resolver.ResolutionException;
+import org.osgi.service.resolver.ResolveContext;
+import org.osgi.service.resolver.Resolver;
+
+import biz.car.SYS;
+import biz.car.XLogger;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.framework.FrameworkProperty;
+import biz.car.osgi.framework.XFramework;
+
+/**
+ * Runs the resolver of the framework against the planned bundle set of a hot
+ * deployment, before any bundle is installed or updated.<br>
+ * The jars to install and update are staged as resources built from their
+ * manifests. The bundles outside the dependency closure of the updated and
+ * uninstalled bundles keep their wiring, the bundles of
+ * the closure are resolved again together with the staged jars. A jar that
+ * wouldn't resolve is skipped, so that a failed deployment costs a resolve in
+ * memory instead of an install and a refresh of the framework. If an update
+ * would leave a resolved bundle of the closure unresolved, the updates of the
+ * plan are skipped. In the mode <code>reject</code> the installs and updates
+ * of the whole plan are skipped instead. Uninstalls are never skipped, since
+ * their jars are gone.<br>
+ * The wiring impact, i.e. the bundles of the closure that would be wired to
+ * other providers, is reported together with the skipped jars. The report of
+ * the last dry run is kept for the shell. The dry run only takes place while
+ * the framework is active; at startup the framework resolves the jars as
+ * usual.
+ *
+ * @version 2.0.0 17.10.2026 20:17:30
+ */
+public class ResolverDryRun {
+
+	private static volatile List<String> last = Collections.emptyList();
+
+	private int closure;
+	private final String mode;
+	private final Map<String, String> rejected;
+	private final List<String> rewired;
+
+	/**
+	 * Creates a default <code>ResolverDryRun</code> instance.
+	 */
+	public ResolverDryRun() {
+		super();
+
+		closure = 0;
+		mode = FrameworkProperty.getString(VAL.framework_hotdeploy_dryRun, VAL.skip).trim();
+		rejected = new TreeMap<String, String>();
+		rewired = new ArrayList<String>();
+	}
+
+	/**
+	 * @return the report of the last dry run, empty if no dry run took place
+	 */
+	public static List<String> report() {
+		return last;
+	}
+
+	/**
+	 * @return the locations of the skipped jars and the reason why they were
+	 *         skipped
+	 */
+	public Map<String, String> getRejected() {
+		return Collections.unmodifiableMap(rejected);
+	}
+
+	/**
+	 * @return the bundles that would be wired to other providers
+	 */
+	public List<String> getRewired() {
+		return Collections.unmodifiableList(rewired);
+	}
+
+	/**
+	 * Resolves the planned bundle set and removes the jars that would break the
+	 * resolution from the comparison result.
+	 *
+	 * @param aDiff the result of the comparison between install area and bundle
+	 *              storage, already validated
+	 */
+	public void run(InventoryDiff aDiff) {
+		BundleContext l_ctx = XFramework.context();
+
+		if (VAL.off.equals(mode) || aDiff.getInstalls().isEmpty() && aDiff.getUpdates().isEmpty()
+		    || l_ctx.getBundle(0).getState() != Bundle.ACTIVE) {
+			return;
+		}
+		ServiceReference<Resolver> l_ref = l_ctx.getServiceReference(Resolver.class);
+
+		if (l_ref == null) {
+			return;
+		}
+		long l_start = System.nanoTime();
+		int l_jars = aDiff.getInstalls().size() + aDiff.getUpdates().size();
+
+		try {
+			Resolver l_resolver = l_ctx.getService(l_ref);
+
+			if (l_resolver != null) {
+				resolve(l_resolver, aDiff, stage(aDiff));
+			}
+		} finally {
+			l_ctx.ungetService(l_ref);
+		}
+		aDiff.getInstalls().removeIf(e -> rejected.containsKey(e.getLocation()));
+		aDiff.getUpdates().removeIf(e -> rejected.containsKey(e.getLocation()));
+
+		long l_millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - l_start);
+		List<String> l_report = new ArrayList<String>();
+
+		l_report.add(XLogger.format(MSG.DRY_RUN_REPORT, l_jars, l_millis, closure, rewired.size(),
+		    String.join(", ", rewired), rejected.size()));
+		rejected.forEach((k, v) -> l_report.add(XLogger.format(MSG.DRY_RUN_SKIPPED, k, v)));
+		last = Collections.unmodifiableList(l_report);
+
+		rejected.forEach((k, v) -> SYS.LOG.warn(MSG.DRY_RUN_SKIPPED, k, v));
+		SYS.LOG.info(MSG.DRY_RUN_REPORT, l_jars, l_millis, closure, rewired.size(), String.join(", ", rewired),
+		    rejected.size());
+	}
+
+	/**
+	 * Describes a bundle for the report.
+	 *
+	 * @param aBundle the bundle
+	 * @return the symbolic name or the location of a bundle without symbolic name
+	 */
+	private static String name(Bundle aBundle) {
+		return aBundle.getSymbolicName() == null ? aBundle.getLocation() : aBundle.getSymbolicName();
+	}
+
+	/**
+	 * Builds the resolve context of the plan.
+	 *
+	 * @param aRemoved the locations of the bundles removed by the plan
+	 * @param aStaged  the staged jars of the plan
+	 * @return the context
+	 */
+	private Plan plan(Set<String> aRemoved, List<Staged> aStaged) {
+		FrameworkWiring l_fw = XFramework.context().getBundle(0).adapt(FrameworkWiring.class);
+		Set<Bundle> l_removed = new HashSet<Bundle>();
+		Set<Bundle> l_gone = new HashSet<Bundle>();
+
+		for (Bundle l_bundle : XFramework.context().getBundles()) {
+			if (aRemoved.contains(BundleInventory.normalize(l_bundle.getLocation()))) {
+				l_removed.add(l_bundle);
+				l_gone.add(l_bundle);
+			}
+		}
+		Collection<Bundle> l_closure = l_fw.getDependencyClosure(l_removed);
+		Plan l_ret = new Plan();
+
+		for (Bundle l_bundle : XFramework.context().getBundles()) {
+			BundleRevision l_rev = l_bundle.adapt(BundleRevision.class);
+
+			if (l_rev == null || l_gone.contains(l_bundle)) {
+				continue;
+			}
+			BundleWiring l_wiring = l_rev.getWiring();
+			boolean l_fragment = (l_rev.getTypes() & BundleRevision.TYPE_FRAGMENT) != 0;
+
+			if (l_closure.contains(l_bundle)) {
+				l_ret.add(l_rev, l_rev.getCapabilities(null), l_wiring != null && !l_fragment);
+				l_ret.bundles.put(l_rev, l_bundle);
+			} else if (l_wiring != null) {
+				l_ret.wirings.put(l_rev, l_wiring);
+				l_ret.index(l_rev, l_wiring.getResourceCapabilities(null));
+			} else {
+				l_ret.add(l_rev, l_rev.getCapabilities(null), false);
+			}
+		}
+		aStaged.forEach(s -> l_ret.add(s, s.capabilities, false));
+		return l_ret;
+	}
+
+	/**
+	 * Extracts the first line of the message of a failed resolution.
+	 *
+	 * @param anEx the failure
+	 * @return the reason
+	 */
+	private static String reason(ResolutionException anEx) {
+		return String.valueOf(anEx.getMessage()).split("\\R")[0]; //$NON-NLS-1$
+	}
+
+	/**
+	 * Skips all installs and updates of the plan that aren't skipped yet.
+	 *
+	 * @param aStaged the staged jars
+	 * @param aReason the reason
+	 */
+	private void rejectAll(List<Staged> aStaged, String aReason) {
+		aStaged.forEach(s -> rejected.putIfAbsent(s.entry.getLocation(), aReason));
+	}
+
+	/**
+	 * Resolves the plan until it is stable. Each round either resolves all
+	 * staged jars and the bundles of the closure or skips at least one jar.
+	 *
+	 * @param aResolver the resolver of the framework
+	 * @param aDiff     the comparison result
+	 * @param aStaged   the staged jars
+	 */
+	private void resolve(Resolver aResolver, InventoryDiff aDiff, List<Staged> aStaged) {
+		boolean l_reject = VAL.reject.equals(mode);
+
+		while (true) {
+			List<Staged> l_staged = aStaged.stream().filter(s -> !rejected.containsKey(s.entry.getLocation()))
+			    .collect(Collectors.toList());
+			Set<String> l_removed = new HashSet<String>();
+
+			aDiff.getUninstalls().forEach(e -> l_removed.add(BundleInventory.normalize(e.getLocation())));
+			l_staged.stream().filter(s -> s.update)
+			    .forEach(s -> l_removed.add(BundleInventory.normalize(s.entry.getLocation())));
+
+			Plan l_plan = plan(l_removed, l_staged);
+
+			try {
+				Map<Resource, List<Wire>> l_wires = aResolver.resolve(l_plan);
+				List<Staged> l_failed = l_staged.stream().filter(s -> !s.fragment && !l_wires.containsKey(s))
+				    .collect(Collectors.toList());
+
+				if (l_failed.isEmpty()) {
+					closure = l_plan.bundles.size();
+					rewired.addAll(l_plan.rewired(l_wires));
+					return;
+				}
+				for (Staged l_jar : l_failed) {
+					rejected.put(l_jar.entry.getLocation(), l_plan.explain(aResolver, l_jar));
+				}
+				if (l_reject) {
+					rejectAll(l_staged, BND.DRY_RUN_REJECTED);
+					return;
+				}
+			} catch (ResolutionException anEx) {
+				List<Staged> l_updates = l_staged.stream().filter(s -> s.update).collect(Collectors.toList());
+
+				if (l_reject) {
+					rejectAll(l_staged, reason(anEx));
+					return;
+				}
+				if (l_updates.isEmpty()) {
+					SYS.LOG.warn(MSG.DRY_RUN_UNINSTALLS, aDiff.getUninstalls().size(), reason(anEx));
+					return;
+				}
+				rejectAll(l_updates, reason(anEx));
+			}
+		}
+	}
+
+	/**
+	 * Stages the jars to install and update. A jar whose manifest can't be
+	 * turned into a resource is skipped.
+	 *
+	 * @param aDiff the comparison result
+	 * @return the staged jars
+	 */
+	private List<Staged> stage(InventoryDiff aDiff) {
+		List<Staged> l_ret = new ArrayList<Staged>();
+
+		for (InventoryEntry l_entry : aDiff.getInstalls()) {
+			stage(l_entry, false, l_ret);
+		}
+		for (InventoryEntry l_entry : aDiff.getUpdates()) {
+			stage(l_entry, true, l_ret);
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Stages a jar.
+	 *
+	 * @param anEntry the jar
+	 * @param anUpdate <code>true</code> if the jar updates an installed bundle
+	 * @param aResult receives the staged jar
+	 */
+	private void stage(InventoryEntry anEntry, boolean anUpdate, List<Staged> aResult) {
+		try {
+			Map<String, String> l_headers = BundleManifest.headers(anEntry.toFile());
+			ResourceBuilder l_builder = new ResourceBuilder(l_headers == null ? Collections.emptyMap() : l_headers);
+
+			aResult.add(new Staged(anEntry, anUpdate, l_builder));
+		} catch (IOException | IllegalArgumentException anEx) {
+			rejected.put(anEntry.getLocation(), String.valueOf(anEx.getMessage()));
+		}
+	}
+
+	/**
+	 * A requirement or capability of a staged jar.
+	 */
+	private static class Clause {
+
+		private final Map<String, Object> attributes;
+		private final Map<String, String> directives;
+		private final String namespace;
+		private final Staged resource;
+
+		private Clause(Staged aResource, ResourceBuilder.Info anInfo) {
+			super();
+
+			attributes = anInfo.getAttributes();
+			directives = anInfo.getDirectives();
+			namespace = anInfo.getNamespace();
+			resource = aResource;
+		}
+
+		public Map<String, Object> getAttributes() {
+			return attributes;
+		}
+
+		public Map<String, String> getDirectives() {
+			return directives;
+		}
+
+		public String getNamespace() {
+			return namespace;
+		}
+
+		public Resource getResource() {
+			return resource;
+		}
+
+		@Override
+		public String toString() {
+			return namespace + attributes;
+		}
+	}
+
+	/**
+	 * The resolve context of a plan: the wirings of the bundles outside the
+	 * closure and the capabilities of all resources, indexed by namespace and
+	 * by name.
+	 */
+	private static class Plan extends ResolveContext {
+
+		private final Map<BundleRevision, Bundle> bundles;
+		private final Set<Resource> mandatory;
+		private final Set<Resource> optional;
+		private final Map<String, Pattern> patterns;
+		private final Map<String, List<Capability>> providers;
+		private final Map<Resource, Wiring> wirings;
+
+		private Plan() {
+			super();
+
+			bundles = new HashMap<BundleRevision, Bundle>();
+			mandatory = new LinkedHashSet<Resource>();
+			optional = new LinkedHashSet<Resource>();
+			patterns = new ConcurrentHashMap<String, Pattern>();
+			providers = new HashMap<String, List<Capability>>();
+			wirings = new HashMap<Resource, Wiring>();
+		}
+
+		private Plan(Plan aPlan, Resource aMandatory) {
+			super();
+
+			bundles = aPlan.bundles;
+			mandatory = new LinkedHashSet<Resource>(aPlan.mandatory);
+			optional = new LinkedHashSet<Resource>(aPlan.optional);
+			patterns = aPlan.patterns;
+			providers = aPlan.providers;
+			wirings = aPlan.wirings;
+
+			optional.remove(aMandatory);
+			mandatory.add(aMandatory);
+		}
+
+		@Override
+		public List<Capability> findProviders(Requirement aRequirement) {
+			String l_namespace = aRequirement.getNamespace();
+			String l_filter = aRequirement.getDirectives().get(Namespace.REQUIREMENT_FILTER_DIRECTIVE);
+			List<Capability> l_ret = new ArrayList<Capability>();
+
+			if (l_filter == null) {
+				l_ret.addAll(providers.getOrDefault(l_namespace, Collections.emptyList()));
+				return l_ret;
+			}
+			Filter l_match;
+
+			try {
+				l_match = FrameworkUtil.createFilter(l_filter);
+			} catch (InvalidSyntaxException anEx) {
+				return l_ret;
+			}
+			String l_key = l_namespace;
+
+			if (!l_filter.contains("(|") && !l_filter.contains("(!")) { //$NON-NLS-1$ //$NON-NLS-2$
+				Matcher l_name = patterns.computeIfAbsent(l_namespace,
+				    n -> Pattern.compile("\\(" + Pattern.quote(n) + "=([^()*\\\\]+)\\)")).matcher(l_filter); //$NON-NLS-1$ //$NON-NLS-2$
+
+				if (l_name.find()) {
+					l_key = l_namespace + "=" + l_name.group(1); //$NON-NLS-1$
+				}
+			}
+			for (Capability l_cap : providers.getOrDefault(l_key, Collections.emptyList())) {
+				if (l_match.matches(l_cap.getAttributes())) {
+					l_ret.add(l_cap);
+				}
+			}
+			return l_ret;
+		}
+
+		@Override
+		public Collection<Resource> getMandatoryResources() {
+			return mandatory;
+		}
+
+		@Override
+		public Collection<Resource> getOptionalResources() {
+			return optional;
+		}
+
+		@Override
+		public Map<Resource, Wiring> getWirings() {
+			return wirings;
+		}
+
+		@Override
+		public int insertHostedCapability(List<Capability> aCapabilities, HostedCapability aHostedCapability) {
+			aCapabilities.add(aHostedCapability);
+			return aCapabilities.size() - 1;
+		}
+
+		@Override
+		public boolean isEffective(Requirement aRequirement) {
+			String l_effective = aRequirement.getDirectives().get(Namespace.REQUIREMENT_EFFECTIVE_DIRECTIVE);
+
+			return l_effective == null || Namespace.EFFECTIVE_RESOLVE.equals(l_effective);
+		}
+
+		/**
+		 * Adds a resource to resolve.
+		 *
+		 * @param aResource     the resource
+		 * @param aCapabilities the capabilities of the resource
+		 * @param aMandatory    <code>true</code> if the resource must resolve
+		 */
+		private void add(Resource aResource, List<Capability> aCapabilities, boolean aMandatory) {
+			(aMandatory ? mandatory : optional).add(aResource);
+			index(aResource, aCapabilities);
+		}
+
+		/**
+		 * Resolves the plan with a jar as mandatory resource to find out why it
+		 * doesn't resolve.
+		 *
+		 * @param aResolver the resolver
+		 * @param aJar      the jar
+		 * @return the reason
+		 */
+		private String explain(Resolver aResolver, Staged aJar) {
+			try {
+				aResolver.resolve(new Plan(this, aJar));
+			} catch (ResolutionException anEx) {
+				return reason(anEx);
+			}
+			return BND.DRY_RUN_UNRESOLVED;
+		}
+
+		/**
+		 * Indexes the effective capabilities of a resource.
+		 *
+		 * @param aResource     the resource
+		 * @param aCapabilities the capabilities
+		 */
+		private void index(Resource aResource, List<Capability> aCapabilities) {
+			for (Capability l_cap : aCapabilities) {
+				String l_effective = l_cap.getDirectives().get(Namespace.CAPABILITY_EFFECTIVE_DIRECTIVE);
+
+				if (l_effective != null && !Namespace.EFFECTIVE_RESOLVE.equals(l_effective)) {
+					continue;
+				}
+				String l_namespace = l_cap.getNamespace();
+				Object l_name = l_cap.getAttributes().get(l_namespace);
+
+				providers.computeIfAbsent(l_namespace, k -> new ArrayList<Capability>()).add(l_cap);
+
+				if (l_name instanceof String) {
+					providers.computeIfAbsent(l_namespace + "=" + l_name, k -> new ArrayList<Capability>()).add(l_cap); //$NON-NLS-1$
+				} else if (l_name instanceof List) {
+					for (Object l_alias : (List<?>) l_name) {
+						providers.computeIfAbsent(l_namespace + "=" + l_alias, k -> new ArrayList<Capability>()) //$NON-NLS-1$
+						    .add(l_cap);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Describes the provider of a wire by its location.
+		 *
+		 * @param aResource the providing resource
+		 * @return the normalized location
+		 */
+		private String provider(Resource aResource) {
+			if (aResource instanceof Staged) {
+				return BundleInventory.normalize(((Staged) aResource).entry.getLocation());
+			}
+			if (aResource instanceof BundleRevision) {
+				return BundleInventory.normalize(((BundleRevision) aResource).getBundle().getLocation());
+			}
+			return String.valueOf(aResource);
+		}
+
+		/**
+		 * Compares the providers of the resolved bundles of the closure before and
+		 * after the plan.
+		 *
+		 * @param aWires the wires of the dry run
+		 * @return the bundles wired to other providers, sorted by name
+		 */
+		private List<String> rewired(Map<Resource, List<Wire>> aWires) {
+			Set<String> l_ret = new TreeSet<String>();
+
+			bundles.forEach((k, v) -> {
+				BundleWiring l_wiring = k.getWiring();
+				List<Wire> l_wires = aWires.get(k);
+
+				if (l_wiring == null || l_wires == null) {
+					return;
+				}
+				Set<String> l_old = new HashSet<String>();
+				Set<String> l_new = new HashSet<String>();
+
+				l_wiring.getRequiredResourceWires(null).forEach(w -> l_old.add(provider(w.getProvider())));
+				l_wires.forEach(w -> l_new.add(provider(w.getProvider())));
+				l_old.remove(provider(k));
+				l_new.remove(provider(k));
+
+				if (!l_old.equals(l_new)) {
+					l_ret.add(name(v));
+				}
+			});
+			return new ArrayList<String>(l_ret);
+		}
+	}
+
+	/**
+	 * A jar of the plan, staged as resource.
+	 */
+	private static class Staged implements Resource {
+
+		private final List<Capability> capabilities;
+		private final InventoryEntry entry;
+		private final boolean fragment;
+		private final List<Requirement> requirements;
+		private final boolean update;
+
+		private Staged(InventoryEntry anEntry, boolean anUpdate, ResourceBuilder aBuilder) {
+			super();
+
+			capabilities = new ArrayList<Capability>();
+			entry = anEntry;
+			fragment = aBuilder.isFragment();
+			requirements = new ArrayList<Requirement>();
+			update = anUpdate;
+
+			aBuilder.getCapabilities().forEach(i -> capabilities.add(new StagedCapability(this, i)));
+			aBuilder.getRequirements().forEach(i -> requirements.add(new StagedRequirement(this, i)));
+		}
+
+		@Override
+		public List<Capability> getCapabilities(String aNamespace) {
+			return aNamespace == null ? capabilities
+			    : capabilities.stream().filter(c -> aNamespace.equals(c.getNamespace())).collect(Collectors.toList());
+		}
+
+		@Override
+		public List<Requirement> getRequirements(String aNamespace) {
+			return aNamespace == null ? requirements
+			    : requirements.stream().filter(r -> aNamespace.equals(r.getNamespace())).collect(Collectors.toList());
+		}
+
+		@Override
+		public String toString() {
+			return entry.getLocation();
+		}
+	}
+
+	/**
+	 * A capability of a staged jar.
+	 */
+	private static class StagedCapability extends Clause implements Capability {
+
+		private StagedCapability(Staged aResource, ResourceBuilder.Info anInfo) {
+			super(aResource, anInfo);
+		}
+	}
+
+	/**
+	 * A requirement of a staged jar.
+	 */
+	private static class StagedRequirement extends Clause implements Requirement {
+
+		private StagedRequirement(Staged aResource, ResourceBuilder.Info anInfo) {
+			super(aResource, anInfo);
+		}
+
+		@Override
+		public String toString() {
+			return getNamespace() + "; " + getDirectives(); //$NON-NLS-1$
+		}
+	}
+}
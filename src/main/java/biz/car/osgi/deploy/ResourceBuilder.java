@@ -0,0 +1,538 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.Constants;
+import org.osgi.framework.Version;
+import org.osgi.framework.VersionRange;
+import org.osgi.framework.namespace.AbstractWiringNamespace;
+import org.osgi.framework.namespace.BundleNamespace;
+import org.osgi.framework.namespace.HostNamespace;
+import org.osgi.framework.namespace.IdentityNamespace;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.resource.Namespace;
+
+/**
+ * Builds the capabilities and requirements of a jar from the headers of its
+ * manifest, as the framework would do when the jar is installed.<br>
+ * The builder covers the headers that take part in the resolve of a bundle:
+ * the identity of the bundle, the fragment host, the exported and imported
+ * packages, the required bundles and the generic capabilities and
+ * requirements. Dynamic imports, native code and the required execution
+ * environment are left out. A jar without OSGi headers has neither
+ * capabilities nor requirements.
+ *
+ * @version 2.0.0 17.10.2026 20:17:30
+ */
+public class ResourceBuilder {
+
+	private static final String SPECIFICATION_VERSION = "specification-version"; //$NON-NLS-1$
+	private static final String TYPE_DOUBLE = "Double"; //$NON-NLS-1$
+	private static final String TYPE_LIST = "List"; //$NON-NLS-1$
+	private static final String TYPE_LONG = "Long"; //$NON-NLS-1$
+	private static final String TYPE_STRING = "String"; //$NON-NLS-1$
+	private static final String TYPE_VERSION = "Version"; //$NON-NLS-1$
+
+	private final List<Info> capabilities;
+	private final boolean fragment;
+	private final List<Info> requirements;
+
+	/**
+	 * Creates a <code>ResourceBuilder</code> for the given manifest headers.
+	 *
+	 * @param aHeaders the main attributes of the manifest
+	 * @throws IllegalArgumentException if a header is not valid
+	 */
+	public ResourceBuilder(Map<String, String> aHeaders) {
+		super();
+
+		capabilities = new ArrayList<Info>();
+		fragment = aHeaders.get(Constants.FRAGMENT_HOST) != null;
+		requirements = new ArrayList<Info>();
+
+		String l_bsn = null;
+		Version l_version = Version.parseVersion(aHeaders.get(Constants.BUNDLE_VERSION));
+		List<Clause> l_clauses = Clause.parse(aHeaders.get(Constants.BUNDLE_SYMBOLICNAME));
+
+		if (!l_clauses.isEmpty()) {
+			l_bsn = l_clauses.get(0).paths.get(0);
+			identity(l_bsn, l_version, l_clauses.get(0));
+		}
+		host(aHeaders.get(Constants.FRAGMENT_HOST));
+		exports(aHeaders.get(Constants.EXPORT_PACKAGE), l_bsn, l_version, isLegacy(aHeaders));
+		imports(aHeaders.get(Constants.IMPORT_PACKAGE));
+		requireBundles(aHeaders.get(Constants.REQUIRE_BUNDLE));
+		generic(aHeaders.get(Constants.PROVIDE_CAPABILITY), capabilities);
+		generic(aHeaders.get(Constants.REQUIRE_CAPABILITY), requirements);
+	}
+
+	/**
+	 * @return the capabilities of the jar
+	 */
+	public List<Info> getCapabilities() {
+		return capabilities;
+	}
+
+	/**
+	 * @return the requirements of the jar
+	 */
+	public List<Info> getRequirements() {
+		return requirements;
+	}
+
+	/**
+	 * @return <code>true</code> if the jar is a fragment
+	 */
+	public boolean isFragment() {
+		return fragment;
+	}
+
+	/**
+	 * Adds a filter component that matches the given attribute value.
+	 *
+	 * @param aFilter the filter under construction
+	 * @param aName the attribute name
+	 * @param aValue the attribute value
+	 */
+	private static void equal(StringBuilder aFilter, String aName, Object aValue) {
+		aFilter.append('(').append(aName).append('=');
+
+		for (char l_char : String.valueOf(aValue).toCharArray()) {
+			if (l_char == '\\' || l_char == '(' || l_char == ')' || l_char == '*') {
+				aFilter.append('\\');
+			}
+			aFilter.append(l_char);
+		}
+		aFilter.append(')');
+	}
+
+	/**
+	 * Adds a filter component that matches the given version range.
+	 *
+	 * @param aFilter the filter under construction
+	 * @param aName the attribute name
+	 * @param aRange the version range as given in the header
+	 */
+	private static void range(StringBuilder aFilter, String aName, Object aRange) {
+		aFilter.append(VersionRange.valueOf(String.valueOf(aRange).trim()).toFilterString(aName));
+	}
+
+	/**
+	 * Checks whether the manifest predates the OSGi Release 4 headers.
+	 *
+	 * @param aHeaders the manifest headers
+	 * @return <code>true</code> if the manifest version is lower than 2
+	 */
+	private static boolean isLegacy(Map<String, String> aHeaders) {
+		String l_version = aHeaders.get(Constants.BUNDLE_MANIFESTVERSION);
+
+		return l_version == null || Integer.parseInt(l_version.trim()) < 2;
+	}
+
+	/**
+	 * Adds the exported packages as capabilities. The exports of a legacy
+	 * bundle are also imported.
+	 *
+	 * @param aHeader the Export-Package header
+	 * @param aBSN the symbolic name of the bundle or <code>null</code>
+	 * @param aVersion the version of the bundle
+	 * @param aLegacy <code>true</code> for a legacy manifest
+	 */
+	private void exports(String aHeader, String aBSN, Version aVersion, boolean aLegacy) {
+		for (Clause l_clause : Clause.parse(aHeader)) {
+			Object l_version = l_clause.attributes.remove(Constants.VERSION_ATTRIBUTE);
+			Object l_spec = l_clause.attributes.remove(SPECIFICATION_VERSION);
+
+			if (l_version == null) {
+				l_version = l_spec;
+			}
+			Version l_ver = l_version instanceof Version ? (Version) l_version
+			    : Version.parseVersion(l_version == null ? null : l_version.toString());
+
+			for (String l_package : l_clause.paths) {
+				Info l_info = new Info(PackageNamespace.PACKAGE_NAMESPACE);
+
+				l_info.attributes.put(PackageNamespace.PACKAGE_NAMESPACE, l_package);
+				l_info.attributes.put(PackageNamespace.CAPABILITY_VERSION_ATTRIBUTE, l_ver);
+				if (aBSN != null) {
+					l_info.attributes.put(PackageNamespace.CAPABILITY_BUNDLE_SYMBOLICNAME_ATTRIBUTE, aBSN);
+					l_info.attributes.put(PackageNamespace.CAPABILITY_BUNDLE_VERSION_ATTRIBUTE, aVersion);
+				}
+				l_info.attributes.putAll(l_clause.attributes);
+				l_info.directives.putAll(l_clause.directives);
+				capabilities.add(l_info);
+
+				if (aLegacy) {
+					StringBuilder l_filter = new StringBuilder("(&"); //$NON-NLS-1$
+
+					equal(l_filter, PackageNamespace.PACKAGE_NAMESPACE, l_package);
+					range(l_filter, PackageNamespace.CAPABILITY_VERSION_ATTRIBUTE, l_ver);
+					requirements.add(requirement(PackageNamespace.PACKAGE_NAMESPACE, l_filter, Collections.emptyMap()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the generic capabilities or requirements of a Provide-Capability or
+	 * Require-Capability header.
+	 *
+	 * @param aHeader the header
+	 * @param aResult receives the capabilities or requirements
+	 */
+	private void generic(String aHeader, List<Info> aResult) {
+		for (Clause l_clause : Clause.parse(aHeader)) {
+			for (String l_namespace : l_clause.paths) {
+				Info l_info = new Info(l_namespace);
+
+				l_info.attributes.putAll(l_clause.attributes);
+				l_info.directives.putAll(l_clause.directives);
+				aResult.add(l_info);
+			}
+		}
+	}
+
+	/**
+	 * Adds the requirement on the host of a fragment.
+	 *
+	 * @param aHeader the Fragment-Host header
+	 */
+	private void host(String aHeader) {
+		for (Clause l_clause : Clause.parse(aHeader)) {
+			requirements.add(wiring(HostNamespace.HOST_NAMESPACE, l_clause));
+		}
+	}
+
+	/**
+	 * Adds the identity of the bundle. A bundle that is not a fragment also
+	 * provides itself as required bundle and, unless it refuses fragments, as
+	 * host.
+	 *
+	 * @param aBSN the symbolic name of the bundle
+	 * @param aVersion the version of the bundle
+	 * @param aClause the Bundle-SymbolicName clause
+	 */
+	private void identity(String aBSN, Version aVersion, Clause aClause) {
+		String l_singleton = aClause.directives.get(Constants.SINGLETON_DIRECTIVE);
+		Info l_identity = new Info(IdentityNamespace.IDENTITY_NAMESPACE);
+
+		l_identity.attributes.put(IdentityNamespace.IDENTITY_NAMESPACE, aBSN);
+		l_identity.attributes.put(IdentityNamespace.CAPABILITY_TYPE_ATTRIBUTE,
+		    fragment ? IdentityNamespace.TYPE_FRAGMENT : IdentityNamespace.TYPE_BUNDLE);
+		l_identity.attributes.put(IdentityNamespace.CAPABILITY_VERSION_ATTRIBUTE, aVersion);
+		if (Boolean.parseBoolean(l_singleton)) {
+			l_identity.directives.put(IdentityNamespace.CAPABILITY_SINGLETON_DIRECTIVE, l_singleton);
+		}
+		capabilities.add(l_identity);
+
+		if (fragment) {
+			return;
+		}
+		String l_attachment = aClause.directives.get(Constants.FRAGMENT_ATTACHMENT_DIRECTIVE);
+
+		for (String l_namespace : new String[] { BundleNamespace.BUNDLE_NAMESPACE, HostNamespace.HOST_NAMESPACE }) {
+			if (HostNamespace.HOST_NAMESPACE.equals(l_namespace)
+			    && Constants.FRAGMENT_ATTACHMENT_NEVER.equals(l_attachment)) {
+				continue;
+			}
+			Info l_info = new Info(l_namespace);
+
+			l_info.attributes.put(l_namespace, aBSN);
+			l_info.attributes.put(AbstractWiringNamespace.CAPABILITY_BUNDLE_VERSION_ATTRIBUTE, aVersion);
+			l_info.attributes.putAll(aClause.attributes);
+			l_info.directives.putAll(aClause.directives);
+			capabilities.add(l_info);
+		}
+	}
+
+	/**
+	 * Adds the imported packages as requirements.
+	 *
+	 * @param aHeader the Import-Package header
+	 */
+	private void imports(String aHeader) {
+		for (Clause l_clause : Clause.parse(aHeader)) {
+			for (String l_package : l_clause.paths) {
+				StringBuilder l_filter = new StringBuilder("(&"); //$NON-NLS-1$
+
+				equal(l_filter, PackageNamespace.PACKAGE_NAMESPACE, l_package);
+				l_clause.attributes.forEach((k, v) -> {
+					if (Constants.VERSION_ATTRIBUTE.equals(k) || SPECIFICATION_VERSION.equals(k)) {
+						range(l_filter, PackageNamespace.CAPABILITY_VERSION_ATTRIBUTE, v);
+					} else if (Constants.BUNDLE_VERSION_ATTRIBUTE.equals(k)) {
+						range(l_filter, k, v);
+					} else {
+						equal(l_filter, k, v);
+					}
+				});
+				requirements.add(requirement(PackageNamespace.PACKAGE_NAMESPACE, l_filter, l_clause.directives));
+			}
+		}
+	}
+
+	/**
+	 * Adds the required bundles as requirements.
+	 *
+	 * @param aHeader the Require-Bundle header
+	 */
+	private void requireBundles(String aHeader) {
+		for (Clause l_clause : Clause.parse(aHeader)) {
+			requirements.add(wiring(BundleNamespace.BUNDLE_NAMESPACE, l_clause));
+		}
+	}
+
+	/**
+	 * Creates a requirement with the given filter and directives.
+	 *
+	 * @param aNamespace the namespace of the requirement
+	 * @param aFilter the filter, without the closing parenthesis
+	 * @param aDirectives the directives of the header clause
+	 * @return the requirement
+	 */
+	private static Info requirement(String aNamespace, StringBuilder aFilter, Map<String, String> aDirectives) {
+		Info l_ret = new Info(aNamespace);
+
+		l_ret.directives.putAll(aDirectives);
+		l_ret.directives.put(Namespace.REQUIREMENT_FILTER_DIRECTIVE, aFilter.append(')').toString());
+		return l_ret;
+	}
+
+	/**
+	 * Creates the requirement of a Require-Bundle or Fragment-Host clause.
+	 *
+	 * @param aNamespace the namespace of the requirement
+	 * @param aClause the header clause
+	 * @return the requirement
+	 */
+	private static Info wiring(String aNamespace, Clause aClause) {
+		StringBuilder l_filter = new StringBuilder("(&"); //$NON-NLS-1$
+		Object l_range = aClause.attributes.get(Constants.BUNDLE_VERSION_ATTRIBUTE);
+
+		equal(l_filter, aNamespace, aClause.paths.get(0));
+		if (l_range != null) {
+			range(l_filter, AbstractWiringNamespace.CAPABILITY_BUNDLE_VERSION_ATTRIBUTE, l_range);
+		}
+		return requirement(aNamespace, l_filter, aClause.directives);
+	}
+
+	/**
+	 * A capability or requirement built from the manifest.
+	 */
+	public static class Info {
+
+		private final Map<String, Object> attributes;
+		private final Map<String, String> directives;
+		private final String namespace;
+
+		private Info(String aNamespace) {
+			super();
+
+			attributes = new LinkedHashMap<String, Object>();
+			directives = new LinkedHashMap<String, String>();
+			namespace = aNamespace;
+		}
+
+		/**
+		 * @return the attributes
+		 */
+		public Map<String, Object> getAttributes() {
+			return Collections.unmodifiableMap(attributes);
+		}
+
+		/**
+		 * @return the directives
+		 */
+		public Map<String, String> getDirectives() {
+			return Collections.unmodifiableMap(directives);
+		}
+
+		/**
+		 * @return the namespace
+		 */
+		public String getNamespace() {
+			return namespace;
+		}
+	}
+
+	/**
+	 * A clause of a manifest header: the paths, i.e. package names, symbolic
+	 * names or namespaces, followed by the attributes and directives that apply
+	 * to all of them.
+	 */
+	private static class Clause {
+
+		private final Map<String, Object> attributes;
+		private final Map<String, String> directives;
+		private final List<String> paths;
+
+		private Clause() {
+			super();
+
+			attributes = new LinkedHashMap<String, Object>();
+			directives = new LinkedHashMap<String, String>();
+			paths = new ArrayList<String>();
+		}
+
+		/**
+		 * Parses a manifest header into its clauses.
+		 *
+		 * @param aHeader the header value or <code>null</code>
+		 * @return the clauses of the header
+		 * @throws IllegalArgumentException if the header is not valid
+		 */
+		private static List<Clause> parse(String aHeader) {
+			List<Clause> l_ret = new ArrayList<Clause>();
+
+			if (aHeader == null) {
+				return l_ret;
+			}
+			for (String l_text : split(aHeader, ',')) {
+				Clause l_clause = new Clause();
+
+				for (String l_part : split(l_text, ';')) {
+					int l_eq = l_part.indexOf('=');
+
+					if (l_eq < 0) {
+						l_clause.paths.add(l_part);
+					} else if (l_eq > 0 && l_part.charAt(l_eq - 1) == ':') {
+						l_clause.directives.put(l_part.substring(0, l_eq - 1).trim(),
+						    unescape(unquote(l_part.substring(l_eq + 1))));
+					} else {
+						l_clause.attribute(l_part.substring(0, l_eq).trim(), unquote(l_part.substring(l_eq + 1)));
+					}
+				}
+				if (l_clause.paths.isEmpty()) {
+					throw new IllegalArgumentException(aHeader);
+				}
+				l_ret.add(l_clause);
+			}
+			return l_ret;
+		}
+
+		/**
+		 * Splits a header at the given separator, outside of quoted strings.
+		 * Empty parts are dropped.
+		 *
+		 * @param aText the text to split
+		 * @param aSeparator the separator
+		 * @return the trimmed parts
+		 */
+		private static List<String> split(String aText, char aSeparator) {
+			List<String> l_ret = new ArrayList<String>();
+			StringBuilder l_part = new StringBuilder();
+			boolean l_quoted = false;
+
+			for (int i = 0; i < aText.length(); i++) {
+				char l_char = aText.charAt(i);
+
+				if (l_char == '\\' && i + 1 < aText.length()) {
+					l_part.append(l_char).append(aText.charAt(++i));
+					continue;
+				}
+				if (l_char == '"') {
+					l_quoted = !l_quoted;
+				} else if (l_char == aSeparator && !l_quoted) {
+					add(l_ret, l_part);
+					continue;
+				}
+				l_part.append(l_char);
+			}
+			add(l_ret, l_part);
+			return l_ret;
+		}
+
+		private static void add(List<String> aParts, StringBuilder aPart) {
+			String l_part = aPart.toString().trim();
+
+			if (!l_part.isEmpty()) {
+				aParts.add(l_part);
+			}
+			aPart.setLength(0);
+		}
+
+		private static String unescape(String aValue) {
+			StringBuilder l_ret = new StringBuilder(aValue.length());
+
+			for (int i = 0; i < aValue.length(); i++) {
+				char l_char = aValue.charAt(i);
+
+				if (l_char == '\\' && i + 1 < aValue.length()) {
+					l_char = aValue.charAt(++i);
+				}
+				l_ret.append(l_char);
+			}
+			return l_ret.toString();
+		}
+
+		private static String unquote(String aValue) {
+			String l_ret = aValue.trim();
+
+			if (l_ret.length() > 1 && l_ret.startsWith("\"") && l_ret.endsWith("\"")) { //$NON-NLS-1$ //$NON-NLS-2$
+				l_ret = l_ret.substring(1, l_ret.length() - 1);
+			}
+			return l_ret;
+		}
+
+		/**
+		 * Adds an attribute. The name may declare the type of the value, e.g.
+		 * <code>version:Version</code> or <code>os:List&lt;String&gt;</code>.
+		 *
+		 * @param aName the attribute name, with an optional type
+		 * @param aValue the unquoted value
+		 */
+		private void attribute(String aName, String aValue) {
+			int l_colon = aName.indexOf(':');
+
+			if (l_colon < 0) {
+				attributes.put(aName, unescape(aValue));
+				return;
+			}
+			String l_type = aName.substring(l_colon + 1).trim();
+			String l_name = aName.substring(0, l_colon).trim();
+
+			if (!l_type.startsWith(TYPE_LIST)) {
+				attributes.put(l_name, value(l_type, aValue));
+				return;
+			}
+			String l_element = TYPE_STRING;
+
+			if (l_type.length() > TYPE_LIST.length()) {
+				if (l_type.charAt(TYPE_LIST.length()) != '<' || !l_type.endsWith(">")) { //$NON-NLS-1$
+					throw new IllegalArgumentException(aName);
+				}
+				l_element = l_type.substring(TYPE_LIST.length() + 1, l_type.length() - 1).trim();
+			}
+			List<Object> l_list = new ArrayList<Object>();
+
+			for (String l_value : split(aValue, ',')) {
+				l_list.add(value(l_element, l_value));
+			}
+			attributes.put(l_name, l_list);
+		}
+
+		private static Object value(String aType, String aValue) {
+			switch (aType) {
+			case TYPE_STRING:
+				return unescape(aValue);
+			case TYPE_VERSION:
+				return Version.parseVersion(aValue.trim());
+			case TYPE_LONG:
+				return Long.valueOf(aValue.trim());
+			case TYPE_DOUBLE:
+				return Double.valueOf(aValue.trim());
+			default:
+				throw new IllegalArgumentException(aType);
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.SynchronousBundleListener;
+
+import biz.car.osgi.bundle.BND;
+
+/**
+ * Reports the outcome of each bundle activation to the
+ * <code>BundleQuarantine</code>, regardless of who started the bundle: the
+ * framework when it raises the start level, the activation engine, a lazy
+ * activation on first use or the shell.<br>
+ * As a synchronous bundle listener it sees the transition of a bundle from
+ * STARTING to STARTED as a successful start and from STARTING to STOPPING as a
+ * failed start. The error of the failed start is taken from the ERROR event the
+ * framework publishes for its own starts. A quarantined bundle is stopped on a
+ * thread of its own, since the listener is called while the framework is still
+ * changing the state of the bundle.
+ *
+ * @version 2.0.0 17.10.2026 20:13:37
+ */
+public class StartFailureListener implements FrameworkListener, SynchronousBundleListener {
+
+	private ExecutorService executor;
+	private final Set<Long> starting;
+
+	/**
+	 * Creates a default <code>StartFailureListener</code> instance.
+	 */
+	public StartFailureListener() {
+		super();
+
+		starting = ConcurrentHashMap.newKeySet();
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent anEvent) {
+		Bundle l_bundle = anEvent.getBundle();
+
+		switch (anEvent.getType()) {
+		case BundleEvent.STARTING:
+			starting.add(l_bundle.getBundleId());
+			break;
+		case BundleEvent.STARTED:
+			starting.remove(l_bundle.getBundleId());
+			BundleQuarantine.instance().started(l_bundle);
+			break;
+		case BundleEvent.STOPPING:
+			if (starting.remove(l_bundle.getBundleId()) && BundleQuarantine.instance().failed(l_bundle)) {
+				stop(l_bundle);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Stops the thread that stops the quarantined bundles.
+	 */
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	@Override
+	public void frameworkEvent(FrameworkEvent anEvent) {
+		Throwable l_ex = anEvent.getThrowable();
+
+		if (anEvent.getType() == FrameworkEvent.ERROR && l_ex instanceof BundleException) {
+			BundleQuarantine.instance().explain(anEvent.getBundle(), l_ex);
+		}
+	}
+
+	/**
+	 * Registers the listener with the given context.
+	 *
+	 * @param aContext the context of the system bundle
+	 */
+	public void register(BundleContext aContext) {
+		aContext.addBundleListener(this);
+		aContext.addFrameworkListener(this);
+	}
+
+	/**
+	 * Clears the persistent autostart setting of a quarantined bundle. The bundle
+	 * stays resolved.
+	 *
+	 * @param aBundle the quarantined bundle
+	 */
+	private synchronized void stop(Bundle aBundle) {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				Thread l_ret = new Thread(r, BND.BUNDLE_QUARANTINE);
+
+				l_ret.setDaemon(true);
+				return l_ret;
+			});
+		}
+		executor.execute(() -> {
+			try {
+				aBundle.stop();
+			} catch (BundleException | IllegalStateException anEx) {
+				// already stopped or uninstalled
+			}
+		});
+	}
+}
@@ -0,0 +1,91 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+/**
+ * Detects whether the jars of a deployment have been written completely.<br>
+ * A jar is complete if its size and modification time haven't changed since
+ * the previous check, or haven't changed for the quiet period, and its zip
+ * central directory, which is written last, can be read.
+ *
+ * @version 2.0.0 17.10.2026 16:20:44
+ */
+public class WriteCompletion {
+
+	private final long quietPeriod;
+	private final Map<File, Long> sizes;
+	private final Map<File, Long> times;
+
+	/**
+	 * Creates a new <code>WriteCompletion</code> instance.
+	 *
+	 * @param aQuietPeriod the time in milliseconds after which an unchanged jar is
+	 *                     considered stable
+	 */
+	public WriteCompletion(long aQuietPeriod) {
+		super();
+
+		quietPeriod = aQuietPeriod;
+		sizes = new HashMap<File, Long>();
+		times = new HashMap<File, Long>();
+	}
+
+	/**
+	 * Checks if a jar is a readable zip file.
+	 *
+	 * @param aJar the jar to check
+	 * @return <code>true</code> if the central directory of the jar can be read
+	 */
+	public static boolean isReadable(File aJar) {
+		try (ZipFile l_zip = new ZipFile(aJar)) {
+			return l_zip.size() >= 0;
+		} catch (IOException anEx) {
+			return false;
+		}
+	}
+
+	/**
+	 * Forgets the state of all jars.
+	 */
+	public void clear() {
+		sizes.clear();
+		times.clear();
+	}
+
+	/**
+	 * Checks if all given jars have been written completely. Each jar is
+	 * remembered for the next check.
+	 *
+	 * @param aJars the jars to check
+	 * @return <code>true</code> if all jars are complete
+	 */
+	public boolean isComplete(Collection<File> aJars) {
+		boolean l_ret = true;
+		long l_now = System.currentTimeMillis();
+
+		for (File l_jar : aJars) {
+			long l_size = l_jar.length();
+			long l_time = l_jar.lastModified();
+			Long l_prevSize = sizes.put(l_jar, l_size);
+			Long l_prevTime = times.put(l_jar, l_time);
+			boolean l_stable = l_now - l_time >= quietPeriod
+			    || (l_prevSize != null && l_prevSize == l_size && l_prevTime == l_time);
+
+			if (!l_stable || !isReadable(l_jar)) {
+				l_ret = false;
+			}
+		}
+		return l_ret;
+	}
+}
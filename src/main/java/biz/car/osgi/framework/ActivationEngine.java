@@ -0,0 +1,196 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.startlevel.BundleStartLevel;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.deploy.BundleQuarantine;
+
+/**
+ * Starts a list of bundles either one after another or in waves of equal start
+ * level. Each wave is started concurrently on a bounded thread pool and has to
+ * finish before the next start level is processed.<br>
+ * While the framework is starting, a start only marks a bundle for activation.
+ * The bundles are activated when the framework raises its start level, which
+ * the launcher configures to activate the bundles of a start level concurrently
+ * as well. The waves therefore only apply to bundles started on an active
+ * framework, e.g. by hot deployment.
+ *
+ * @version 2.0.0 17.10.2026 20:13:37
+ */
+public class ActivationEngine {
+
+	private final String mode;
+	private final int parallelism;
+	private ExecutorService pool;
+	private final long timeout;
+
+	/**
+	 * Creates a default <code>ActivationEngine</code> instance. The activation
+	 * mode, the parallelism and the per bundle timeout are read from the framework
+	 * properties.
+	 */
+	public ActivationEngine() {
+		super();
+
+		mode = FrameworkProperty.getString(VAL.framework_activation_mode, VAL.parallel);
+		parallelism = FrameworkProperty.getInt(VAL.framework_activation_parallelism, 4);
+		timeout = FrameworkProperty.getPeriod(VAL.framework_activation_timeout, "60s"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Shuts the thread pool of the engine down.
+	 */
+	public synchronized void close() {
+		if (pool != null) {
+			pool.shutdownNow();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Starts the given bundles. Fragments are skipped. While the framework is
+	 * starting, the bundles are only marked for activation one after another.
+	 *
+	 * @param aBundles the list of bundles to start
+	 */
+	public void start(List<Bundle> aBundles) {
+		List<Bundle> l_bundles = new ArrayList<Bundle>();
+
+		for (Bundle l_bundle : aBundles) {
+			if (!XFramework.isFragment(l_bundle)) {
+				l_bundles.add(l_bundle);
+			}
+		}
+		int l_state = XFramework.context().getBundle(0).getState();
+
+		if (l_state != Bundle.ACTIVE || VAL.serial.equals(mode) || parallelism <= 1 || l_bundles.size() <= 1) {
+			l_bundles.forEach(b -> startBundle(b));
+		} else {
+			startWaves(l_bundles);
+		}
+	}
+
+	/**
+	 * Waits until the start of a bundle has finished. A start still running after
+	 * the timeout is logged, and the wave keeps waiting for it.
+	 *
+	 * @param aBundle the bundle being started
+	 * @param aFuture the pending start operation
+	 */
+	private void awaitStart(Bundle aBundle, Future<?> aFuture) {
+		try {
+			try {
+				aFuture.get(timeout, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException anEx) {
+				SYS.LOG.warn(MSG.BUNDLE_START_TIMEOUT, aBundle.getSymbolicName(), timeout);
+				// the next start level must not be started before this one
+				aFuture.get();
+			}
+		} catch (ExecutionException anEx) {
+			SYS.LOG.error(anEx.getCause().getMessage());
+		} catch (InterruptedException anEx) {
+			Thread.currentThread().interrupt();
+			throw SYS.LOG.exception(anEx);
+		}
+	}
+
+	/**
+	 * @return the thread pool of the waves, created on first use
+	 */
+	private synchronized ExecutorService pool() {
+		if (pool == null) {
+			pool = Executors.newFixedThreadPool(parallelism, threadFactory());
+		}
+		return pool;
+	}
+
+	/**
+	 * Starts a single bundle according to its activation policy. A failure is
+	 * logged, but does not abort the remaining bundles. The bundle quarantine
+	 * records the failure by the bundle events of the start.
+	 *
+	 * @param aBundle the bundle to start
+	 */
+	private void startBundle(Bundle aBundle) {
+		try {
+			aBundle.start(Bundle.START_ACTIVATION_POLICY);
+		} catch (Exception anEx) {
+			SYS.LOG.error(MSG.BUNDLE_START_FAILED, aBundle.getSymbolicName(), anEx.getMessage());
+			BundleQuarantine.instance().explain(aBundle, anEx);
+		}
+	}
+
+	/**
+	 * Starts the bundles wave by wave in ascending start level order.
+	 *
+	 * @param aBundles the bundles to start
+	 */
+	private void startWaves(List<Bundle> aBundles) {
+		ExecutorService l_pool = pool();
+
+		for (Map.Entry<Integer, List<Bundle>> l_wave : waves(aBundles).entrySet()) {
+			List<Bundle> l_bundles = l_wave.getValue();
+			List<Future<?>> l_futures = new ArrayList<Future<?>>();
+
+			for (Bundle l_bundle : l_bundles) {
+				l_futures.add(l_pool.submit(() -> startBundle(l_bundle)));
+			}
+			for (int i = 0; i < l_futures.size(); i++) {
+				awaitStart(l_bundles.get(i), l_futures.get(i));
+			}
+		}
+	}
+
+	private ThreadFactory threadFactory() {
+		AtomicInteger l_count = new AtomicInteger();
+
+		return r -> {
+			String l_name = BND.BUNDLE_ACTIVATION + "-" + l_count.incrementAndGet(); //$NON-NLS-1$
+			Thread l_ret = new Thread(r, l_name);
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		};
+	}
+
+	/**
+	 * Groups the bundles by their start level.
+	 *
+	 * @param aBundles the bundles to group
+	 * @return the bundles per start level in ascending order
+	 */
+	private Map<Integer, List<Bundle>> waves(List<Bundle> aBundles) {
+		Map<Integer, List<Bundle>> l_ret = new TreeMap<Integer, List<Bundle>>();
+
+		for (Bundle l_bundle : aBundles) {
+			BundleStartLevel l_bsl = l_bundle.adapt(BundleStartLevel.class);
+			int l_lvl = l_bsl == null ? 0 : l_bsl.getStartLevel();
+
+			l_ret.computeIfAbsent(l_lvl, k -> new ArrayList<Bundle>()).add(l_bundle);
+		}
+		return l_ret;
+	}
+}
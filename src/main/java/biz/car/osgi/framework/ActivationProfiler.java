@@ -0,0 +1,257 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.framework.startlevel.BundleStartLevel;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.MSG;
+
+/**
+ * Profiles the activation and deactivation of each bundle.<br>
+ * As a synchronous bundle listener the profiler is called on the thread that
+ * starts or stops a bundle, so that the transitions STARTING to STARTED and
+ * STOPPING to STOPPED are timestamped without the delay of the asynchronous
+ * event dispatch. The services registered by a bundle while it is starting are
+ * counted as part of its activation.<br>
+ * At the end of the framework startup the activations are grouped into start
+ * level waves. The slowest activation of each wave lies on the critical path of
+ * the startup. A ranked report of the slowest activations and the longest
+ * waves is logged and published as a platform MXBean. Activations after the
+ * startup, e.g. by hot deployment, replace the previous activation of the
+ * bundle.
+ *
+ * @version 2.0.0 17.10.2026 19:05:48
+ */
+public class ActivationProfiler implements ActivationProfilerMXBean, ServiceListener, SynchronousBundleListener {
+
+	/**
+	 * The name of the MXBean.
+	 */
+	public static final String OBJECT_NAME = "biz.car.osgi:type=ActivationProfiler"; //$NON-NLS-1$
+
+	private static final int REPORTED = 5;
+	private static final int SLOWEST = 20;
+
+	private final Map<Long, Timing> activations;
+	private volatile long criticalPath;
+	private final Map<Long, Timing> running;
+	private final Map<Long, Timing> stops;
+	private volatile List<String> waves;
+
+	/**
+	 * Creates a default <code>ActivationProfiler</code> instance.
+	 */
+	public ActivationProfiler() {
+		super();
+
+		activations = new ConcurrentHashMap<Long, Timing>();
+		running = new ConcurrentHashMap<Long, Timing>();
+		stops = new ConcurrentHashMap<Long, Timing>();
+		waves = new ArrayList<String>();
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent anEvent) {
+		Bundle l_bundle = anEvent.getBundle();
+		Long l_id = l_bundle.getBundleId();
+
+		switch (anEvent.getType()) {
+		case BundleEvent.STARTING:
+		case BundleEvent.STOPPING:
+			running.put(l_id, new Timing(l_bundle));
+			break;
+		case BundleEvent.STARTED:
+			finish(l_id, activations);
+			break;
+		case BundleEvent.STOPPED:
+			finish(l_id, stops);
+			break;
+		case BundleEvent.UNINSTALLED:
+			activations.remove(l_id);
+			stops.remove(l_id);
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public long getCriticalPath() {
+		return criticalPath;
+	}
+
+	@Override
+	public List<String> getSlowestActivations() {
+		return ranking(activations.values(), SLOWEST);
+	}
+
+	@Override
+	public List<String> getSlowestStops() {
+		return ranking(stops.values(), SLOWEST);
+	}
+
+	@Override
+	public List<String> getWaves() {
+		return waves;
+	}
+
+	/**
+	 * Groups the activations of the framework startup into start level waves,
+	 * computes the critical path and logs the ranked report.
+	 */
+	public void report() {
+		Map<Integer, Wave> l_waves = new TreeMap<Integer, Wave>();
+		long l_path = 0L;
+
+		for (Timing l_timing : activations.values()) {
+			l_waves.computeIfAbsent(l_timing.level, k -> new Wave(k)).add(l_timing);
+		}
+		for (Wave l_wave : l_waves.values()) {
+			l_path += l_wave.slowest.nanos();
+		}
+		criticalPath = millis(l_path);
+		waves = l_waves.values().stream()
+		    .sorted(Comparator.comparingLong((Wave w) -> w.end - w.start).reversed())
+		    .map(Wave::toString)
+		    .collect(Collectors.toList());
+
+		SYS.LOG.info(MSG.ACTIVATION_PROFILE, activations.size(), ranking(activations.values(), REPORTED),
+		    waves.subList(0, Math.min(REPORTED, waves.size())), criticalPath, l_waves.size());
+
+		PlatformMBean.register(this, OBJECT_NAME);
+	}
+
+	@Override
+	public void serviceChanged(ServiceEvent anEvent) {
+		if (anEvent.getType() != ServiceEvent.REGISTERED) {
+			return;
+		}
+		Bundle l_bundle = anEvent.getServiceReference().getBundle();
+		Timing l_timing = l_bundle == null ? null : running.get(l_bundle.getBundleId());
+
+		if (l_timing != null) {
+			l_timing.services.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Completes a running activation or deactivation.
+	 *
+	 * @param anId    the id of the bundle
+	 * @param aResult the completed timings of the transition
+	 */
+	private void finish(Long anId, Map<Long, Timing> aResult) {
+		Timing l_timing = running.remove(anId);
+
+		if (l_timing != null) {
+			l_timing.end = System.nanoTime();
+			aResult.put(anId, l_timing);
+		}
+	}
+
+	private static long millis(long aNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(aNanos);
+	}
+
+	private static List<String> ranking(Collection<Timing> aTimings, int aCount) {
+		return aTimings.stream()
+		    .sorted(Comparator.comparingLong(Timing::nanos).reversed())
+		    .limit(aCount)
+		    .map(Timing::toString)
+		    .collect(Collectors.toList());
+	}
+
+	/**
+	 * The timestamps of a single activation or deactivation.
+	 */
+	private static class Timing {
+
+		private volatile long end;
+		private final long id;
+		private final int level;
+		private final String name;
+		private final AtomicInteger services;
+		private final long start;
+
+		private Timing(Bundle aBundle) {
+			super();
+
+			BundleStartLevel l_bsl = aBundle.adapt(BundleStartLevel.class);
+
+			id = aBundle.getBundleId();
+			level = l_bsl == null ? 0 : l_bsl.getStartLevel();
+			name = aBundle.getSymbolicName();
+			services = new AtomicInteger();
+			start = System.nanoTime();
+		}
+
+		private long nanos() {
+			return end - start;
+		}
+
+		@Override
+		public String toString() {
+			return name + " [" + id + "] " + millis(nanos()) + " ms, level " + level + ", " + services //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			    + " service(s)"; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * The activations of a start level. The wave lasts from the first STARTING
+	 * to the last STARTED event of the level.
+	 */
+	private static class Wave {
+
+		private int count;
+		private long end;
+		private final int level;
+		private Timing slowest;
+		private long start;
+
+		private Wave(int aLevel) {
+			super();
+
+			level = aLevel;
+		}
+
+		private void add(Timing aTiming) {
+			if (count == 0 || aTiming.start - start < 0) {
+				start = aTiming.start;
+			}
+			if (count == 0 || aTiming.end - end > 0) {
+				end = aTiming.end;
+			}
+			if (slowest == null || aTiming.nanos() > slowest.nanos()) {
+				slowest = aTiming;
+			}
+			count++;
+		}
+
+		@Override
+		public String toString() {
+			return "level " + level + " " + millis(end - start) + " ms, " + count + " bundle(s), slowest " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			    + slowest.name + " " + millis(slowest.nanos()) + " ms"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+}
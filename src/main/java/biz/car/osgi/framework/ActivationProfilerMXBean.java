@@ -0,0 +1,41 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.List;
+
+/**
+ * The management interface of the <code>ActivationProfiler</code>.
+ *
+ * @version 2.0.0 17.10.2026 19:03:26
+ */
+public interface ActivationProfilerMXBean {
+
+	/**
+	 * @return the sum of the slowest activation per start level of the framework
+	 *         startup in milliseconds, i.e. the startup time of the start levels
+	 *         if all bundles of a level were activated concurrently
+	 */
+	long getCriticalPath();
+
+	/**
+	 * @return the slowest activations in descending order, with the number of
+	 *         services registered during the activation
+	 */
+	List<String> getSlowestActivations();
+
+	/**
+	 * @return the slowest deactivations in descending order
+	 */
+	List<String> getSlowestStops();
+
+	/**
+	 * @return the start level waves of the framework startup in descending order
+	 *         of their duration
+	 */
+	List<String> getWaves();
+}
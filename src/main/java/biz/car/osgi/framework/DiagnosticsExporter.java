@@ -0,0 +1,259 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.dto.FrameworkDTO;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.startlevel.FrameworkStartLevel;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.deploy.BundleQuarantine;
+import biz.car.osgi.deploy.QuarantineEntry;
+
+/**
+ * Writes a snapshot of the framework state as JSON lines to a file in the
+ * framework data area.<br>
+ * Each line is a self-contained JSON object with a <code>type</code> field
+ * (<code>framework</code>, <code>property</code>, <code>bundle</code>,
+ * <code>quarantine</code>, <code>backoff</code> or <code>service</code>). The
+ * quarantine and backoff records list the locations held back after failed
+ * starts of their bundles. The lines are written one by one through a buffered
+ * writer, so that the size of the snapshot doesn't depend on the number of
+ * bundles and services.
+ *
+ * @version 2.0.0 17.10.2026 20:06:47
+ */
+public class DiagnosticsExporter {
+
+	private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"); //$NON-NLS-1$
+
+	private final StringBuilder line;
+	private final Writer out;
+	private int records;
+
+	/**
+	 * Creates a new <code>DiagnosticsExporter</code> instance.
+	 *
+	 * @param anOut the writer of the snapshot
+	 */
+	private DiagnosticsExporter(Writer anOut) {
+		super();
+
+		line = new StringBuilder(256);
+		out = anOut;
+	}
+
+	/**
+	 * Writes a snapshot of the running framework to the diagnostics folder of the
+	 * framework data area.
+	 *
+	 * @return the snapshot file
+	 */
+	public static File export() {
+		long l_start = System.nanoTime();
+		File l_dir = new File(XFramework.dataArea(), BND.DIAGNOSTICS_FOLDER);
+		String l_name = "snapshot-" + LocalDateTime.now().format(FILE_NAME) + ".jsonl"; //$NON-NLS-1$ //$NON-NLS-2$
+		File l_ret = new File(l_dir, l_name);
+
+		l_dir.mkdirs();
+
+		try (BufferedWriter l_out = Files.newBufferedWriter(l_ret.toPath(), StandardCharsets.UTF_8)) {
+			DiagnosticsExporter l_exporter = new DiagnosticsExporter(l_out);
+
+			l_exporter.write(XFramework.context());
+			SYS.LOG.info(MSG.DIAGNOSTICS_EXPORTED, l_exporter.records, l_ret,
+			    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - l_start));
+		} catch (IOException anEx) {
+			throw SYS.LOG.exception(anEx);
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Starts a new record.
+	 *
+	 * @param aType the type of the record
+	 * @return this exporter
+	 */
+	private DiagnosticsExporter begin(String aType) {
+		line.setLength(0);
+		line.append("{\"type\":"); //$NON-NLS-1$
+		quote(aType);
+		return this;
+	}
+
+	/**
+	 * Writes the current record as a single line.
+	 *
+	 * @throws IOException if the snapshot can't be written
+	 */
+	private void end() throws IOException {
+		line.append("}\n"); //$NON-NLS-1$
+		out.append(line);
+		records++;
+	}
+
+	/**
+	 * Adds a field to the current record. Numbers and booleans are written as
+	 * JSON literals, arrays as JSON arrays and all other values as strings.
+	 *
+	 * @param aKey   the name of the field
+	 * @param aValue the value of the field
+	 * @return this exporter
+	 */
+	private DiagnosticsExporter field(String aKey, Object aValue) {
+		line.append(',');
+		quote(aKey);
+		line.append(':');
+
+		if (aValue == null || aValue instanceof Number || aValue instanceof Boolean) {
+			line.append(aValue);
+		} else if (aValue instanceof Object[]) {
+			Object[] l_values = (Object[]) aValue;
+
+			line.append('[');
+
+			for (int i = 0; i < l_values.length; i++) {
+				if (i > 0) {
+					line.append(',');
+				}
+				quote(String.valueOf(l_values[i]));
+			}
+			line.append(']');
+		} else {
+			quote(aValue.toString());
+		}
+		return this;
+	}
+
+	private void quote(String aValue) {
+		line.append('"');
+
+		for (int i = 0; i < aValue.length(); i++) {
+			char l_char = aValue.charAt(i);
+
+			switch (l_char) {
+			case '"':
+				line.append("\\\""); //$NON-NLS-1$
+				break;
+			case '\\':
+				line.append("\\\\"); //$NON-NLS-1$
+				break;
+			case '\n':
+				line.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				line.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				line.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (l_char < 0x20) {
+					line.append(String.format("\\u%04x", (int) l_char)); //$NON-NLS-1$
+				} else {
+					line.append(l_char);
+				}
+			}
+		}
+		line.append('"');
+	}
+
+	/**
+	 * Writes the records of the framework, its properties, bundles, quarantined
+	 * locations and services.
+	 *
+	 * @param aContext the context of the system bundle
+	 * @throws IOException if the snapshot can't be written
+	 */
+	private void write(BundleContext aContext) throws IOException {
+		Bundle l_system = aContext.getBundle(0);
+		Bundle[] l_bundles = aContext.getBundles();
+		FrameworkStartLevel l_fsl = l_system.adapt(FrameworkStartLevel.class);
+
+		begin("framework") //$NON-NLS-1$
+		    .field("name", l_system.getSymbolicName()) //$NON-NLS-1$
+		    .field("version", l_system.getVersion()) //$NON-NLS-1$
+		    .field("startLevel", l_fsl.getStartLevel()) //$NON-NLS-1$
+		    .field("bundles", l_bundles.length) //$NON-NLS-1$
+		    .field("time", Instant.now()) //$NON-NLS-1$
+		    .end();
+
+		FrameworkDTO l_dto = l_system.adapt(FrameworkDTO.class);
+
+		for (Map.Entry<String, Object> l_prop : l_dto.properties.entrySet()) {
+			begin("property").field("key", l_prop.getKey()).field("value", l_prop.getValue()).end(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		for (Bundle l_bundle : l_bundles) {
+			BundleStartLevel l_bsl = l_bundle.adapt(BundleStartLevel.class);
+
+			begin("bundle") //$NON-NLS-1$
+			    .field("id", l_bundle.getBundleId()) //$NON-NLS-1$
+			    .field("name", l_bundle.getSymbolicName()) //$NON-NLS-1$
+			    .field("version", l_bundle.getVersion()) //$NON-NLS-1$
+			    .field("state", BND.state(l_bundle.getState())) //$NON-NLS-1$
+			    .field("startLevel", l_bsl == null ? null : l_bsl.getStartLevel()) //$NON-NLS-1$
+			    .field("fragment", XFramework.isFragment(l_bundle)) //$NON-NLS-1$
+			    .field("lastModified", Instant.ofEpochMilli(l_bundle.getLastModified())) //$NON-NLS-1$
+			    .field("location", l_bundle.getLocation()) //$NON-NLS-1$
+			    .end();
+		}
+		BundleQuarantine l_quarantine = BundleQuarantine.instance();
+
+		for (QuarantineEntry l_entry : l_quarantine.getEntries()) {
+			begin("quarantine") //$NON-NLS-1$
+			    .field("location", l_entry.getLocation()) //$NON-NLS-1$
+			    .field("hash", l_entry.getHash()) //$NON-NLS-1$
+			    .field("failures", l_entry.getFailures()) //$NON-NLS-1$
+			    .field("since", Instant.ofEpochMilli(l_entry.getSince())) //$NON-NLS-1$
+			    .field("reason", l_entry.getReason()) //$NON-NLS-1$
+			    .end();
+		}
+		for (Map.Entry<String, Long> l_backoff : l_quarantine.getBackoffs().entrySet()) {
+			begin("backoff").field("location", l_backoff.getKey()).field("remaining", l_backoff.getValue()).end(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		ServiceReference<?>[] l_refs;
+
+		try {
+			l_refs = aContext.getAllServiceReferences(null, null);
+		} catch (InvalidSyntaxException anEx) {
+			l_refs = null;
+		}
+		if (l_refs == null) {
+			return;
+		}
+		for (ServiceReference<?> l_ref : l_refs) {
+			Bundle[] l_using = l_ref.getUsingBundles();
+
+			begin("service") //$NON-NLS-1$
+			    .field("id", l_ref.getProperty(Constants.SERVICE_ID)) //$NON-NLS-1$
+			    .field("bundle", l_ref.getBundle() == null ? null : l_ref.getBundle().getBundleId()) //$NON-NLS-1$
+			    .field("objectClass", l_ref.getProperty(Constants.OBJECTCLASS)) //$NON-NLS-1$
+			    .field("using", l_using == null ? 0 : l_using.length) //$NON-NLS-1$
+			    .end();
+		}
+	}
+}
@@ -0,0 +1,345 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.ServiceEvent;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.DIAG;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+
+/**
+ * Decouples the logging of framework events from the event dispatch of the
+ * framework.<br>
+ * The listeners enqueue compact event records (kind, type, time stamp and the
+ * reference to the event source) into a bounded ring buffer without allocating
+ * memory. The source is kept instead of its id, since the name of an
+ * uninstalled bundle can't be resolved from its id later. A single consumer
+ * thread decodes the records through the precomputed name tables of
+ * <code>BND</code> and writes the diagnose log.<br>
+ * If the buffer is full, new events are dropped. With overflow policy
+ * <code>sample</code>, only every n-th service event is enqueued once the
+ * buffer is three quarters full. Dropped and sampled events are counted and
+ * reported periodically.
+ *
+ * @version 2.0.0 17.10.2026 14:02:37
+ */
+public class EventPipeline {
+
+	private static final int BUNDLE = 0;
+	private static final int FRAMEWORK = 1;
+	private static final long IDLE = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+	private static final int SERVICE = 2;
+
+	private final boolean async;
+	private final int capacity;
+	private final Thread consumer;
+	private final AtomicLong dropped;
+	private final AtomicLong head;
+	private final long highWater;
+	private final int[] kinds;
+	private long lastReport;
+	private final int mask;
+	private long maxLag;
+	private final long[] nanos;
+	private final AtomicLongArray published;
+	private long reportedDrops;
+	private long reportedSamples;
+	private volatile boolean running;
+	private final boolean sample;
+	private final AtomicLong sampleCount;
+	private final AtomicLong sampled;
+	private final int sampleRate;
+	private final Object[] sources;
+	private final AtomicLong tail;
+	private final int[] types;
+	private volatile boolean waiting;
+	private long written;
+
+	/**
+	 * Creates a new <code>EventPipeline</code> instance. The pipeline is
+	 * configured by the framework configuration, since it has to exist before the
+	 * framework is initialized.
+	 *
+	 * @param aConfig the framework configuration
+	 */
+	public EventPipeline(Map<String, String> aConfig) {
+		super();
+
+		async = !VAL.sync.equals(value(aConfig, VAL.framework_eventlog_mode, VAL.async));
+		sample = VAL.sample.equals(value(aConfig, VAL.framework_eventlog_overflow, VAL.drop));
+		sampleRate = Math.max(1, Integer.parseInt(value(aConfig, VAL.framework_eventlog_sampleRate, "10"))); //$NON-NLS-1$
+
+		int l_size = Integer.parseInt(value(aConfig, VAL.framework_eventlog_capacity, "8192")); //$NON-NLS-1$
+
+		capacity = Integer.highestOneBit(Math.max(2, l_size) - 1) << 1;
+		mask = capacity - 1;
+		highWater = capacity - capacity / 4;
+
+		kinds = new int[capacity];
+		nanos = new long[capacity];
+		sources = new Object[capacity];
+		types = new int[capacity];
+		published = new AtomicLongArray(capacity);
+
+		dropped = new AtomicLong();
+		head = new AtomicLong();
+		sampleCount = new AtomicLong();
+		sampled = new AtomicLong();
+		tail = new AtomicLong();
+
+		consumer = new Thread(this::consume, BND.EVENT_LOG);
+		consumer.setDaemon(true);
+	}
+
+	/**
+	 * Publishes a bundle event.
+	 *
+	 * @param anEvent the bundle event
+	 */
+	public void bundleEvent(BundleEvent anEvent) {
+		publish(BUNDLE, anEvent.getType(), anEvent.getBundle());
+	}
+
+	/**
+	 * Stops the consumer thread after the buffered events have been written.
+	 */
+	public void close() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(consumer);
+
+		try {
+			consumer.join(TimeUnit.NANOSECONDS.toMillis(REPORT_INTERVAL));
+		} catch (InterruptedException anEx) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Publishes a framework event.
+	 *
+	 * @param anEvent the framework event
+	 */
+	public void frameworkEvent(FrameworkEvent anEvent) {
+		publish(FRAMEWORK, anEvent.getType(), anEvent.getBundle());
+	}
+
+	/**
+	 * @return the number of events dropped because the buffer was full
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return the number of service events skipped by the sample policy
+	 */
+	public long getSampled() {
+		return sampled.get();
+	}
+
+	/**
+	 * Publishes a service event.
+	 *
+	 * @param anEvent the service event
+	 */
+	public void serviceEvent(ServiceEvent anEvent) {
+		publish(SERVICE, anEvent.getType(), anEvent.getServiceReference());
+	}
+
+	/**
+	 * Starts the consumer thread. In synchronous mode the events are written by
+	 * the publishing thread and no consumer is started.
+	 */
+	public void start() {
+		if (async && !running) {
+			running = true;
+			consumer.start();
+		}
+	}
+
+	/**
+	 * Claims the next slot of the ring buffer unless the buffer is full or the
+	 * event is skipped by the sample policy.
+	 *
+	 * @param aKind the kind of the event
+	 * @return the sequence number of the claimed slot or -1
+	 */
+	private long claim(int aKind) {
+		long l_seq;
+
+		do {
+			l_seq = tail.get();
+			long l_fill = l_seq - head.get();
+
+			if (l_fill >= capacity) {
+				dropped.incrementAndGet();
+				return -1L;
+			}
+			if (sample && aKind == SERVICE && l_fill >= highWater
+			    && sampleCount.incrementAndGet() % sampleRate != 0) {
+				sampled.incrementAndGet();
+				return -1L;
+			}
+		} while (!tail.compareAndSet(l_seq, l_seq + 1));
+
+		return l_seq;
+	}
+
+	/**
+	 * The loop of the consumer thread.
+	 */
+	private void consume() {
+		while (true) {
+			int l_count = drain();
+
+			report(false);
+
+			if (l_count == 0) {
+				if (!running) {
+					break;
+				}
+				waiting = true;
+
+				if (head.get() == tail.get()) {
+					LockSupport.parkNanos(this, IDLE);
+				}
+				waiting = false;
+			}
+		}
+		report(true);
+		SYS.LOG.info(MSG.EVENT_LOG_CLOSED, written, dropped.get(), sampled.get(),
+		    TimeUnit.NANOSECONDS.toMillis(maxLag));
+	}
+
+	/**
+	 * Writes all published records in sequence order.
+	 *
+	 * @return the number of written records
+	 */
+	private int drain() {
+		long l_head = head.get();
+		int l_ret = 0;
+
+		while (true) {
+			int l_slot = (int) (l_head & mask);
+
+			if (published.get(l_slot) != l_head + 1) {
+				return l_ret;
+			}
+			maxLag = Math.max(maxLag, System.nanoTime() - nanos[l_slot]);
+
+			try {
+				write(kinds[l_slot], types[l_slot], sources[l_slot]);
+			} catch (RuntimeException anEx) {
+				SYS.LOG.error(anEx.getMessage());
+			}
+			sources[l_slot] = null;
+			written++;
+			l_head++;
+			l_ret++;
+			head.set(l_head);
+		}
+	}
+
+	/**
+	 * Enqueues an event record or writes the event directly in synchronous mode.
+	 *
+	 * @param aKind   the kind of the event
+	 * @param aType   the type of the event
+	 * @param aSource the bundle or service reference of the event
+	 */
+	private void publish(int aKind, int aType, Object aSource) {
+		if (!running) {
+			write(aKind, aType, aSource);
+			return;
+		}
+		long l_seq = claim(aKind);
+
+		if (l_seq < 0) {
+			return;
+		}
+		int l_slot = (int) (l_seq & mask);
+
+		kinds[l_slot] = aKind;
+		types[l_slot] = aType;
+		sources[l_slot] = aSource;
+		nanos[l_slot] = System.nanoTime();
+		published.set(l_slot, l_seq + 1);
+
+		if (waiting) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	/**
+	 * Reports the events dropped or sampled out since the last report.
+	 *
+	 * @param aFinal <code>true</code> to report regardless of the interval
+	 */
+	private void report(boolean aFinal) {
+		long l_drops = dropped.get() - reportedDrops;
+		long l_samples = sampled.get() - reportedSamples;
+
+		if (l_drops == 0 && l_samples == 0) {
+			return;
+		}
+		long l_now = System.nanoTime();
+
+		if (aFinal || l_now - lastReport >= REPORT_INTERVAL) {
+			DIAG.LOG.warn(MSG.EVENT_LOG_OVERFLOW, l_drops, l_samples);
+			lastReport = l_now;
+			reportedDrops += l_drops;
+			reportedSamples += l_samples;
+		}
+	}
+
+	private static String value(Map<String, String> aConfig, String aKey, String aDefault) {
+		String l_ret = aConfig.get(aKey);
+
+		return l_ret == null ? aDefault : l_ret.trim();
+	}
+
+	/**
+	 * Decodes an event record and writes it to the diagnose log.
+	 *
+	 * @param aKind   the kind of the event
+	 * @param aType   the type of the event
+	 * @param aSource the bundle or service reference of the event
+	 */
+	private void write(int aKind, int aType, Object aSource) {
+		switch (aKind) {
+		case BUNDLE:
+			Bundle l_bundle = (Bundle) aSource;
+
+			DIAG.LOG.info(MSG.BUNDLE_EVENT, l_bundle.getSymbolicName(), BND.bundleEvent(aType));
+			break;
+		case FRAMEWORK:
+			Bundle l_source = (Bundle) aSource;
+
+			DIAG.LOG.info(MSG.FRAMEWORK_EVENT, BND.frameworkEvent(aType), l_source.getSymbolicName());
+			break;
+		default:
+			DIAG.LOG.info(MSG.SERVICE_EVENT, BND.serviceEvent(aType), aSource.toString());
+		}
+	}
+}
@@ -0,0 +1,323 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.deploy.AreaWatcher;
+import biz.car.osgi.deploy.BundleQuarantine;
+import biz.car.osgi.deploy.DeployMetrics;
+import biz.car.osgi.deploy.Deployer;
+import biz.car.osgi.deploy.InstallArea;
+import biz.car.osgi.deploy.QuarantineEntry;
+import biz.car.osgi.deploy.ResolverDryRun;
+
+/**
+ * The Gogo shell commands of the framework in the scope <code>car</code>. The
+ * commands are registered as a service of the system bundle, so that the
+ * command processor of the Gogo runtime picks them up without a compile time
+ * dependency on Gogo.<br>
+ * Besides the diagnostics snapshot the commands show the timings of the hot
+ * deployment, the wiring impact of the last resolver dry run, the quarantined
+ * bundles, the slowest bundle activations and the service churn, and they
+ * trigger a reconcile or a refresh by hand.
+ *
+ * @version 2.0.0 17.10.2026 20:11:26
+ */
+public class FrameworkCommands {
+
+	private static final String[] FUNCTIONS = { "churn", "closure", "cycles", "diag", "dryrun", "lazy", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	    "pending", "quarantine", "reconcile", "refresh", "slowest", "watcher" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	private static final String NONE = "none"; //$NON-NLS-1$
+
+	private final LazyActivation lazy;
+	private final ActivationProfiler profiler;
+	private final XServiceListener services;
+
+	/**
+	 * Creates a new <code>FrameworkCommands</code> instance.
+	 *
+	 * @param aServices the listener counting the service events
+	 * @param aProfiler the profiler of the bundle activations
+	 * @param aLazy     the lazy activation of the deferred bundles
+	 */
+	private FrameworkCommands(XServiceListener aServices, ActivationProfiler aProfiler, LazyActivation aLazy) {
+		super();
+
+		services = aServices;
+		profiler = aProfiler;
+		lazy = aLazy;
+	}
+
+	/**
+	 * Registers the commands with the given context.
+	 *
+	 * @param aContext  the context of the system bundle
+	 * @param aServices the listener counting the service events
+	 * @param aProfiler the profiler of the bundle activations
+	 * @param aLazy     the lazy activation of the deferred bundles
+	 */
+	public static void register(BundleContext aContext, XServiceListener aServices, ActivationProfiler aProfiler,
+	    LazyActivation aLazy) {
+		Hashtable<String, Object> l_props = new Hashtable<String, Object>();
+
+		l_props.put("osgi.command.scope", BND.COMMAND_SCOPE); //$NON-NLS-1$
+		l_props.put("osgi.command.function", FUNCTIONS); //$NON-NLS-1$
+
+		aContext.registerService(FrameworkCommands.class, new FrameworkCommands(aServices, aProfiler, aLazy), l_props);
+	}
+
+	/**
+	 * Command <code>car:churn</code>: shows the number of service events and the
+	 * rate within the sliding window per event type, the service interfaces and bundles with the most events within
+	 * the sliding window and the flapping services.
+	 *
+	 * @return the service churn report
+	 */
+	public String churn() {
+		ServiceChurn l_churn = services.churn();
+		StringJoiner l_ret = new StringJoiner("\n"); //$NON-NLS-1$
+
+		Map<String, Double> l_rates = l_churn.getRates();
+
+		l_churn.getEventCounts().forEach((k, v) -> l_ret.add(k + " " + v + ", " //$NON-NLS-1$ //$NON-NLS-2$
+		    + String.format(Locale.ROOT, "%.2f", l_rates.get(k)) + "/s")); //$NON-NLS-1$ //$NON-NLS-2$
+		l_ret.add("-- interfaces within " + l_churn.getWindow() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		l_ret.add(lines(l_churn.getTopInterfaces()));
+		l_ret.add("-- bundles within " + l_churn.getWindow() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		l_ret.add(lines(l_churn.getTopBundles()));
+		l_ret.add("-- flapping"); //$NON-NLS-1$
+		l_ret.add(lines(l_churn.getFlappingServices()));
+		return l_ret.toString();
+	}
+
+	/**
+	 * Command <code>car:closure [id ...]</code>: shows the size of the dependency
+	 * closure of the given bundles without refreshing them. Without bundle ids
+	 * the size of the refresh closure of the last deployment cycle is shown.
+	 *
+	 * @param anIds the ids of the bundles
+	 * @return the number of bundles in the closure
+	 */
+	public String closure(long... anIds) {
+		if (anIds.length == 0) {
+			int l_last = metrics().getLastClosure();
+
+			return l_last < 0 ? NONE : String.valueOf(l_last);
+		}
+		FrameworkWiring l_wiring = XFramework.context().getBundle(0).adapt(FrameworkWiring.class);
+		Collection<Bundle> l_closure = l_wiring.getDependencyClosure(bundles(anIds));
+
+		return l_closure.size() + " bundle(s) " + Arrays.toString(ids(l_closure)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Command <code>car:cycles</code>: shows the last 10 deployment cycles with
+	 * their timings.
+	 *
+	 * @return one line per cycle, newest first
+	 */
+	public String cycles() {
+		return cycles(10);
+	}
+
+	/**
+	 * Command <code>car:cycles n</code>: shows the last deployment cycles with
+	 * their timings.
+	 *
+	 * @param aCount the maximum number of cycles
+	 * @return one line per cycle, newest first
+	 */
+	public String cycles(int aCount) {
+		List<String> l_cycles = metrics().getRecentCycles();
+
+		return lines(l_cycles.subList(0, Math.min(Math.max(aCount, 0), l_cycles.size())));
+	}
+
+	/**
+	 * Command <code>car:diag</code>: writes a snapshot of the framework to the
+	 * diagnostics folder of the data area.
+	 *
+	 * @return the path of the snapshot file
+	 */
+	public String diag() {
+		return DiagnosticsExporter.export().getPath();
+	}
+
+	/**
+	 * Command <code>car:dryrun</code>: shows the report of the last resolver dry
+	 * run of the hot deployment.
+	 *
+	 * @return the wiring impact and the skipped jars
+	 */
+	public String dryrun() {
+		return lines(ResolverDryRun.report());
+	}
+
+	/**
+	 * Command <code>car:lazy</code>: shows the bundles waiting for their first
+	 * use and the bundles activated on demand with the trigger of the activation.
+	 *
+	 * @return one line per bundle
+	 */
+	public String lazy() {
+		StringJoiner l_ret = new StringJoiner("\n"); //$NON-NLS-1$
+
+		l_ret.add(lines(lazy.getDeferred()));
+		l_ret.add("-- activated on demand"); //$NON-NLS-1$
+		l_ret.add(lines(lazy.getActivated()));
+		return l_ret.toString();
+	}
+
+	/**
+	 * Command <code>car:pending</code>: shows the pending jobs of the deploy
+	 * queue.
+	 *
+	 * @return one line per job in priority order
+	 */
+	public String pending() {
+		return lines(deployer().pending());
+	}
+
+	/**
+	 * Command <code>car:quarantine</code>: shows the locations quarantined after
+	 * repeatedly failed starts and the locations backed off after a failed
+	 * start.
+	 *
+	 * @return one line per location
+	 */
+	public String quarantine() {
+		List<String> l_lines = new ArrayList<String>();
+		BundleQuarantine l_quarantine = BundleQuarantine.instance();
+
+		for (QuarantineEntry l_entry : l_quarantine.getEntries()) {
+			l_lines.add(l_entry.getLocation() + ": " + l_entry.getFailures() + " failed start(s) since " //$NON-NLS-1$ //$NON-NLS-2$
+			    + Instant.ofEpochMilli(l_entry.getSince()) + ", hash " + l_entry.getHash() + ", " //$NON-NLS-1$ //$NON-NLS-2$
+			    + l_entry.getReason());
+		}
+		StringJoiner l_ret = new StringJoiner("\n"); //$NON-NLS-1$
+
+		l_ret.add(lines(l_lines));
+		l_ret.add("-- backed off"); //$NON-NLS-1$
+		l_quarantine.getBackoffs().forEach((k, v) -> l_ret.add(k + ": retry in " + v + " ms")); //$NON-NLS-1$ //$NON-NLS-2$
+		return l_ret.toString();
+	}
+
+	/**
+	 * Command <code>car:reconcile [path ...]</code>: deploys the given jars or
+	 * folders of the install areas. Without paths the complete install areas
+	 * are rescanned.
+	 *
+	 * @param aPaths the paths relative to an install area
+	 * @return a confirmation
+	 */
+	public String reconcile(String... aPaths) {
+		deployer().deploy(Arrays.asList(aPaths));
+
+		return aPaths.length == 0 ? "rescan of the install areas triggered" //$NON-NLS-1$
+		    : "reconcile of " + aPaths.length + " path(s) triggered"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Command <code>car:refresh id ...</code>: refreshes the dependency closure
+	 * of the given bundles and waits for the refresh to complete.
+	 *
+	 * @param anIds the ids of the bundles
+	 * @return the number of refreshed bundles
+	 */
+	public String refresh(long... anIds) {
+		List<Bundle> l_bundles = bundles(anIds);
+
+		if (l_bundles.isEmpty()) {
+			return NONE;
+		}
+		return XFramework.refreshAndWait(l_bundles) + " bundle(s) refreshed"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Command <code>car:slowest</code>: shows the slowest bundle activations with
+	 * the number of services registered during the activation, and the start
+	 * level waves of the framework startup.
+	 *
+	 * @return one line per activation, slowest first, followed by the waves
+	 */
+	public String slowest() {
+		StringJoiner l_ret = new StringJoiner("\n"); //$NON-NLS-1$
+
+		l_ret.add(lines(profiler.getSlowestActivations()));
+		l_ret.add("-- start level waves, critical path " + profiler.getCriticalPath() + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		l_ret.add(lines(profiler.getWaves()));
+		return l_ret.toString();
+	}
+
+	/**
+	 * Command <code>car:watcher</code>: shows for each install area the watch
+	 * mode, the number of watched directories, the file system events and the
+	 * directories rescanned after lost events.
+	 *
+	 * @return the watcher metrics
+	 */
+	public String watcher() {
+		List<String> l_ret = new ArrayList<String>();
+
+		for (AreaWatcher l_watcher : deployer().watchers().values()) {
+			l_ret.add(l_watcher.getArea() + ": mode " + l_watcher.getMode() + ", " //$NON-NLS-1$ //$NON-NLS-2$
+			    + l_watcher.getWatchedDirectories() + " directories, " + l_watcher.getEvents() + " event(s), " //$NON-NLS-1$ //$NON-NLS-2$
+			    + l_watcher.getEventsPerMinute() + " within the last minute, " + l_watcher.getRescans() //$NON-NLS-1$
+			    + " rescan(s)"); //$NON-NLS-1$
+		}
+		return lines(l_ret);
+	}
+
+	/**
+	 * Looks up the bundles with the given ids. Unknown ids are ignored.
+	 *
+	 * @param anIds the ids of the bundles
+	 * @return the bundles found
+	 */
+	private static List<Bundle> bundles(long... anIds) {
+		List<Bundle> l_ret = new ArrayList<Bundle>();
+
+		for (long l_id : anIds) {
+			Bundle l_bundle = XFramework.context().getBundle(l_id);
+
+			if (l_bundle != null) {
+				l_ret.add(l_bundle);
+			}
+		}
+		return l_ret;
+	}
+
+	private static Deployer deployer() {
+		return InstallArea.watcher();
+	}
+
+	private static long[] ids(Collection<Bundle> aBundles) {
+		return aBundles.stream().mapToLong(Bundle::getBundleId).sorted().toArray();
+	}
+
+	private static String lines(List<String> aLines) {
+		return aLines.isEmpty() ? NONE : String.join("\n", aLines); //$NON-NLS-1$
+	}
+
+	private static DeployMetrics metrics() {
+		return deployer().metrics();
+	}
+}
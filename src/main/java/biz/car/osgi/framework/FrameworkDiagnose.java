@@ -8,7 +8,9 @@ package biz.car.osgi.framework;
 
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.dto.BundleDTO;
@@ -17,23 +19,48 @@ import org.osgi.framework.launch.Framework;
 import org.osgi.framework.startlevel.dto.BundleStartLevelDTO;
 import org.osgi.framework.startlevel.dto.FrameworkStartLevelDTO;
 
+import biz.car.SYS;
 import biz.car.osgi.bundle.BND;
 import biz.car.osgi.bundle.DIAG;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.deploy.BundleQuarantine;
+import biz.car.osgi.deploy.QuarantineEntry;
 import biz.car.util.XTimestamp;
 
 /**
  * Inspects an OSGi framework for diagnostic purposes.
  *
- * @version 2.0.0 03.02.2026 15:15:40
+ * @version 2.0.0 17.10.2026 20:07:05
  */
 public interface FrameworkDiagnose {
 
 	/**
-	 * Logs diagnostic information about the OSGi framework instance.
+	 * Writes the diagnostic output after the start of the framework. Depending
+	 * on the framework property <code>framework.diagnose.startup</code> a summary
+	 * or the full information is logged, a snapshot is exported to the data area
+	 * or nothing is written.
 	 * 
 	 * @param aFWK the Framework instance to inspect
 	 */
 	static void accept(Framework aFWK) {
+		String l_mode = FrameworkProperty.getString(VAL.framework_diagnose_startup, VAL.summary);
+
+		if (VAL.full.equals(l_mode)) {
+			log(aFWK);
+		} else if (VAL.export.equals(l_mode)) {
+			DiagnosticsExporter.export();
+		} else if (!VAL.off.equals(l_mode)) {
+			summary(aFWK);
+		}
+	}
+
+	/**
+	 * Logs diagnostic information about the OSGi framework instance.
+	 * 
+	 * @param aFWK the Framework instance to inspect
+	 */
+	static void log(Framework aFWK) {
 		FrameworkDTO l_dto = aFWK.adapt(FrameworkDTO.class);
 		FrameworkStartLevelDTO l_sl = aFWK.adapt(FrameworkStartLevelDTO.class);
 		Map<String, Object> l_props = l_dto.properties;
@@ -70,4 +97,28 @@ public interface FrameworkDiagnose {
 		      })
 		      .forEach(info -> DIAG.LOG.info(info.toString()));
 	}
+
+	/**
+	 * Logs a single line with the number of bundles per state, followed by the
+	 * quarantined locations, if any.
+	 * 
+	 * @param aFWK the Framework instance to inspect
+	 */
+	static void summary(Framework aFWK) {
+		FrameworkStartLevelDTO l_sl = aFWK.adapt(FrameworkStartLevelDTO.class);
+		Bundle[] l_bundles = aFWK.getBundleContext().getBundles();
+		Map<String, Integer> l_states = new TreeMap<String, Integer>();
+
+		for (Bundle l_bundle : l_bundles) {
+			l_states.merge(BND.state(l_bundle.getState()), 1, Integer::sum);
+		}
+		SYS.LOG.info(MSG.DIAGNOSTICS_SUMMARY, aFWK.getSymbolicName(), l_sl.startLevel, l_bundles.length,
+		    l_states);
+
+		List<QuarantineEntry> l_quarantined = BundleQuarantine.instance().getEntries();
+
+		if (!l_quarantined.isEmpty()) {
+			SYS.LOG.warn(MSG.QUARANTINE_SUMMARY, l_quarantined.size(), l_quarantined);
+		}
+	}
 }
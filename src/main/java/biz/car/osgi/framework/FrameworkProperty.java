@@ -0,0 +1,70 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import biz.car.util.Delay;
+
+/**
+ * Typed access to the properties of the running OSGi framework.
+ *
+ * @version 2.0.0 17.10.2026 09:12:04
+ */
+public interface FrameworkProperty {
+
+	/**
+	 * Reads a boolean framework property.
+	 *
+	 * @param aKey     the key of the framework property
+	 * @param aDefault the value if the property is not set
+	 * @return the boolean value of the property
+	 */
+	static boolean getBool(String aKey, boolean aDefault) {
+		String l_val = XFramework.context().getProperty(aKey);
+
+		return l_val == null ? aDefault : Boolean.parseBoolean(l_val.trim());
+	}
+
+	/**
+	 * Reads an integer framework property.
+	 *
+	 * @param aKey     the key of the framework property
+	 * @param aDefault the value if the property is not set
+	 * @return the integer value of the property
+	 */
+	static int getInt(String aKey, int aDefault) {
+		String l_val = XFramework.context().getProperty(aKey);
+
+		return l_val == null ? aDefault : Integer.parseInt(l_val.trim());
+	}
+
+	/**
+	 * Reads a time period framework property, e.g. <code>500</code>,
+	 * <code>30s</code> or <code>5m</code>.
+	 *
+	 * @param aKey     the key of the framework property
+	 * @param aDefault the period if the property is not set
+	 * @return the period in milliseconds
+	 */
+	static long getPeriod(String aKey, String aDefault) {
+		String l_val = getString(aKey, aDefault);
+
+		return Delay.Period.apply(l_val.trim());
+	}
+
+	/**
+	 * Reads a framework property.
+	 *
+	 * @param aKey     the key of the framework property
+	 * @param aDefault the value if the property is not set
+	 * @return the value of the property
+	 */
+	static String getString(String aKey, String aDefault) {
+		String l_val = XFramework.context().getProperty(aKey);
+
+		return l_val == null ? aDefault : l_val;
+	}
+}
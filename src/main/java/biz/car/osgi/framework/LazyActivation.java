@@ -0,0 +1,362 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.hooks.service.FindHook;
+import org.osgi.framework.hooks.weaving.WeavingHook;
+import org.osgi.framework.hooks.weaving.WovenClass;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.deploy.Area;
+import biz.car.osgi.deploy.BundleInventory;
+import biz.car.osgi.deploy.InstallArea;
+
+/**
+ * Defers the activation of non-critical bundles until their first use.<br>
+ * Bundles in the configured folders of an install area, relative to its root,
+ * or with a symbolic name matching one of the configured patterns are not
+ * started with the other bundles. They are only resolved and stay in the
+ * state RESOLVED. The first demand starts the bundle transiently on a separate
+ * thread:
+ * <ul>
+ * <li>a service lookup for an interface the bundle declares in an
+ * <code>osgi.service</code> capability or whose package it exports, detected
+ * by a service registry find hook</li>
+ * <li>the load of a class of the bundle, detected by a weaving hook</li>
+ * </ul>
+ * The lookup that triggers the start doesn't see the services of the bundle
+ * yet, consumers tracking the service pick them up when they are registered.
+ * Since the start is transient, a deferred bundle is deferred again after a
+ * restart of the framework.
+ *
+ * @version 2.0.0 17.10.2026 19:59:31
+ */
+public class LazyActivation implements BundleListener, FindHook, WeavingHook {
+
+	private static final String SERVICE_NAMESPACE = "osgi.service"; //$NON-NLS-1$
+	private static final String SERVICE_OBJECTCLASS = "objectClass"; //$NON-NLS-1$
+
+	private final List<String> activated;
+	private final Set<Bundle> deferred;
+	private ExecutorService executor;
+	private final List<String> folders;
+	private final List<Pattern> patterns;
+
+	/**
+	 * Creates a default <code>LazyActivation</code> instance. The folders and the
+	 * symbolic name patterns of the deferred bundles are read from the framework
+	 * properties.
+	 */
+	public LazyActivation() {
+		super();
+
+		activated = new ArrayList<String>();
+		deferred = ConcurrentHashMap.newKeySet();
+		folders = list(FrameworkProperty.getString(VAL.framework_lazy_folders, "")); //$NON-NLS-1$
+		patterns = list(FrameworkProperty.getString(VAL.framework_lazy_patterns, "")).stream() //$NON-NLS-1$
+		    .map(LazyActivation::glob)
+		    .collect(Collectors.toList());
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent anEvent) {
+		switch (anEvent.getType()) {
+		case BundleEvent.STARTED:
+		case BundleEvent.UNINSTALLED:
+			deferred.remove(anEvent.getBundle());
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Removes the deferred bundles from a list of bundles to start. The
+	 * persistent autostart setting of the deferred bundles is cleared. If the
+	 * framework is already active, the deferred bundles are resolved at once.
+	 *
+	 * @param aBundles the bundles to start
+	 * @return the bundles to start now
+	 */
+	public List<Bundle> defer(List<Bundle> aBundles) {
+		if (!isEnabled()) {
+			return aBundles;
+		}
+		List<Bundle> l_ret = new ArrayList<Bundle>();
+		List<Bundle> l_deferred = new ArrayList<Bundle>();
+
+		for (Bundle l_bundle : aBundles) {
+			if (XFramework.isFragment(l_bundle) || !matches(l_bundle)) {
+				l_ret.add(l_bundle);
+			} else if (l_bundle.getState() != Bundle.ACTIVE) {
+				defer(l_bundle);
+				l_deferred.add(l_bundle);
+			}
+		}
+		if (XFramework.context().getBundle(0).getState() == Bundle.ACTIVE) {
+			resolve(l_deferred);
+		}
+		return l_ret;
+	}
+
+	@Override
+	public void find(BundleContext aContext, String aName, String aFilter, boolean allServices,
+	    Collection<ServiceReference<?>> aReferences) {
+		if (aName == null || deferred.isEmpty()) {
+			return;
+		}
+		for (Bundle l_bundle : deferred) {
+			if (provides(l_bundle, aName)) {
+				activate(l_bundle, aName);
+			}
+		}
+	}
+
+	/**
+	 * @return the bundles activated on demand with the trigger of the activation
+	 */
+	public List<String> getActivated() {
+		synchronized (activated) {
+			return new ArrayList<String>(activated);
+		}
+	}
+
+	/**
+	 * @return the bundles waiting for their first use
+	 */
+	public List<String> getDeferred() {
+		return deferred.stream().map(LazyActivation::name).sorted().collect(Collectors.toList());
+	}
+
+	/**
+	 * @return <code>true</code> if folders or patterns of deferred bundles are
+	 *         configured
+	 */
+	public boolean isEnabled() {
+		return !folders.isEmpty() || !patterns.isEmpty();
+	}
+
+	/**
+	 * Registers the hooks with the given context and defers the matching bundles
+	 * that are already installed. Nothing is registered if the lazy activation
+	 * isn't configured.
+	 *
+	 * @param aContext the context of the system bundle
+	 */
+	public void register(BundleContext aContext) {
+		if (!isEnabled()) {
+			return;
+		}
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread l_ret = new Thread(r, BND.LAZY_ACTIVATION);
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		});
+		aContext.addBundleListener(this);
+		aContext.registerService(FindHook.class, this, null);
+		aContext.registerService(WeavingHook.class, this, null);
+
+		for (Bundle l_bundle : aContext.getBundles()) {
+			if (l_bundle.getBundleId() != 0 && !XFramework.isFragment(l_bundle) && matches(l_bundle)) {
+				defer(l_bundle);
+			}
+		}
+	}
+
+	/**
+	 * Resolves the deferred bundles after the framework has been started and
+	 * logs them.
+	 */
+	public void resolve() {
+		if (!deferred.isEmpty()) {
+			resolve(deferred);
+			SYS.LOG.info(MSG.LAZY_DEFERRED, deferred.size(), getDeferred());
+		}
+	}
+
+	@Override
+	public void weave(WovenClass aClass) {
+		if (deferred.isEmpty()) {
+			return;
+		}
+		Bundle l_bundle = aClass.getBundleWiring().getBundle();
+
+		if (deferred.contains(l_bundle)) {
+			activate(l_bundle, aClass.getClassName());
+		}
+	}
+
+	/**
+	 * Starts a deferred bundle on the activation thread. The start is transient,
+	 * so that the bundle is deferred again after a restart. If the start fails,
+	 * e.g. since the start level of the bundle isn't reached yet, the bundle is
+	 * deferred again.
+	 *
+	 * @param aBundle  the bundle to start
+	 * @param aTrigger the service interface or class that caused the demand
+	 */
+	private void activate(Bundle aBundle, String aTrigger) {
+		if (!deferred.remove(aBundle)) {
+			return;
+		}
+		synchronized (activated) {
+			activated.add(name(aBundle) + " <- " + aTrigger); //$NON-NLS-1$
+		}
+		SYS.LOG.info(MSG.LAZY_ACTIVATED, name(aBundle), aTrigger);
+
+		executor.execute(() -> {
+			try {
+				aBundle.start(Bundle.START_TRANSIENT | Bundle.START_ACTIVATION_POLICY);
+			} catch (Exception anEx) {
+				SYS.LOG.error(anEx.getMessage());
+				deferred.add(aBundle);
+			}
+		});
+	}
+
+	/**
+	 * Defers a bundle and clears its persistent autostart setting.
+	 *
+	 * @param aBundle the bundle to defer
+	 */
+	private void defer(Bundle aBundle) {
+		BundleStartLevel l_bsl = aBundle.adapt(BundleStartLevel.class);
+
+		try {
+			if (l_bsl != null && l_bsl.isPersistentlyStarted()) {
+				aBundle.stop();
+			}
+			deferred.add(aBundle);
+		} catch (Exception anEx) {
+			SYS.LOG.error(anEx.getMessage());
+		}
+	}
+
+	/**
+	 * Converts a symbolic name pattern with <code>*</code> wildcards to a regular
+	 * expression.
+	 */
+	private static Pattern glob(String aPattern) {
+		StringBuilder l_ret = new StringBuilder();
+
+		for (String l_part : aPattern.split("\\*", -1)) { //$NON-NLS-1$
+			l_ret.append(l_ret.length() == 0 ? "" : ".*").append(Pattern.quote(l_part)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return Pattern.compile(l_ret.toString());
+	}
+
+	private static List<String> list(String aValue) {
+		List<String> l_ret = new ArrayList<String>();
+
+		for (String l_item : aValue.split(",")) { //$NON-NLS-1$
+			String l_trimmed = l_item.trim().replace('\\', '/');
+
+			if (!l_trimmed.isEmpty()) {
+				l_ret.add(l_trimmed);
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Checks if a bundle is located in one of the configured folders of its
+	 * install area or its symbolic name matches one of the configured patterns.
+	 *
+	 * @param aBundle the bundle to check
+	 * @return <code>true</code> if the activation of the bundle is deferred
+	 */
+	private boolean matches(Bundle aBundle) {
+		String l_name = aBundle.getSymbolicName();
+
+		if (l_name != null && patterns.stream().anyMatch(p -> p.matcher(l_name).matches())) {
+			return true;
+		}
+		if (folders.isEmpty()) {
+			return false;
+		}
+		String l_location = BundleInventory.normalize(aBundle.getLocation());
+		Area l_area = InstallArea.area(InstallArea.areas(), l_location);
+
+		if (l_area == null) {
+			return false;
+		}
+		String l_path = l_area.relativize(l_location);
+
+		return folders.stream().anyMatch(f -> l_path.startsWith(f.endsWith("/") ? f : f + "/")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String name(Bundle aBundle) {
+		return aBundle.getSymbolicName() + " [" + aBundle.getBundleId() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Checks if a bundle provides a service interface, either declared as
+	 * <code>osgi.service</code> capability or exported with its package.
+	 *
+	 * @param aBundle the deferred bundle
+	 * @param aName   the name of the service interface
+	 * @return <code>true</code> if the bundle provides the interface
+	 */
+	private static boolean provides(Bundle aBundle, String aName) {
+		BundleRevision l_revision = aBundle.adapt(BundleRevision.class);
+
+		if (l_revision == null) {
+			return false;
+		}
+		for (BundleCapability l_cap : l_revision.getDeclaredCapabilities(SERVICE_NAMESPACE)) {
+			Object l_classes = l_cap.getAttributes().get(SERVICE_OBJECTCLASS);
+
+			if (l_classes instanceof Collection && ((Collection<?>) l_classes).contains(aName)) {
+				return true;
+			}
+		}
+		int l_dot = aName.lastIndexOf('.');
+		String l_package = l_dot < 0 ? "" : aName.substring(0, l_dot); //$NON-NLS-1$
+
+		for (BundleCapability l_cap : l_revision.getDeclaredCapabilities(PackageNamespace.PACKAGE_NAMESPACE)) {
+			Map<String, Object> l_attrs = l_cap.getAttributes();
+
+			if (l_package.equals(l_attrs.get(PackageNamespace.PACKAGE_NAMESPACE))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void resolve(Collection<Bundle> aBundles) {
+		if (!aBundles.isEmpty()) {
+			FrameworkWiring l_wiring = XFramework.context().getBundle(0).adapt(FrameworkWiring.class);
+
+			l_wiring.resolveBundles(new ArrayList<Bundle>(aBundles));
+		}
+	}
+}
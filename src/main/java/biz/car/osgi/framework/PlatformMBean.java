@@ -0,0 +1,46 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.MSG;
+
+/**
+ * Publishes management beans on the platform MBean server.
+ *
+ * @version 2.0.0 17.10.2026 16:12:31
+ */
+public interface PlatformMBean {
+
+	/**
+	 * Registers a management bean. An existing bean with the same name is
+	 * replaced. A failure is logged but doesn't abort the caller.
+	 *
+	 * @param anMBean the management bean
+	 * @param aName   the object name of the bean
+	 */
+	static void register(Object anMBean, String aName) {
+		MBeanServer l_server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			ObjectName l_name = new ObjectName(aName);
+
+			if (l_server.isRegistered(l_name)) {
+				l_server.unregisterMBean(l_name);
+			}
+			l_server.registerMBean(anMBean, l_name);
+		} catch (JMException anEx) {
+			SYS.LOG.warn(MSG.MBEAN_NOT_REGISTERED, aName, anEx.getMessage());
+		}
+	}
+}
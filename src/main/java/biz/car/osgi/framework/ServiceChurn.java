@@ -0,0 +1,390 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceReference;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+
+/**
+ * Analyzes the service churn of the framework, i.e. how often services are
+ * registered, modified and unregistered.<br>
+ * The events are counted per service interface and per registering bundle with
+ * striped counters that don't block the event dispatch of the framework. Each
+ * counter also keeps a sliding window per event type of a configurable length
+ * that is divided into a fixed number of slots, so that registration storms
+ * can be told apart from property changes. The rates of the event types within
+ * the window are kept for the whole framework. A service interface that is
+ * unregistered by the same bundle at least as often as the flapping threshold
+ * within the window is reported as flapping. The services with the most events
+ * within the window are published as a platform MXBean.
+ *
+ * @version 2.0.0 17.10.2026 20:11:26
+ */
+public class ServiceChurn implements ServiceChurnMXBean {
+
+	/**
+	 * The name of the MXBean.
+	 */
+	public static final String OBJECT_NAME = "biz.car.osgi:type=ServiceChurn"; //$NON-NLS-1$
+
+	private static final int COUNT_BITS = 24;
+	private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+	private static final int SLOTS = 12;
+	private static final int[] TYPES = { ServiceEvent.REGISTERED, ServiceEvent.MODIFIED,
+	    ServiceEvent.UNREGISTERING, ServiceEvent.MODIFIED_ENDMATCH };
+
+	private final Map<String, Counter> bundles;
+	private final LongAdder[] events;
+	private final Set<String> flapping;
+	private final Map<String, Window> identities;
+	private final Map<String, Counter> interfaces;
+	private final long origin;
+	private final Window[] rates;
+	private final long slot;
+	private final int threshold;
+	private final int top;
+	private final long window;
+
+	/**
+	 * Creates a default <code>ServiceChurn</code> instance. The length of the
+	 * sliding window, the flapping threshold and the number of top churners are
+	 * read from the framework properties.
+	 */
+	public ServiceChurn() {
+		super();
+
+		window = Math.max(SLOTS, FrameworkProperty.getPeriod(VAL.framework_servicechurn_window, "60s")); //$NON-NLS-1$
+		threshold = FrameworkProperty.getInt(VAL.framework_servicechurn_flapThreshold, 5);
+		top = FrameworkProperty.getInt(VAL.framework_servicechurn_top, 10);
+		slot = TimeUnit.MILLISECONDS.toNanos(window) / SLOTS;
+		bundles = new ConcurrentHashMap<String, Counter>();
+		events = new LongAdder[TYPES.length];
+		flapping = ConcurrentHashMap.newKeySet();
+		identities = new ConcurrentHashMap<String, Window>();
+		interfaces = new ConcurrentHashMap<String, Counter>();
+		origin = System.nanoTime();
+		rates = new Window[TYPES.length];
+
+		for (int i = 0; i < TYPES.length; i++) {
+			events[i] = new LongAdder();
+			rates[i] = new Window();
+		}
+	}
+
+	@Override
+	public Map<String, Long> getEventCounts() {
+		Map<String, Long> l_ret = new LinkedHashMap<String, Long>();
+
+		for (int i = 0; i < TYPES.length; i++) {
+			l_ret.put(BND.serviceEvent(TYPES[i]), events[i].sum());
+		}
+		return l_ret;
+	}
+
+	@Override
+	public List<String> getFlappingServices() {
+		long l_tick = tick();
+		List<String> l_ret = new ArrayList<String>();
+
+		flapping.removeIf(k -> identities.get(k).sum(l_tick) < threshold);
+
+		for (String l_key : new TreeSet<String>(flapping)) {
+			l_ret.add(l_key + " " + identities.get(l_key).sum(l_tick)); //$NON-NLS-1$
+		}
+		return l_ret;
+	}
+
+	@Override
+	public Map<String, Double> getRates() {
+		long l_tick = tick();
+		Map<String, Double> l_ret = new LinkedHashMap<String, Double>();
+
+		for (int i = 0; i < TYPES.length; i++) {
+			l_ret.put(BND.serviceEvent(TYPES[i]), rates[i].sum(l_tick) * 1000.0 / window);
+		}
+		return l_ret;
+	}
+
+	@Override
+	public List<String> getTopBundles() {
+		return top(bundles);
+	}
+
+	@Override
+	public List<String> getTopInterfaces() {
+		return top(interfaces);
+	}
+
+	@Override
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * Counts a service event per service interface and registering bundle.
+	 *
+	 * @param anEvent the service event
+	 */
+	public void record(ServiceEvent anEvent) {
+		int l_type = index(anEvent.getType());
+
+		if (l_type < 0) {
+			return;
+		}
+		long l_tick = tick();
+
+		events[l_type].increment();
+		rates[l_type].add(l_tick);
+
+		ServiceReference<?> l_ref = anEvent.getServiceReference();
+		String l_bundle = name(l_ref.getBundle());
+		Object l_classes = l_ref.getProperty(Constants.OBJECTCLASS);
+
+		bundles.computeIfAbsent(l_bundle, k -> new Counter()).add(l_type, l_tick);
+
+		if (!(l_classes instanceof String[])) {
+			return;
+		}
+		for (String l_class : (String[]) l_classes) {
+			interfaces.computeIfAbsent(l_class, k -> new Counter()).add(l_type, l_tick);
+
+			if (anEvent.getType() == ServiceEvent.UNREGISTERING) {
+				flap(l_class + " @ " + l_bundle, l_tick); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Counts an unregistration of a service and reports the service once it
+	 * starts flapping.
+	 *
+	 * @param aKey  the service interface and the registering bundle
+	 * @param aTick the current slot of the sliding window
+	 */
+	private void flap(String aKey, long aTick) {
+		Window l_window = identities.computeIfAbsent(aKey, k -> new Window());
+
+		l_window.add(aTick);
+
+		long l_count = l_window.sum(aTick);
+
+		if (l_count >= threshold && flapping.add(aKey)) {
+			SYS.LOG.warn(MSG.SERVICE_FLAPPING, aKey, l_count, window);
+		}
+	}
+
+	private static int index(int aType) {
+		for (int i = 0; i < TYPES.length; i++) {
+			if (TYPES[i] == aType) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the symbolic name of the bundle, or its id if it has none
+	 */
+	private static String name(Bundle aBundle) {
+		if (aBundle == null) {
+			return "?"; //$NON-NLS-1$
+		}
+		String l_ret = aBundle.getSymbolicName();
+
+		return l_ret == null ? String.valueOf(aBundle.getBundleId()) : l_ret;
+	}
+
+	/**
+	 * @return the current slot of the sliding window, counted since the creation
+	 *         of the analysis
+	 */
+	private long tick() {
+		return (System.nanoTime() - origin) / slot;
+	}
+
+	/**
+	 * Ranks the counters by the number of events within the sliding window.
+	 *
+	 * @param aCounters the counters per service interface or bundle
+	 * @return the top churners with their events within the window, per event
+	 *         type within the window and per event type in total
+	 */
+	private List<String> top(Map<String, Counter> aCounters) {
+		long l_tick = tick();
+		Map<String, Long> l_recent = new LinkedHashMap<String, Long>();
+		List<String> l_ret = new ArrayList<String>();
+
+		aCounters.forEach((k, v) -> {
+			long l_sum = v.sum(l_tick);
+
+			if (l_sum > 0) {
+				l_recent.put(k, l_sum);
+			}
+		});
+		l_recent.entrySet().stream()
+		    .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+		    .limit(top)
+		    .forEach(e -> {
+			    Counter l_counter = aCounters.get(e.getKey());
+
+			    l_ret.add(e.getKey() + " " + e.getValue() + " [" + l_counter.recent(l_tick) + "] (" + l_counter //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			        + ")"); //$NON-NLS-1$
+		    });
+		return l_ret;
+	}
+
+	/**
+	 * Lists the non-zero counts per event type.
+	 *
+	 * @param aCounts the count of each event type
+	 * @return the event types with their counts
+	 */
+	private static String counts(long[] aCounts) {
+		StringBuilder l_ret = new StringBuilder();
+
+		for (int i = 0; i < TYPES.length; i++) {
+			if (aCounts[i] > 0) {
+				l_ret.append(l_ret.length() == 0 ? "" : ", "); //$NON-NLS-1$ //$NON-NLS-2$
+				l_ret.append(BND.serviceEvent(TYPES[i])).append(' ').append(aCounts[i]);
+			}
+		}
+		return l_ret.toString();
+	}
+
+	/**
+	 * The events of a service interface or bundle per event type, in total and
+	 * within the sliding window.
+	 */
+	private static class Counter {
+
+		private final LongAdder[] totals;
+		private final Window[] windows;
+
+		private Counter() {
+			super();
+
+			totals = new LongAdder[TYPES.length];
+			windows = new Window[TYPES.length];
+
+			for (int i = 0; i < TYPES.length; i++) {
+				totals[i] = new LongAdder();
+				windows[i] = new Window();
+			}
+		}
+
+		private void add(int aType, long aTick) {
+			totals[aType].increment();
+			windows[aType].add(aTick);
+		}
+
+		/**
+		 * @return the events per event type within the sliding window
+		 */
+		private String recent(long aTick) {
+			long[] l_counts = new long[TYPES.length];
+
+			for (int i = 0; i < TYPES.length; i++) {
+				l_counts[i] = windows[i].sum(aTick);
+			}
+			return counts(l_counts);
+		}
+
+		/**
+		 * @return the events of all event types within the sliding window
+		 */
+		private long sum(long aTick) {
+			long l_ret = 0L;
+
+			for (Window l_window : windows) {
+				l_ret += l_window.sum(aTick);
+			}
+			return l_ret;
+		}
+
+		@Override
+		public String toString() {
+			long[] l_counts = new long[TYPES.length];
+
+			for (int i = 0; i < TYPES.length; i++) {
+				l_counts[i] = totals[i].sum();
+			}
+			return counts(l_counts);
+		}
+	}
+
+	/**
+	 * A sliding window of event counts. Each slot packs the tick it counts for
+	 * and the count into a single value, so that a slot is reused for a later
+	 * tick with the same compare and set as an increment and no event is lost.
+	 * Events of a tick that has already left the window are dropped.
+	 */
+	private static class Window {
+
+		private final AtomicLongArray slots;
+
+		private Window() {
+			super();
+
+			slots = new AtomicLongArray(SLOTS);
+		}
+
+		private void add(long aTick) {
+			int l_slot = (int) (aTick % SLOTS);
+			long l_old;
+			long l_new;
+
+			do {
+				l_old = slots.get(l_slot);
+
+				long l_tick = l_old >>> COUNT_BITS;
+
+				if (l_tick > aTick) {
+					return;
+				}
+				if (l_tick < aTick) {
+					l_new = aTick << COUNT_BITS | 1L;
+				} else if ((l_old & MAX_COUNT) < MAX_COUNT) {
+					l_new = l_old + 1L;
+				} else {
+					return;
+				}
+			} while (!slots.compareAndSet(l_slot, l_old, l_new));
+		}
+
+		private long sum(long aTick) {
+			long l_ret = 0L;
+
+			for (int i = 0; i < SLOTS; i++) {
+				long l_value = slots.get(i);
+
+				if (aTick - (l_value >>> COUNT_BITS) < SLOTS) {
+					l_ret += l_value & MAX_COUNT;
+				}
+			}
+			return l_ret;
+		}
+	}
+}
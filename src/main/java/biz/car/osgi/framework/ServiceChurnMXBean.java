@@ -0,0 +1,56 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The management interface of the <code>ServiceChurn</code>.
+ *
+ * @version 2.0.0 17.10.2026 20:11:26
+ */
+public interface ServiceChurnMXBean {
+
+	/**
+	 * @return the number of service events per event type since the framework
+	 *         was initialized
+	 */
+	Map<String, Long> getEventCounts();
+
+	/**
+	 * @return the services that were unregistered at least as often as the
+	 *         flapping threshold within the sliding window, keyed by object
+	 *         class and registering bundle
+	 */
+	List<String> getFlappingServices();
+
+	/**
+	 * @return the number of service events per second within the sliding window
+	 *         per event type
+	 */
+	Map<String, Double> getRates();
+
+	/**
+	 * @return the registering bundles with the most service events within the
+	 *         sliding window in descending order, with their events per event
+	 *         type within the window and in total
+	 */
+	List<String> getTopBundles();
+
+	/**
+	 * @return the service interfaces with the most service events within the
+	 *         sliding window in descending order, with their events per event
+	 *         type within the window and in total
+	 */
+	List<String> getTopInterfaces();
+
+	/**
+	 * @return the length of the sliding window in milliseconds
+	 */
+	long getWindow();
+}
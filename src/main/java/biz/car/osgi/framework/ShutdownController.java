@@ -0,0 +1,297 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.startlevel.FrameworkStartLevel;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+
+/**
+ * Shuts the OSGi framework down within a global deadline.<br>
+ * The active bundles are stopped start level by start level in descending
+ * order. The bundles of a level are stopped transiently and concurrently on a
+ * bounded thread pool, so that their persistent autostart setting is kept for
+ * the next start. Each level has to finish within the level timeout, then the
+ * start level of the framework is lowered below it. The stop time of each
+ * bundle is recorded. A bundle that doesn't finish its stop in time is reported
+ * as stuck together with the stack of the thread stopping it and the owner of
+ * the lock it is waiting for.<br>
+ * Finally the framework itself is stopped with the remaining time of the
+ * deadline and a timing report is logged. If the framework isn't stopped when
+ * the deadline has passed, the VM is halted.
+ *
+ * @version 2.0.0 17.10.2026 19:31:18
+ */
+public class ShutdownController {
+
+	private static final int FORCED_EXIT = 1;
+	private static final int REPORTED = 5;
+
+	private final long deadline;
+	private final Framework framework;
+	private final long levelTimeout;
+	private final int parallelism;
+	private final Map<Bundle, Thread> stopping;
+	private final Map<Bundle, Long> stops;
+	private final List<String> stuck;
+
+	/**
+	 * Creates a new <code>ShutdownController</code> instance. The deadline, the
+	 * level timeout and the parallelism are read from the framework properties.
+	 *
+	 * @param aFramework the framework to shut down
+	 */
+	public ShutdownController(Framework aFramework) {
+		super();
+
+		framework = aFramework;
+		deadline = FrameworkProperty.getPeriod(VAL.framework_shutdown_deadline, "60s"); //$NON-NLS-1$
+		levelTimeout = FrameworkProperty.getPeriod(VAL.framework_shutdown_levelTimeout, "10s"); //$NON-NLS-1$
+		parallelism = Math.max(1, FrameworkProperty.getInt(VAL.framework_shutdown_parallelism, 4));
+		stopping = new ConcurrentHashMap<Bundle, Thread>();
+		stops = new ConcurrentHashMap<Bundle, Long>();
+		stuck = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	/**
+	 * Halts the VM after the framework could not be stopped within the
+	 * deadline. The shutdown hooks are not run again.
+	 */
+	public void forceExit() {
+		SYS.LOG.error(MSG.SHUTDOWN_FORCED, deadline);
+		Runtime.getRuntime().halt(FORCED_EXIT);
+	}
+
+	/**
+	 * Stops the bundles level by level, stops the framework and logs the timing
+	 * report.
+	 *
+	 * @return <code>true</code> if the framework has stopped within the deadline
+	 */
+	public boolean shutdown() {
+		long l_start = System.nanoTime();
+		long l_end = l_start + TimeUnit.MILLISECONDS.toNanos(deadline);
+		Map<Integer, List<Bundle>> l_levels = levels();
+		ExecutorService l_pool = Executors.newFixedThreadPool(parallelism, threadFactory());
+		boolean l_ret = false;
+
+		try {
+			for (Map.Entry<Integer, List<Bundle>> l_level : l_levels.entrySet()) {
+				if (remaining(l_end) <= 0) {
+					break;
+				}
+				stopLevel(l_pool, l_level.getValue(), l_end);
+				lowerStartLevel(Math.max(1, l_level.getKey() - 1), l_end);
+			}
+			framework.stop();
+
+			FrameworkEvent l_event = framework.waitForStop(Math.max(1L, remaining(l_end)));
+
+			l_ret = l_event.getType() != FrameworkEvent.WAIT_TIMEDOUT;
+		} catch (InterruptedException anEx) {
+			Thread.currentThread().interrupt();
+		} catch (Exception anEx) {
+			SYS.LOG.error(MSG.FWK_STOP_ERROR, anEx);
+		} finally {
+			l_pool.shutdownNow();
+		}
+		SYS.LOG.info(MSG.SHUTDOWN_REPORT, millis(System.nanoTime() - l_start), stops.size(), l_levels.size(),
+		    stuck.size(), slowest());
+		return l_ret;
+	}
+
+	/**
+	 * Formats the stack of a thread together with the lock it is waiting for and
+	 * the owner of that lock.
+	 *
+	 * @param aThread the thread to dump
+	 * @return the thread dump
+	 */
+	private static String dump(Thread aThread) {
+		ThreadInfo l_info = ManagementFactory.getThreadMXBean().getThreadInfo(new long[] { aThread.getId() }, true,
+		    true)[0];
+
+		if (l_info == null) {
+			return ""; //$NON-NLS-1$
+		}
+		StringBuilder l_ret = new StringBuilder("\n\"").append(l_info.getThreadName()).append("\" ") //$NON-NLS-1$ //$NON-NLS-2$
+		    .append(l_info.getThreadState());
+
+		if (l_info.getLockName() != null) {
+			l_ret.append(" on ").append(l_info.getLockName()); //$NON-NLS-1$
+		}
+		if (l_info.getLockOwnerName() != null) {
+			l_ret.append(" owned by \"").append(l_info.getLockOwnerName()).append('"'); //$NON-NLS-1$
+		}
+		for (StackTraceElement l_frame : l_info.getStackTrace()) {
+			l_ret.append("\n\tat ").append(l_frame); //$NON-NLS-1$
+		}
+		return l_ret.toString();
+	}
+
+	/**
+	 * Groups the active bundles by their start level. The system bundle is
+	 * stopped by the framework itself.
+	 *
+	 * @return the bundles per start level in descending order
+	 */
+	private Map<Integer, List<Bundle>> levels() {
+		Map<Integer, List<Bundle>> l_ret = new TreeMap<Integer, List<Bundle>>(Collections.reverseOrder());
+
+		for (Bundle l_bundle : framework.getBundleContext().getBundles()) {
+			BundleStartLevel l_bsl = l_bundle.adapt(BundleStartLevel.class);
+
+			if (l_bundle.getBundleId() != 0 && l_bsl != null
+			    && (l_bundle.getState() & (Bundle.ACTIVE | Bundle.STARTING)) != 0) {
+				l_ret.computeIfAbsent(l_bsl.getStartLevel(), k -> new ArrayList<Bundle>()).add(l_bundle);
+			}
+		}
+		return l_ret;
+	}
+
+	/**
+	 * Lowers the start level of the framework and waits for the START LEVEL
+	 * CHANGED event within the level timeout.
+	 *
+	 * @param aLevel the new start level
+	 * @param anEnd  the end of the global deadline
+	 * @throws InterruptedException if the wait is interrupted
+	 */
+	private void lowerStartLevel(int aLevel, long anEnd) throws InterruptedException {
+		FrameworkStartLevel l_fsl = framework.adapt(FrameworkStartLevel.class);
+
+		if (l_fsl.getStartLevel() <= aLevel) {
+			return;
+		}
+		CountDownLatch l_latch = new CountDownLatch(1);
+		long l_timeout = Math.min(levelTimeout, remaining(anEnd));
+
+		l_fsl.setStartLevel(aLevel, e -> {
+			if (e.getType() == FrameworkEvent.STARTLEVEL_CHANGED) {
+				l_latch.countDown();
+			}
+		});
+		if (!l_latch.await(l_timeout, TimeUnit.MILLISECONDS)) {
+			SYS.LOG.warn(MSG.SHUTDOWN_LEVEL_TIMEOUT, aLevel, l_timeout);
+		}
+	}
+
+	private static long millis(long aNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(aNanos);
+	}
+
+	private static String name(Bundle aBundle) {
+		return aBundle.getSymbolicName() + " [" + aBundle.getBundleId() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @return the milliseconds left until the end of the deadline
+	 */
+	private static long remaining(long anEnd) {
+		return millis(anEnd - System.nanoTime());
+	}
+
+	private List<String> slowest() {
+		return stops.entrySet().stream()
+		    .sorted(Map.Entry.<Bundle, Long>comparingByValue().reversed())
+		    .limit(REPORTED)
+		    .map(e -> name(e.getKey()) + " " + e.getValue() + " ms") //$NON-NLS-1$ //$NON-NLS-2$
+		    .collect(Collectors.toList());
+	}
+
+	/**
+	 * Stops a single bundle transiently and records its stop time.
+	 *
+	 * @param aBundle the bundle to stop
+	 */
+	private void stopBundle(Bundle aBundle) {
+		long l_start = System.nanoTime();
+
+		stopping.put(aBundle, Thread.currentThread());
+
+		try {
+			aBundle.stop(Bundle.STOP_TRANSIENT);
+		} catch (Exception anEx) {
+			SYS.LOG.error(anEx.getMessage());
+		} finally {
+			stopping.remove(aBundle);
+			stops.put(aBundle, millis(System.nanoTime() - l_start));
+		}
+	}
+
+	/**
+	 * Stops the bundles of a start level concurrently and waits for them within
+	 * the level timeout. The threads of the bundles still stopping afterwards are
+	 * dumped.
+	 *
+	 * @param aPool    the thread pool
+	 * @param aBundles the bundles of the start level
+	 * @param anEnd    the end of the global deadline
+	 * @throws InterruptedException if the wait is interrupted
+	 */
+	private void stopLevel(ExecutorService aPool, List<Bundle> aBundles, long anEnd) throws InterruptedException {
+		long l_levelEnd = Math.min(anEnd, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(levelTimeout));
+		long l_start = System.nanoTime();
+		List<Future<?>> l_futures = new ArrayList<Future<?>>();
+
+		for (Bundle l_bundle : aBundles) {
+			l_futures.add(aPool.submit(() -> stopBundle(l_bundle)));
+		}
+		for (int i = 0; i < l_futures.size(); i++) {
+			Bundle l_bundle = aBundles.get(i);
+
+			try {
+				l_futures.get(i).get(Math.max(0L, remaining(l_levelEnd)), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException anEx) {
+				Thread l_thread = stopping.get(l_bundle);
+
+				stuck.add(name(l_bundle));
+				SYS.LOG.warn(MSG.SHUTDOWN_BUNDLE_STUCK, name(l_bundle), millis(System.nanoTime() - l_start),
+				    l_thread == null ? "" : dump(l_thread)); //$NON-NLS-1$
+			} catch (ExecutionException anEx) {
+				SYS.LOG.error(anEx.getCause().getMessage());
+			}
+		}
+	}
+
+	private static ThreadFactory threadFactory() {
+		AtomicInteger l_count = new AtomicInteger();
+
+		return r -> {
+			Thread l_ret = new Thread(r, BND.BUNDLE_SHUTDOWN + "-" + l_count.incrementAndGet()); //$NON-NLS-1$
+
+			l_ret.setDaemon(true);
+			return l_ret;
+		};
+	}
+}
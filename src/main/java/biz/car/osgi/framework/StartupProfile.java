@@ -0,0 +1,217 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.osgi.framework.Bundle;
+
+import biz.car.SYS;
+import biz.car.osgi.bundle.MSG;
+
+/**
+ * Measures the phases of the framework startup and the install and update
+ * operations of the bundles with a monotonic clock.<br>
+ * The profile is published as a platform MXBean and summarized in a single log
+ * line when the startup has finished. Bundle operations after the startup,
+ * e.g. by hot deployment, are not recorded. The bundles are activated while
+ * the framework raises its start level, their activations are measured by the
+ * <code>ActivationProfiler</code>.
+ *
+ * @version 2.0.0 17.10.2026 20:09:40
+ */
+public class StartupProfile implements StartupProfileMXBean {
+
+	/**
+	 * Bundle operation <code>install</code>.
+	 */
+	public static final String INSTALL = "install"; //$NON-NLS-1$
+
+	/**
+	 * The name of the MXBean.
+	 */
+	public static final String OBJECT_NAME = "biz.car.osgi:type=StartupProfile"; //$NON-NLS-1$
+
+	/**
+	 * Bundle operation <code>update</code>.
+	 */
+	public static final String UPDATE = "update"; //$NON-NLS-1$
+
+	private static final int SLOWEST = 10;
+	private static final StartupProfile profile = new StartupProfile();
+
+	private final Queue<Timing> bundles;
+	private volatile boolean finished;
+	private final long origin;
+	private final Map<String, Long> phases;
+	private volatile long total;
+
+	/**
+	 * Creates a default <code>StartupProfile</code> instance.
+	 */
+	private StartupProfile() {
+		super();
+
+		bundles = new ConcurrentLinkedQueue<Timing>();
+		origin = System.nanoTime();
+		phases = new LinkedHashMap<String, Long>();
+		total = -1L;
+	}
+
+	/**
+	 * @return the current value of the monotonic clock
+	 */
+	public static long begin() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the duration of a bundle operation during startup.
+	 *
+	 * @param anOperation the bundle operation, e.g. <code>INSTALL</code>
+	 * @param aBundle     the bundle
+	 * @param aStart      the value of <code>begin()</code> before the operation
+	 */
+	public static void bundle(String anOperation, Bundle aBundle, long aStart) {
+		if (!profile.finished) {
+			long l_nanos = System.nanoTime() - aStart;
+
+			profile.bundles.add(new Timing(anOperation, aBundle.getSymbolicName(), aBundle.getBundleId(), l_nanos));
+		}
+	}
+
+	/**
+	 * Ends the startup, logs the summary of the profile and publishes it as a
+	 * platform MXBean. Subsequent calls have no effect.
+	 */
+	public static void finish() {
+		if (profile.finished) {
+			return;
+		}
+		profile.total = millis(System.nanoTime() - profile.origin);
+		profile.finished = true;
+
+		SYS.LOG.info(MSG.STARTUP_PROFILE, profile.total, profile.phaseSummary(), profile.bundleSummary());
+
+		PlatformMBean.register(profile, OBJECT_NAME);
+	}
+
+	/**
+	 * Records the duration of a startup phase.
+	 *
+	 * @param aPhase the name of the phase
+	 * @param aStart the value of <code>begin()</code> before the phase
+	 */
+	public static void phase(String aPhase, long aStart) {
+		long l_millis = millis(System.nanoTime() - aStart);
+
+		synchronized (profile.phases) {
+			profile.phases.merge(aPhase, l_millis, Long::sum);
+		}
+	}
+
+	@Override
+	public Map<String, Long> getBundleTimes() {
+		Map<String, Long> l_ret = new LinkedHashMap<String, Long>();
+
+		bundles.forEach(t -> l_ret.merge(t.toString(), millis(t.nanos), Long::sum));
+		return l_ret;
+	}
+
+	@Override
+	public Map<String, Long> getPhaseTimes() {
+		synchronized (phases) {
+			return new LinkedHashMap<String, Long>(phases);
+		}
+	}
+
+	@Override
+	public List<String> getSlowestBundles() {
+		return bundles.stream()
+		    .sorted(Comparator.comparingLong((Timing t) -> t.nanos).reversed())
+		    .limit(SLOWEST)
+		    .map(t -> t + " " + millis(t.nanos) + " ms") //$NON-NLS-1$ //$NON-NLS-2$
+		    .collect(Collectors.toList());
+	}
+
+	@Override
+	public long getStartupTime() {
+		return total;
+	}
+
+	private static long millis(long aNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(aNanos);
+	}
+
+	/**
+	 * @return the number and total duration of each bundle operation and the
+	 *         slowest bundle operations
+	 */
+	private String bundleSummary() {
+		Map<String, long[]> l_ops = new LinkedHashMap<String, long[]>();
+
+		for (Timing l_timing : bundles) {
+			long[] l_op = l_ops.computeIfAbsent(l_timing.operation, k -> new long[2]);
+
+			l_op[0]++;
+			l_op[1] += l_timing.nanos;
+		}
+		StringJoiner l_ret = new StringJoiner(", "); //$NON-NLS-1$
+
+		l_ops.forEach((k, v) -> l_ret.add(k + " " + v[0] + " in " + millis(v[1]) + " ms")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		List<String> l_slowest = getSlowestBundles();
+
+		if (!l_slowest.isEmpty()) {
+			l_ret.add("slowest " + l_slowest.subList(0, Math.min(3, l_slowest.size()))); //$NON-NLS-1$
+		}
+		return l_ret.toString();
+	}
+
+	/**
+	 * @return the duration of each phase
+	 */
+	private String phaseSummary() {
+		StringJoiner l_ret = new StringJoiner(", "); //$NON-NLS-1$
+
+		getPhaseTimes().forEach((k, v) -> l_ret.add(k + " " + v + " ms")); //$NON-NLS-1$ //$NON-NLS-2$
+		return l_ret.toString();
+	}
+
+	/**
+	 * The duration of a single bundle operation.
+	 */
+	private static class Timing {
+
+		private final long id;
+		private final String name;
+		private final long nanos;
+		private final String operation;
+
+		private Timing(String anOperation, String aName, long anId, long aNanos) {
+			super();
+
+			operation = anOperation;
+			name = aName;
+			id = anId;
+			nanos = aNanos;
+		}
+
+		@Override
+		public String toString() {
+			return operation + " " + name + " [" + id + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+}
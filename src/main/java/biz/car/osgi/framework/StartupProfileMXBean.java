@@ -0,0 +1,40 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.framework;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The management interface of the <code>StartupProfile</code>.
+ *
+ * @version 2.0.0 17.10.2026 14:40:12
+ */
+public interface StartupProfileMXBean {
+
+	/**
+	 * @return the duration of each bundle operation in milliseconds, keyed by
+	 *         operation, symbolic name and bundle id
+	 */
+	Map<String, Long> getBundleTimes();
+
+	/**
+	 * @return the duration of each startup phase in milliseconds
+	 */
+	Map<String, Long> getPhaseTimes();
+
+	/**
+	 * @return the slowest bundle operations in descending order
+	 */
+	List<String> getSlowestBundles();
+
+	/**
+	 * @return the total startup time in milliseconds or -1 if the startup hasn't
+	 *         finished yet
+	 */
+	long getStartupTime();
+}
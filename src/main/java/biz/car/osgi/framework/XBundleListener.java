@@ -12,10 +12,6 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleListener;
 
-import biz.car.osgi.bundle.BND;
-import biz.car.osgi.bundle.DIAG;
-import biz.car.osgi.bundle.MSG;
-
 /**
  * A listener for the events of a bundle in the OSGi framework.
  *
@@ -23,14 +19,25 @@ import biz.car.osgi.bundle.MSG;
  */
 public class XBundleListener implements BundleListener {
 
+    private final EventPipeline pipeline;
+
+    /**
+     * Creates a new <code>XBundleListener</code> instance.
+     *
+     * @param aPipeline the pipeline that writes the events to the log
+     */
+    public XBundleListener(EventPipeline aPipeline) {
+        super();
+
+        pipeline = aPipeline;
+    }
+
     @Override
     public void bundleChanged(BundleEvent anEvent) {
-        int l_ev = anEvent.getType();
         Bundle l_bundle = anEvent.getBundle();
-        String l_name = l_bundle.getSymbolicName();
 
         if (l_bundle.getBundleId() != SYSTEM_BUNDLE_ID) {
-        	DIAG.LOG.info(MSG.BUNDLE_EVENT, l_name, BND.bundleEvent(l_ev));
+            pipeline.bundleEvent(anEvent);
         }
     }
 }
@@ -6,8 +6,14 @@
 
 package biz.car.osgi.framework;
 
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -17,21 +23,34 @@ import org.osgi.framework.BundleException;
 import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.FrameworkListener;
 import org.osgi.framework.launch.Framework;
+import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.FrameworkWiring;
 
 import biz.car.SYS;
 import biz.car.osgi.bundle.BND;
+import biz.car.osgi.bundle.KEY;
 import biz.car.osgi.bundle.MSG;
+import biz.car.osgi.bundle.VAL;
+import biz.car.osgi.deploy.BundleManifest;
+import biz.car.osgi.deploy.BundleQuarantine;
+import biz.car.osgi.deploy.ManifestIndex;
+import biz.car.osgi.deploy.StartFailureListener;
 import biz.car.util.Delay;
 
 /**
  * Facade to the OSGi framework implementation.
  *
- * @version 2.0.0 20.01.2026 15:49:46
+ * @version 2.0.0 17.10.2026 20:13:37
  */
 public class XFramework {
 
+	private static ActivationEngine engine;
+	private static EventPipeline events;
+	private static StartFailureListener failures;
+	private static ActivationProfiler profiler;
+	private static final String FILE_SCHEME = "file:"; //$NON-NLS-1$
 	private static Framework fwk;
+	private static LazyActivation lazy;
 	private static final long REFRESH_TIMEOUT;
 
 	static {
@@ -45,6 +64,29 @@ public class XFramework {
 		return fwk.getBundleContext();
 	}
 
+	/**
+	 * Resolves the framework data area as a folder on the file system. The folder
+	 * is created if it doesn't exist.
+	 * 
+	 * @return the folder of the framework data area
+	 */
+	public static File dataArea() {
+		String l_key = KEY.conf.getString(VAL.framework_data_area);
+		String l_area = context().getProperty(l_key);
+		File l_ret = new File(l_area);
+
+		if (l_area.startsWith(FILE_SCHEME)) {
+			try {
+				l_ret = new File(new URI(l_area));
+			} catch (URISyntaxException | IllegalArgumentException anEx) {
+				l_ret = new File(l_area.substring(FILE_SCHEME.length()));
+			}
+		}
+		l_ret.mkdirs();
+
+		return l_ret;
+	}
+
 	/**
 	 * Creates an instance of the OSGi framework and initializes it.
 	 *
@@ -56,8 +98,12 @@ public class XFramework {
 			// Create an instance of the OSGi framework.
 			fwk = XFrameworkFactory.get(aConfig);
 
+			// Create the pipeline that logs the framework events
+			events = new EventPipeline(aConfig);
+			events.start();
+
 			// Create a framework listener
-			XFrameworkListener l_fl = new XFrameworkListener();
+			XFrameworkListener l_fl = new XFrameworkListener(events);
 
 			// Initialize the OSGi framework using the framework listener
 			// the listener only catches events during init phase
@@ -67,11 +113,25 @@ public class XFramework {
 			// Re-Activate framework for listening after init
 			context().addFrameworkListener(l_fl);
 			// Activate Service Listener
-			XServiceListener l_sl = new XServiceListener();
+			XServiceListener l_sl = new XServiceListener(events);
 			context().addServiceListener(l_sl);
 			// Activate Bundle Listener
-			XBundleListener l_bl = new XBundleListener();
+			XBundleListener l_bl = new XBundleListener(events);
 			context().addBundleListener(l_bl);
+			// Activate the activation profiler
+			profiler = new ActivationProfiler();
+			context().addBundleListener(profiler);
+			context().addServiceListener(profiler);
+			// Record the failed starts for the bundle quarantine
+			failures = new StartFailureListener();
+			failures.register(context());
+			// Defer the activation of the non-critical bundles
+			lazy = new LazyActivation();
+			lazy.register(context());
+			// Create the engine that starts the bundles
+			engine = new ActivationEngine();
+			// Register the shell commands
+			FrameworkCommands.register(context(), l_sl, profiler, lazy);
 		} catch (BundleException anEx) {
 			SYS.LOG.exception(anEx);
 			throw SYS.LOG.exception(MSG.FWK_INIT_ERROR);
@@ -79,20 +139,36 @@ public class XFramework {
 	}
 
 	/**
-	 * Checks if a bundle is a fragment.
+	 * Checks if a bundle is a fragment. The check uses the manifest index of the
+	 * installation area, or the type of the current bundle revision if the jar of
+	 * the bundle isn't indexed. The headers of the bundle aren't parsed.
 	 * 
 	 * @param aBundle the bundle to check
 	 * @return true if the bundle is a fragment
 	 */
 	public static boolean isFragment(Bundle aBundle) {
-		return aBundle.getHeaders().get(org.osgi.framework.Constants.FRAGMENT_HOST) != null;
+		BundleManifest l_mf = ManifestIndex.instance().get(aBundle);
+
+		if (l_mf != null) {
+			return l_mf.isFragment();
+		}
+		BundleRevision l_rev = aBundle.adapt(BundleRevision.class);
+
+		return l_rev != null && (l_rev.getTypes() & BundleRevision.TYPE_FRAGMENT) != 0;
 	}
 
 	/**
-	 * Refreshes all bundle dependencies, waits for the PACKAGES REFRESHED event and
-	 * then returns to the caller.
+	 * Refreshes the dependency closure of the given bundles, waits for the
+	 * PACKAGES REFRESHED event and then returns to the caller.<br>
+	 * The closure includes the bundles wired to the old revisions of updated or
+	 * uninstalled bundles. Bundles outside the closure keep their wiring and stay
+	 * active, even if other bundles are pending removal.
+	 * 
+	 * @param aBundles the bundles installed, updated or uninstalled by the
+	 *                 reconcile
+	 * @return the number of refreshed bundles
 	 */
-	public static void refreshAndWait() {
+	public static int refreshAndWait(Collection<Bundle> aBundles) {
 		// Create a latch to wait for refresh completion
 		final CountDownLatch l_refreshLatch = new CountDownLatch(1);
 
@@ -106,16 +182,23 @@ public class XFramework {
 			}
 		};
 
+		// Determine the bundles affected by the change
+		Bundle l_systemBundle = context().getBundle(0);
+		FrameworkWiring l_frameworkWiring = l_systemBundle.adapt(FrameworkWiring.class);
+		Set<Bundle> l_changed = new LinkedHashSet<Bundle>(aBundles);
+		Collection<Bundle> l_closure = l_frameworkWiring.getDependencyClosure(l_changed);
+
+		SYS.LOG.info(MSG.REFRESH_CLOSURE, l_closure.size(), l_changed.size());
+
+		if (l_closure.isEmpty()) {
+			return 0;
+		}
 		try {
 			// Register the listener
 			context().addFrameworkListener(l_refreshListener);
 
-			// Trigger framework refresh
-			Bundle l_systemBundle = context().getBundle(0);
-			FrameworkWiring l_frameworkWiring = l_systemBundle.adapt(FrameworkWiring.class);
-
-			// Refresh all bundles (null = all bundles)
-			l_frameworkWiring.refreshBundles(null, l_refreshListener);
+			// Refresh the affected subgraph only
+			l_frameworkWiring.refreshBundles(l_closure, l_refreshListener);
 
 			// Wait for PACKAGES_REFRESHED event
 			boolean l_refreshed = l_refreshLatch.await(REFRESH_TIMEOUT, TimeUnit.MILLISECONDS);
@@ -130,6 +213,16 @@ public class XFramework {
 			// Always remove the listener
 			context().removeFrameworkListener(l_refreshListener);
 		}
+		return l_closure.size();
+	}
+
+	/**
+	 * Drops the state that is bound to the data area of a stopped framework, so
+	 * that another framework instance in the same VM doesn't share it.
+	 */
+	private static void release() {
+		ManifestIndex.reset();
+		BundleQuarantine.reset();
 	}
 
 	/**
@@ -141,14 +234,21 @@ public class XFramework {
 		try {
 			do {
 				// Start the framework
+				long l_phase = StartupProfile.begin();
+
 				fwk.start();
 				SYS.LOG.info(MSG.FWK_STARTED);
+				StartupProfile.phase("framework start", l_phase); //$NON-NLS-1$
+				lazy.resolve();
 
 				// Log diagnostic information
 				FrameworkDiagnose.accept(fwk);
+				profiler.report();
+				StartupProfile.finish();
 
 				// Wait for framework to stop to exit the VM
 				l_event = fwk.waitForStop(0);
+				release();
 			}
 			// If the framework was updated, then restart it
 			while (l_event.getType() == FrameworkEvent.STOPPED_UPDATE);
@@ -161,41 +261,41 @@ public class XFramework {
 	}
 
 	/**
-	 * Starts a list of bundles.
+	 * Starts a list of bundles. Depending on the framework property
+	 * <code>framework.activation.mode</code> the bundles are started one after
+	 * another or concurrently per start level. While the framework is starting,
+	 * the bundles are only marked for activation and activated by the framework
+	 * when it raises the start level. Bundles configured for lazy activation are
+	 * only resolved and started on their first use. Failed starts are recorded by
+	 * the bundle quarantine from the bundle events, whoever starts the bundle.
 	 * 
 	 * @param aBundles the list of bundles to start.
 	 */
 	public static void startBundles(List<Bundle> aBundles) {
-		// start bundles if not fragment
-		for (Bundle l_installed : aBundles) {
-			if (!isFragment(l_installed)) {
-				try {
-					// Nutzung von START_TRANSIENT verhindert, dass der Start-Status
-					// persistent gespeichert wird (sauberer für Development)
-					l_installed.start(Bundle.START_ACTIVATION_POLICY);
-				} catch (Exception anEx) {
-					// Loggen, aber nicht den ganzen Batch abbrechen
-					SYS.LOG.error(anEx.getMessage());
-				}
-			}
-		}
+		engine.start(lazy.defer(aBundles));
 	}
 
 	/**
-	 * Performs a shutdown of the OSGi framework.
+	 * Performs a shutdown of the OSGi framework within the shutdown deadline.
+	 * The VM is halted if the framework hasn't stopped when the deadline has
+	 * passed.
 	 */
-	public static void stop() {
+	public static synchronized void stop() {
 		if (fwk != null) {
-			try {
-				fwk.stop();
-				fwk.waitForStop(0);
-				SYS.LOG.info(MSG.FWK_STOPPED);
-
-				fwk = null;
-			} catch (InterruptedException ignored) {
-			} catch (Exception anEx) {
-				SYS.LOG.error(MSG.FWK_STOP_ERROR, anEx);
+			ShutdownController l_controller = new ShutdownController(fwk);
+			boolean l_stopped = l_controller.shutdown();
+
+			events.close();
+			engine.close();
+			failures.close();
+			release();
+
+			if (!l_stopped) {
+				l_controller.forceExit();
 			}
+			SYS.LOG.info(MSG.FWK_STOPPED);
+
+			fwk = null;
 		}
 	}
 
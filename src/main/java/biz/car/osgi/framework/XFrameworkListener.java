@@ -6,14 +6,9 @@
 
 package biz.car.osgi.framework;
 
-import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.FrameworkListener;
 
-import biz.car.osgi.bundle.BND;
-import biz.car.osgi.bundle.DIAG;
-import biz.car.osgi.bundle.MSG;
-
 /**
  * Logs the events of the OSGi framework.
  *
@@ -21,19 +16,21 @@ import biz.car.osgi.bundle.MSG;
  */
 public class XFrameworkListener implements FrameworkListener {
 
+	private final EventPipeline pipeline;
+
 	/**
-	 * Creates a default <code>XFrameworkListener</code> instance.
+	 * Creates a new <code>XFrameworkListener</code> instance.
+	 *
+	 * @param aPipeline the pipeline that writes the events to the log
 	 */
-	public XFrameworkListener() {
+	public XFrameworkListener(EventPipeline aPipeline) {
 		super();
+
+		pipeline = aPipeline;
 	}
 
 	@Override
 	public void frameworkEvent(FrameworkEvent anEvent) {
-		Bundle l_bundle = anEvent.getBundle();
-		int l_type = anEvent.getType();
-		String l_event = BND.frameworkEvent(l_type);
-
-		DIAG.LOG.info(MSG.FRAMEWORK_EVENT, l_event, l_bundle.getSymbolicName());
+		pipeline.frameworkEvent(anEvent);
 	}
 }
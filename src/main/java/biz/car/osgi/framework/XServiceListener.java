@@ -8,32 +8,42 @@ package biz.car.osgi.framework;
 
 import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.ServiceListener;
-import org.osgi.framework.ServiceReference;
-
-import biz.car.osgi.bundle.BND;
-import biz.car.osgi.bundle.DIAG;
-import biz.car.osgi.bundle.MSG;
 
 /**
- * Logs the events of the OSGi framework.
+ * Logs the service events of the OSGi framework and records them in the
+ * service churn analytics.
  *
  * @version 2.0.0 08.01.2026 11:00:50
  */
 public class XServiceListener implements ServiceListener {
 
+	private final ServiceChurn churn;
+	private final EventPipeline pipeline;
+
 	/**
-	 * Creates a default <code>XFrameworkListener</code> instance.
+	 * Creates a new <code>XServiceListener</code> instance.
+	 *
+	 * @param aPipeline the pipeline that writes the events to the log
 	 */
-	public XServiceListener() {
+	public XServiceListener(EventPipeline aPipeline) {
 		super();
+
+		pipeline = aPipeline;
+		churn = new ServiceChurn();
+
+		PlatformMBean.register(churn, ServiceChurn.OBJECT_NAME);
+	}
+
+	/**
+	 * @return the service churn analytics
+	 */
+	public ServiceChurn churn() {
+		return churn;
 	}
 
 	@Override
 	public void serviceChanged(ServiceEvent anEvent) {
-		ServiceReference<?> l_ref = anEvent.getServiceReference();
-		int l_type = anEvent.getType();
-		String l_event = BND.serviceEvent(l_type);
-
-		DIAG.LOG.info(MSG.SERVICE_EVENT, l_event, l_ref.toString());
+		churn.record(anEvent);
+		pipeline.serviceEvent(anEvent);
 	}
 }
@@ -0,0 +1,136 @@
+/* --------------------------------------------------------------------------
+ * Project: CAR OSGi
+ * --------------------------------------------------------------------------
+ * Use of this software is subject to license terms. All Rights Reserved.
+ * -------------------------------------------------------------------------- */
+
+package biz.car.osgi.deploy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the comparison of the jar inventory with the bundle inventory. The
+ * comparison works on the entries only and doesn't need a running framework.
+ *
+ * @version 2.0.0 17.10.2026 20:14:40
+ */
+public class BundleInventoryTest {
+
+	private static final long MODIFIED = 1_700_000_000_000L;
+	private static final int SIZE = 10_000;
+
+	/**
+	 * A jar without a bundle is installed, a bundle without a jar is
+	 * uninstalled, a newer jar is updated and an unchanged jar is left alone.
+	 */
+	@Test
+	public void diff() {
+		BundleInventory l_jars = new BundleInventory();
+		BundleInventory l_bundles = new BundleInventory();
+
+		l_jars.add(jar("added", MODIFIED));
+		l_jars.add(jar("changed", MODIFIED + 1000L));
+		l_jars.add(jar("unchanged", MODIFIED));
+		l_bundles.add(bundle("changed", 1L, MODIFIED));
+		l_bundles.add(bundle("unchanged", 2L, MODIFIED));
+		l_bundles.add(bundle("removed", 3L, MODIFIED));
+
+		InventoryDiff l_diff = l_jars.diff(l_bundles);
+
+		assertEquals(List.of(location("added")), locations(l_diff.getInstalls()));
+		assertEquals(List.of(location("changed")), locations(l_diff.getUpdates()));
+		assertEquals(List.of(location("removed")), locations(l_diff.getUninstalls()));
+		assertEquals(3L, l_diff.getUninstalls().get(0).getBundleId());
+	}
+
+	/**
+	 * Equal inventories result in an empty diff.
+	 */
+	@Test
+	public void diffUnchanged() {
+		BundleInventory l_jars = new BundleInventory();
+		BundleInventory l_bundles = new BundleInventory();
+
+		for (int i = 0; i < 10; i++) {
+			l_jars.add(jar("b" + i, MODIFIED));
+			l_bundles.add(bundle("b" + i, i, MODIFIED));
+		}
+		assertTrue(l_jars.diff(l_bundles).isEmpty());
+	}
+
+	/**
+	 * Compares two inventories of 10k locations. Each location present in both
+	 * inventories is checked exactly once.
+	 */
+	@Test
+	public void diffLarge() {
+		BundleInventory l_jars = new BundleInventory();
+		BundleInventory l_bundles = new BundleInventory();
+
+		for (int i = 0; i < SIZE; i++) {
+			// every 10th jar is new, every 20th bundle has lost its jar
+			if (i % 10 != 0) {
+				l_bundles.add(bundle("b" + i, i, MODIFIED));
+			}
+			if (i % 20 != 5) {
+				l_jars.add(jar("b" + i, i % 7 == 0 ? MODIFIED + 1000L : MODIFIED));
+			}
+		}
+		AtomicInteger l_checks = new AtomicInteger();
+		InventoryDiff l_diff = l_jars.diff(l_bundles, (j, b) -> {
+			l_checks.incrementAndGet();
+			return j.getLastModified() > b.getLastModified();
+		});
+		int l_installs = 0;
+		int l_updates = 0;
+		int l_uninstalls = 0;
+		int l_common = 0;
+
+		for (int i = 0; i < SIZE; i++) {
+			boolean l_jar = i % 20 != 5;
+			boolean l_bundle = i % 10 != 0;
+
+			if (l_jar && !l_bundle) {
+				l_installs++;
+			} else if (!l_jar && l_bundle) {
+				l_uninstalls++;
+			} else if (l_jar && l_bundle) {
+				l_common++;
+
+				if (i % 7 == 0) {
+					l_updates++;
+				}
+			}
+		}
+		assertEquals(l_installs, l_diff.getInstalls().size());
+		assertEquals(l_updates, l_diff.getUpdates().size());
+		assertEquals(l_uninstalls, l_diff.getUninstalls().size());
+		assertEquals(l_common, l_checks.get());
+		assertTrue(l_diff.getUninstalls().stream().allMatch(InventoryEntry::isBundle));
+		assertEquals(l_diff.getInstalls().size(), Set.copyOf(locations(l_diff.getInstalls())).size());
+	}
+
+	private static InventoryEntry bundle(String aName, long anId, long aModified) {
+		return new InventoryEntry(location(aName), -1L, aModified, anId, aName, "1.0.0"); //$NON-NLS-1$
+	}
+
+	private static InventoryEntry jar(String aName, long aModified) {
+		return new InventoryEntry(location(aName), 1024L, aModified, InventoryEntry.NO_BUNDLE, null, null);
+	}
+
+	private static String location(String aName) {
+		return "file:/opt/car/bundles/" + aName + ".jar"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static List<String> locations(List<InventoryEntry> anEntries) {
+		return anEntries.stream().map(InventoryEntry::getLocation).sorted().collect(Collectors.toList());
+	}
+}